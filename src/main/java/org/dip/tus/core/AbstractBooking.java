@@ -1,8 +1,10 @@
 package org.dip.tus.core;
 
 import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
 import org.dip.tus.exception.BookingDateArgumentException;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.util.EpochTime;
 
 import java.time.LocalDateTime;
 
@@ -10,12 +12,25 @@ import java.time.LocalDateTime;
  * Abstract base class for bookings across various entities.
  * Defines the common properties and behavior of bookings such as customer details,
  * start and end date/time, and booking validation logic.
+ * <p>
+ * Start and end times are stored as primitive epoch seconds so that ordering and clash checks compare longs.
+ * The {@link LocalDateTime} getters create a view of those values on demand.
+ * <p>
+ * The customer is held as their integer ID in the {@link CustomerManager} and looked up on demand. A booking made
+ * for a customer who is not registered yet holds the customer until it is committed and the customer registered.
  */
 public abstract class AbstractBooking {
 
-    private Customer customer;
-    private LocalDateTime bookingDateTimeStart;
-    private LocalDateTime bookingDateTimeEnd;
+    /**
+     * The displayed ID of a booking that has not been committed yet and so has no booking ID.
+     */
+    public static final String UNASSIGNED_ID = "unassigned";
+
+    private volatile Customer unregisteredCustomer;
+    private volatile int customerId;
+    private final long bookingStartEpochSecond;
+    private final long bookingEndEpochSecond;
+    private volatile long bookingId;
 
     /**
      * Constructs an AbstractBooking instance with the provided details.
@@ -27,29 +42,124 @@ public abstract class AbstractBooking {
      */
     public AbstractBooking(Customer customer, LocalDateTime bookingDateTimeStart,
                            LocalDateTime bookingDateTimeEnd) throws BookingDateArgumentException {
-        if (!bookingDateTimeStart.isBefore(bookingDateTimeEnd)) {
+        int registeredId = CustomerManager.getInstance().getCustomerId(customer);
+        if (registeredId > 0) {
+            this.customerId = registeredId;
+        } else {
+            this.unregisteredCustomer = customer;
+        }
+        this.bookingStartEpochSecond = EpochTime.toEpochSecond(bookingDateTimeStart);
+        this.bookingEndEpochSecond = EpochTime.toEpochSecond(bookingDateTimeEnd);
+        if (bookingStartEpochSecond >= bookingEndEpochSecond) {
             throw new BookingDateArgumentException("Booking start date must be before booking end date");
         }
-        this.customer = customer;
-        this.bookingDateTimeStart = bookingDateTimeStart;
-        this.bookingDateTimeEnd = bookingDateTimeEnd;
     }
 
+    /**
+     * Retrieves the customer, looking them up by ID once they are registered.
+     *
+     * @return The customer.
+     */
     public Customer getCustomer() {
-        return customer;
+        Customer customer = unregisteredCustomer;
+        return customer != null ? customer : CustomerManager.getInstance().getCustomerById(customerId);
+    }
+
+    /**
+     * Retrieves the customer's integer ID in the {@link CustomerManager}.
+     *
+     * @return The ID, or {@code -1} if the customer has not been registered since the booking was made.
+     */
+    public int getCustomerId() {
+        return unregisteredCustomer != null ? -1 : customerId;
     }
 
+    /**
+     * Replaces the customer held by a booking being committed with their registered ID.
+     *
+     * @param customerId The customer's ID.
+     */
+    void bindCustomer(int customerId) {
+        this.customerId = customerId;
+        this.unregisteredCustomer = null;
+    }
+
+    /**
+     * Retrieves the start time for display. A new {@link LocalDateTime} is created on each call, so comparisons,
+     * pricing and other code run per booking should use {@link #getBookingStartEpochSecond()} instead.
+     *
+     * @return The start time.
+     */
     public LocalDateTime getBookingDateTimeStart() {
-        return bookingDateTimeStart;
+        return EpochTime.toLocalDateTime(bookingStartEpochSecond);
     }
 
+    /**
+     * Retrieves the end time for display, creating it on each call as {@link #getBookingDateTimeStart()} does.
+     *
+     * @return The end time.
+     */
     public LocalDateTime getBookingDateTimeEnd() {
-        return bookingDateTimeEnd;
+        return EpochTime.toLocalDateTime(bookingEndEpochSecond);
+    }
+
+    public long getBookingStartEpochSecond() {
+        return bookingStartEpochSecond;
+    }
+
+    public long getBookingEndEpochSecond() {
+        return bookingEndEpochSecond;
+    }
+
+    /**
+     * Checks whether this booking overlaps the half-open range [start, end).
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end The end of the range in epoch seconds.
+     * @return {@code true} if the booking and the range overlap.
+     */
+    public boolean overlaps(long start, long end) {
+        return bookingStartEpochSecond < end && start < bookingEndEpochSecond;
+    }
+
+    /**
+     * Retrieves the numeric booking ID, assigned by the {@link BookingRegistry} when the booking is first committed.
+     * @return The booking ID, or {@code 0} if the booking has never been committed.
+     */
+    public long getBookingId() {
+        return bookingId;
     }
 
+    void assignBookingId(long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    /**
+     * Formats the displayed booking ID from a type prefix and {@link #getBookingId()}.
+     * @param prefix The prefix for the type of booking, e.g. {@code R} for rooms.
+     * @return The prefixed ID, or {@value #UNASSIGNED_ID} if the booking has never been committed.
+     */
+    protected String formatBookingId(String prefix) {
+        long id = bookingId;
+        return id == 0 ? UNASSIGNED_ID : prefix + id;
+    }
+
+    /**
+     * Retrieves the total cost of the booking.
+     * @return The cost.
+     */
+    public abstract double getCost();
+
+    /**
+     * Retrieves the ID of the entity (room, parking spot or table) this booking is for.
+     * @return The booked entity's ID.
+     */
+    public abstract String getEntityId();
+
     /**
-     * Generates a unique booking ID for the specific type of booking.
-     * @return A unique string representing the booking ID.
+     * Generates the displayed booking ID for the specific type of booking: a type prefix followed by
+     * {@link #getBookingId()}.
+     * @return A unique string representing the booking ID, or {@value #UNASSIGNED_ID} before the booking is committed.
      */
     public abstract String generateBookingID();
 
@@ -60,9 +170,9 @@ public abstract class AbstractBooking {
                         ConsoleColour.GREEN + "Customer: " + ConsoleColour.RESET + "%s\n" +
                         ConsoleColour.CYAN + "Booking Start: " + ConsoleColour.RESET + "%s\n" +
                         ConsoleColour.CYAN + "Booking End: " + ConsoleColour.RESET + "%s\n",
-                customer.name(),
-                bookingDateTimeStart,
-                bookingDateTimeEnd
+                getCustomer().name(),
+                getBookingDateTimeStart(),
+                getBookingDateTimeEnd()
         );
     }
 }
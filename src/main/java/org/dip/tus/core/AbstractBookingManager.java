@@ -1,29 +1,98 @@
 package org.dip.tus.core;
 
 import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.ResultCache;
 
+import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Abstract class providing the core functionality for managing various entities and bookings.
+ * Entities are kept in registration order alongside a primary-key index, so lookups by ID are O(1).
+ * Booking commits lock only the entity being booked, so independent entities can be booked concurrently.
+ * Registered {@link BookingListener}s are notified of every commit and removal while that lock is held.
+ * A secondary index from customer ID to bookings is maintained on the same path, so per-customer lookups only
+ * touch that customer's bookings. Archived bookings are indexed by customer ID as references to their records.
+ * <p>
+ * The customer of every booking being committed is registered with the {@link CustomerManager}, and from then on
+ * the booking holds only the customer's integer ID; reads and reports only look customers up.
+ * <p>
+ * Entities added to the manager also record their bookings in a shared {@link EntitySlotIndex}, so availability
+ * across all entities is found by combining one bitset per time slot rather than by checking entities one by one.
+ * <p>
+ * Every commit and removal also bumps a version counter. Availability queries are memoised in a small
+ * {@link ResultCache} tagged with that version, so repeating a query between changes costs one lookup.
  *
  * @param <E> The type of the entity being managed.
  * @param <B> The type of booking associated with the entity.
  */
 public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B extends AbstractBooking> implements BookingManager<E> {
 
+    private static final int QUERY_CACHE_ENTRIES = 256;
+
     protected final List<E> entities = new ArrayList<>();
+    private final Map<String, E> entitiesById = new ConcurrentHashMap<>();
+    private volatile List<E> entitySnapshot = List.of();
+    private final List<BookingListener<E, B>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Set<B>> bookingsByCustomer = new ConcurrentHashMap<>();
+    private final Map<Integer, Queue<ArchivedRecord<E>>> archivedByCustomer = new ConcurrentHashMap<>();
+    private final BookingRegistry bookingRegistry = BookingRegistry.getInstance();
+    private volatile BookingStore archiveStore = BookingStore.inMemory();
+    private volatile EntitySlotIndex slotIndex;
+    private final AtomicLong version = new AtomicLong();
+    private final ResultCache<Object, List<E>> queryCache = new ResultCache<>(QUERY_CACHE_ENTRIES);
+
+    /**
+     * An archived booking: the entity that archived it and the index of its record in the archive store.
+     */
+    private record ArchivedRecord<E>(E entity, long record) {
+    }
 
     /**
-     * Retrieves all bookings associated with a given customer.
+     * Retrieves all bookings associated with a given customer, ordered by start time. Live bookings come from the
+     * customer index; archived bookings come from the archive's customer index, so only that customer's records
+     * are read and recreated as objects.
      *
      * @param customer The customer whose bookings are to be retrieved.
-     * @return A list of bookings associated with the specified customer.
+     * @return A list of bookings associated with the specified customer, empty if the customer is {@code null}.
      */
-    public abstract List<B> getAllBookingsForCustomer(Customer customer);
+    public List<B> getAllBookingsForCustomer(Customer customer) {
+        if (customer == null) {
+            return new ArrayList<>();
+        }
+        int customerId = CustomerManager.getInstance().getCustomerId(customer);
+        Set<B> customerBookings = bookingsByCustomer.get(customerId);
+        List<B> result = customerBookings == null ? new ArrayList<>() : new ArrayList<>(customerBookings);
+        Queue<ArchivedRecord<E>> archived = archivedByCustomer.get(customerId);
+        if (archived != null) {
+            for (ArchivedRecord<E> entry : archived) {
+                B booking = entry.entity().readArchivedRecord(entry.record());
+                if (booking != null) {
+                    result.add(booking);
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(AbstractBooking::getBookingStartEpochSecond));
+        return result;
+    }
 
     /**
      * Checks if the given date falls on a weekend.
@@ -36,6 +105,133 @@ public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B exte
         return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
     }
 
+    /**
+     * Retrieves every entity that has no booking overlapping the given time range.
+     * The slot bitsets of the range are OR-ed across all entities at once; only entities sharing a slot with a
+     * booking that covers part of it are checked one by one. The answer is reused until the next booking change.
+     *
+     * @param start The start of the time range.
+     * @param end The end of the time range.
+     * @return An unmodifiable list of the entities free for the whole range, in registration order.
+     */
+    public List<E> getEntitiesAvailableBetween(LocalDateTime start, LocalDateTime end) {
+        return cachedQuery(new AvailabilityQuery(start, end), () -> {
+            List<E> all = getAllEntities();
+            EntitySlotIndex index = slotIndex;
+            if (index == null) {
+                return List.of();
+            }
+            EntitySlotIndex.Overlap overlap =
+                    index.overlap(EpochTime.toEpochSecond(start), EpochTime.toEpochSecond(end));
+            List<E> available = new ArrayList<>();
+            for (int i = overlap.busy().nextClearBit(0); i < all.size(); i = overlap.busy().nextClearBit(i + 1)) {
+                E entity = all.get(i);
+                if (!overlap.possible().get(i) || !entity.doesBookingClash(start, end)) {
+                    available.add(entity);
+                }
+            }
+            return Collections.unmodifiableList(available);
+        });
+    }
+
+    /**
+     * Retrieves the first entity, in registration order, that has no booking overlapping the given time range.
+     * Entities that are certainly busy are skipped a word at a time, and the first entity that is certainly free
+     * ends the search; only entities sharing a slot with a booking in between are checked exactly.
+     *
+     * @param start The start of the time range.
+     * @param end The end of the time range.
+     * @return The first free entity, or {@code null} if none is free for the whole range.
+     */
+    public E findFirstAvailableBetween(LocalDateTime start, LocalDateTime end) {
+        List<E> all = getAllEntities();
+        EntitySlotIndex index = slotIndex;
+        if (index == null) {
+            return null;
+        }
+        EntitySlotIndex.Overlap overlap = index.overlap(EpochTime.toEpochSecond(start), EpochTime.toEpochSecond(end));
+        for (int i = overlap.busy().nextClearBit(0); i < all.size(); i = overlap.busy().nextClearBit(i + 1)) {
+            E entity = all.get(i);
+            if (!overlap.possible().get(i) || !entity.doesBookingClash(start, end)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the entities of each group, as given by {@link #groupOf}, that are free at the given time. The counts
+     * come from the slot containing the time; only entities whose bookings start or end within that slot are
+     * checked exactly.
+     *
+     * @param time The time.
+     * @return The number of free entities, indexed by group.
+     */
+    protected int[] countAvailableByGroup(LocalDateTime time) {
+        List<E> all = getAllEntities();
+        EntitySlotIndex index = slotIndex;
+        if (index == null) {
+            return new int[0];
+        }
+        EntitySlotIndex.GroupCounts counts = index.countByGroup(EpochTime.toEpochSecond(time));
+        int[] free = counts.free();
+        BitSet possible = counts.possible();
+        for (int i = possible.nextSetBit(0); i >= 0 && i < all.size(); i = possible.nextSetBit(i + 1)) {
+            E entity = all.get(i);
+            if (entity.doesBookingClash(time, time.plusSeconds(1))) {
+                free[groupOf(entity)]--;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Assigns an entity to a group for {@link #countAvailableByGroup}. Called once, when the entity is added.
+     *
+     * @param entity The entity.
+     * @return The group, a small non-negative number. All entities are in group 0 unless overridden.
+     */
+    protected int groupOf(E entity) {
+        return 0;
+    }
+
+    /**
+     * A query for the entities free for a whole time range.
+     */
+    private record AvailabilityQuery(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Answers a query over this manager's entities from the query cache, running it only if no answer is held
+     * for the current version. The query must read nothing but this manager's bookings and entities.
+     *
+     * @param query   The query, compared with {@code equals}.
+     * @param compute Runs the query, returning an unmodifiable list.
+     * @return The entities answering the query.
+     */
+    protected List<E> cachedQuery(Object query, Supplier<List<E>> compute) {
+        return queryCache.get(query, getVersion(), compute);
+    }
+
+    /**
+     * Retrieves this manager's version, which goes up with every booking committed or removed and every entity
+     * added. Results computed from this manager's data can be tagged with it and reused while it is unchanged.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Retrieves the hit and miss statistics of this manager's query cache.
+     *
+     * @return The statistics.
+     */
+    public ResultCache.Stats getQueryCacheStats() {
+        return queryCache.getStats();
+    }
+
     /**
      * Adds a booking to a specific entity by its ID.
      *
@@ -43,13 +239,236 @@ public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B exte
      * @param booking The booking to add.
      * @return {@code true} if the booking was successfully added, {@code false} if it conflicts with an existing booking.
      * @throws IllegalArgumentException If no entity with the given ID is found.
+     * @throws RuntimeException If a listener fails, for example because the booking could not be made durable. The
+     *                          booking is rolled back first.
      */
     public boolean addBookingToEntity(String entityId, B booking) {
         E entity = findEntityById(entityId);
         if (entity == null) {
             throw new IllegalArgumentException("Entity with ID " + entityId + " not found.");
         }
-        return entity.doesBookingClash(booking) ? false : entity.addBookingToQueue(booking);
+        booking.bindCustomer(CustomerManager.getInstance().getCustomerIdOrAdd(booking.getCustomer()));
+        try {
+            entity.lockForWrite();
+            try {
+                if (!entity.tryInsert(booking)) {
+                    return false;
+                }
+                bookingAdded(entity, booking);
+            } finally {
+                entity.unlockForWrite();
+            }
+            changesCompleted();
+        } catch (RuntimeException e) {
+            rollBack(List.of(booking), e);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Adds many bookings at once. Bookings are grouped by their entity, each group is sorted once by start time
+     * and validated against the entity's existing bookings and the rest of the group in a single merge pass.
+     * Instead of throwing, the outcome of every booking is reported in the returned array.
+     * <p>
+     * In {@link BatchCommitMode#ALL_OR_NOTHING} mode the write locks of every entity in the batch are held
+     * together (acquired in ID order), and nothing is committed unless every booking is valid; the valid ones are
+     * then reported as {@link BookingResult#NOT_COMMITTED}. In {@link BatchCommitMode#PER_ITEM} mode each entity
+     * is locked and committed on its own.
+     * <p>
+     * The customer of each booking is registered with the {@link CustomerManager} only when that booking is
+     * committed, so a rejected booking never adds a customer.
+     *
+     * @param newBookings The bookings to add.
+     * @param mode How the batch is committed.
+     * @return The result of each booking, in the same order as {@code newBookings}.
+     * @throws RuntimeException If a listener fails, for example because the bookings could not be made durable.
+     *                          Every booking committed by the call is rolled back first.
+     */
+    public BookingResult[] addBookingsToEntities(List<B> newBookings, BatchCommitMode mode) {
+        BookingResult[] results = new BookingResult[newBookings.size()];
+        Map<E, List<Integer>> groups = new TreeMap<>(Comparator.comparing(AbstractEntity::getId));
+        for (int i = 0; i < newBookings.size(); i++) {
+            E entity = findEntityById(newBookings.get(i).getEntityId());
+            if (entity == null) {
+                results[i] = BookingResult.UNKNOWN_ENTITY;
+            } else {
+                groups.computeIfAbsent(entity, e -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<B> committed = new ArrayList<>();
+        try {
+            if (mode == BatchCommitMode.ALL_OR_NOTHING) {
+                groups.keySet().forEach(AbstractEntity::lockForWrite);
+                try {
+                    int valid = 0;
+                    for (Map.Entry<E, List<Integer>> group : groups.entrySet()) {
+                        valid += validateGroup(group.getKey(), group.getValue(), newBookings, results);
+                    }
+                    boolean commit = valid == newBookings.size();
+                    for (Map.Entry<E, List<Integer>> group : groups.entrySet()) {
+                        commitGroup(group.getKey(), group.getValue(), newBookings, results, commit, committed);
+                    }
+                } finally {
+                    groups.keySet().forEach(AbstractEntity::unlockForWrite);
+                }
+            } else {
+                for (Map.Entry<E, List<Integer>> group : groups.entrySet()) {
+                    E entity = group.getKey();
+                    entity.lockForWrite();
+                    try {
+                        validateGroup(entity, group.getValue(), newBookings, results);
+                        commitGroup(entity, group.getValue(), newBookings, results, true, committed);
+                    } finally {
+                        entity.unlockForWrite();
+                    }
+                }
+            }
+            if (!committed.isEmpty()) {
+                changesCompleted();
+            }
+        } catch (RuntimeException e) {
+            rollBack(committed, e);
+            throw e;
+        }
+        return results;
+    }
+
+    private int validateGroup(E entity, List<Integer> indices, List<B> newBookings, BookingResult[] results) {
+        indices.sort(Comparator.comparingLong(i -> newBookings.get(i).getBookingStartEpochSecond()));
+        List<B> batch = new ArrayList<>(indices.size());
+        indices.forEach(i -> batch.add(newBookings.get(i)));
+        return entity.validateBatch(batch, indices.stream().mapToInt(Integer::intValue).toArray(), results);
+    }
+
+    private void commitGroup(E entity, List<Integer> indices, List<B> newBookings, BookingResult[] results,
+                             boolean commit, List<B> committed) {
+        for (int i : indices) {
+            if (results[i] == null) {
+                if (commit) {
+                    B booking = newBookings.get(i);
+                    booking.bindCustomer(CustomerManager.getInstance().getCustomerIdOrAdd(booking.getCustomer()));
+                    entity.insert(booking);
+                    committed.add(booking);
+                    bookingAdded(entity, booking);
+                    results[i] = BookingResult.ADDED;
+                } else {
+                    results[i] = BookingResult.NOT_COMMITTED;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves a booking held by this manager by its booking ID, without scanning customers or entities.
+     *
+     * @param bookingId The displayed booking ID, e.g. {@code R42}.
+     * @return The booking, or {@code null} if this manager holds no booking with that ID.
+     */
+    @SuppressWarnings("unchecked")
+    public B findBookingById(String bookingId) {
+        BookingRegistry.Registration registration = bookingRegistry.find(BookingRegistry.parseBookingId(bookingId));
+        return registration != null && registration.manager() == this ? (B) registration.resolve() : null;
+    }
+
+    /**
+     * Removes a booking by its booking ID.
+     *
+     * @param bookingId The displayed booking ID, e.g. {@code R42}.
+     * @return {@code true} if the booking was found and removed, {@code false} otherwise.
+     */
+    public boolean removeBookingById(String bookingId) {
+        return removeBookingById(BookingRegistry.parseBookingId(bookingId));
+    }
+
+    /**
+     * Removes a booking by its numeric booking ID.
+     *
+     * @param bookingId The numeric booking ID.
+     * @return {@code true} if this manager held the booking and it was removed, {@code false} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean removeBookingById(long bookingId) {
+        BookingRegistry.Registration registration = bookingRegistry.find(bookingId);
+        if (registration == null || registration.manager() != this) {
+            return false;
+        }
+        B booking = (B) registration.resolve();
+        return booking != null && removeBookingFromEntity(booking.getEntityId(), booking);
+    }
+
+    /**
+     * Commits a booking recovered from durable storage under the ID it was originally assigned.
+     * A booking whose ID is already registered is skipped, so recovering the same record twice is harmless.
+     *
+     * @param booking The recovered booking.
+     * @param bookingId The booking's original ID.
+     * @return {@code true} if the booking was committed, {@code false} if it was already present or clashes.
+     * @throws IllegalArgumentException If the booking's entity is not managed here.
+     */
+    public boolean restoreBooking(B booking, long bookingId) {
+        if (bookingRegistry.find(bookingId) != null) {
+            return false;
+        }
+        booking.assignBookingId(bookingId);
+        return addBookingToEntity(booking.getEntityId(), booking);
+    }
+
+    /**
+     * Archives a booking recovered from durable storage under its original ID, writing its fields straight into the
+     * archive store rather than creating a booking object. Used for history that has already ended, so that loading
+     * it costs a record rather than an object per booking. The booking is registered by ID and customer as if it
+     * had been archived by {@link #archiveBookingsEndedBefore}. As nothing new is committed, listeners are told
+     * through {@link BookingListener#archivedBookingRestored} rather than {@link BookingListener#bookingAdded}.
+     *
+     * @param entityId       The ID of the entity that held the booking.
+     * @param bookingId      The booking's original ID.
+     * @param start          The start in epoch seconds.
+     * @param end            The end in epoch seconds.
+     * @param costFixedPoint The cost in fixed-point hundredths.
+     * @param customer       The customer who made the booking.
+     * @param quantity       The record's quantity, such as the number of diners, or {@code 0}.
+     * @param tag            The record's tag, such as a vehicle registration, or {@code null}.
+     * @return {@code true} if the booking was archived, {@code false} if it was already present or clashes.
+     * @throws IllegalArgumentException If no entity with the given ID is found, or the range is empty.
+     * @throws IOException If the archive store cannot grow.
+     */
+    public boolean restoreArchivedBooking(String entityId, long bookingId, long start, long end, long costFixedPoint,
+                                          Customer customer, int quantity, String tag) throws IOException {
+        if (bookingRegistry.find(bookingId) != null) {
+            return false;
+        }
+        E entity = findEntityById(entityId);
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity with ID " + entityId + " not found.");
+        }
+        if (start >= end) {
+            throw new IllegalArgumentException("Booking " + bookingId + " ends before it starts");
+        }
+        CustomerManager customerManager = CustomerManager.getInstance();
+        int customerId = customerManager.getCustomerId(customerManager.addCustomer(customer));
+        BookingStore store = archiveStore;
+        entity.lockForWrite();
+        try {
+            long record = entity.restoreArchived(store, bookingId, start, end, costFixedPoint, customerId, quantity,
+                    tag);
+            if (record < 0) {
+                return false;
+            }
+            indexArchived(entity, bookingId, customerId, record);
+            try {
+                if (!listeners.isEmpty()) {
+                    B booking = entity.readArchivedRecord(record);
+                    notifyListeners(listener -> listener.archivedBookingRestored(entity, booking));
+                }
+            } finally {
+                version.incrementAndGet();
+            }
+        } finally {
+            entity.unlockForWrite();
+        }
+        return true;
     }
 
     /**
@@ -65,7 +484,200 @@ public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B exte
         if (entity == null) {
             throw new IllegalArgumentException("Entity with ID " + entityId + " not found.");
         }
-        return entity.removeBookingFromQueue(booking);
+        entity.lockForWrite();
+        try {
+            if (!entity.delete(booking)) {
+                return false;
+            }
+            bookingRemoved(entity, booking);
+        } finally {
+            entity.unlockForWrite();
+        }
+        changesCompleted();
+        return true;
+    }
+
+    /**
+     * Registers a committed booking's ID, updates the customer index and notifies listeners. Called under the entity's write lock.
+     * Every listener is notified and the version is bumped even if a listener fails.
+     */
+    private void bookingAdded(E entity, B booking) {
+        bookingRegistry.register(this, booking);
+        bookingsByCustomer.computeIfAbsent(booking.getCustomerId(), id -> ConcurrentHashMap.newKeySet()).add(booking);
+        try {
+            notifyListeners(listener -> listener.bookingAdded(entity, booking));
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes bookings committed by a call that then failed, so that nothing the call could not make durable stays
+     * visible. Failures while rolling back are added to the original failure.
+     *
+     * @param committed The bookings the call committed.
+     * @param failure   The failure, rethrown by the caller.
+     */
+    private void rollBack(List<B> committed, RuntimeException failure) {
+        for (B booking : committed) {
+            E entity = findEntityById(booking.getEntityId());
+            entity.lockForWrite();
+            try {
+                if (entity.delete(booking)) {
+                    bookingRemoved(entity, booking);
+                }
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            } finally {
+                entity.unlockForWrite();
+            }
+        }
+    }
+
+    /**
+     * Calls every listener, even after one of them fails, and then rethrows the first failure with the others
+     * suppressed.
+     */
+    private void notifyListeners(Consumer<BookingListener<E, B>> notification) {
+        RuntimeException failure = null;
+        for (BookingListener<E, B> listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Replaces an archived booking object in the registry and the customer index with a reference to its record in
+     * the archive store. Called under the entity's write lock.
+     */
+    private void bookingArchived(E entity, B booking, int customerId, long record) {
+        bookingsByCustomer.computeIfPresent(booking.getCustomerId(), (id, customerBookings) -> {
+            customerBookings.remove(booking);
+            return customerBookings.isEmpty() ? null : customerBookings;
+        });
+        indexArchived(entity, booking.getBookingId(), customerId, record);
+    }
+
+    /**
+     * Registers an archived booking's record by ID and by customer. Called under the entity's write lock.
+     */
+    private void indexArchived(E entity, long bookingId, int customerId, long record) {
+        archivedByCustomer.computeIfAbsent(customerId, id -> new ConcurrentLinkedQueue<>())
+                .add(new ArchivedRecord<>(entity, record));
+        bookingRegistry.registerArchived(this, entity, bookingId, record);
+    }
+
+    /**
+     * Tells listeners that the current call has finished changing bookings. Called after the entity locks are released.
+     */
+    private void changesCompleted() {
+        notifyListeners(BookingListener::changesCompleted);
+    }
+
+    /**
+     * Unregisters a removed booking's ID, updates the customer index and notifies listeners. Called under the entity's write lock.
+     */
+    private void bookingRemoved(E entity, B booking) {
+        bookingsByCustomer.computeIfPresent(booking.getCustomerId(), (id, customerBookings) -> {
+            customerBookings.remove(booking);
+            return customerBookings.isEmpty() ? null : customerBookings;
+        });
+        BookingRegistry.Registration registration = bookingRegistry.find(booking.getBookingId());
+        if (registration != null && registration.booking() == null) {
+            Queue<ArchivedRecord<E>> archived =
+                    archivedByCustomer.get(booking.getCustomerId());
+            if (archived != null) {
+                archived.remove(new ArchivedRecord<>(entity, registration.record()));
+            }
+        }
+        bookingRegistry.unregister(booking.getBookingId());
+        try {
+            notifyListeners(listener -> listener.bookingRemoved(entity, booking));
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Moves every booking that ended at or before the cutoff into its entity's archive tier.
+     * Archived bookings stay registered, by ID and by customer, and visible to reports; this only keeps the live
+     * indexes small.
+     *
+     * @param cutoff The cutoff time.
+     * @return The number of bookings archived across all entities.
+     */
+    public int archiveBookingsEndedBefore(LocalDateTime cutoff) {
+        long cutoffEpochSecond = EpochTime.toEpochSecond(cutoff);
+        BookingStore store = archiveStore;
+        int archived = 0;
+        for (E entity : getAllEntities()) {
+            archived += entity.archiveBookingsEndedBy(cutoffEpochSecond, store,
+                    (booking, record) -> bookingArchived(entity, booking, store.getCustomerId(record), record));
+        }
+        EntitySlotIndex index = slotIndex;
+        if (index != null) {
+            index.pruneBefore(cutoffEpochSecond);
+        }
+        return archived;
+    }
+
+    /**
+     * Retrieves the store that archived bookings are written to.
+     *
+     * @return The archive store.
+     */
+    public BookingStore getArchiveStore() {
+        return archiveStore;
+    }
+
+    /**
+     * Sets the store that archived bookings are written to. Must be called before any booking is archived,
+     * including history restored by {@link org.dip.tus.persistence.PersistenceManager#open}.
+     *
+     * @param archiveStore The archive store, for example a memory-mapped {@link BookingStore#open file}.
+     */
+    public void setArchiveStore(BookingStore archiveStore) {
+        this.archiveStore = archiveStore;
+    }
+
+    /**
+     * Passes the fields of every booking held by this manager to the visitor, entity by entity, reading archived
+     * bookings straight from their records.
+     *
+     * @param visitor The visitor.
+     */
+    public void forEachBookingRecord(BookingRecordVisitor visitor) {
+        for (E entity : getAllEntities()) {
+            entity.forEachBookingRecord(visitor);
+        }
+    }
+
+    /**
+     * Registers a listener to be notified of every booking added to or removed from this manager's entities.
+     *
+     * @param listener The listener to register.
+     */
+    public void addBookingListener(BookingListener<E, B> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener previously registered with {@link #addBookingListener}.
+     *
+     * @param listener The listener to unregister.
+     */
+    public void removeBookingListener(BookingListener<E, B> listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -75,21 +687,39 @@ public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B exte
      * @throws IllegalArgumentException If an entity with the same ID already exists.
      */
     @Override
-    public void addEntity(E entity) {
-        if (findEntityById(entity.getId()) != null) {
+    public synchronized void addEntity(E entity) {
+        if (entitiesById.containsKey(entity.getId())) {
             throw new IllegalArgumentException("Entity with the same ID already exists.");
         }
+        if (slotIndex == null) {
+            slotIndex = new EntitySlotIndex(entity.getSlotSeconds());
+        }
+        entity.attach(slotIndex, groupOf(entity));
+        entitiesById.put(entity.getId(), entity);
         entities.add(entity);
+        entitySnapshot = null;
+        version.incrementAndGet();
     }
 
     /**
      * Retrieves an unmodifiable list of all managed entities.
+     * The list is built once per change to the entity set and shared between callers.
      *
      * @return A list of all entities managed by this booking manager.
      */
     @Override
     public List<E> getAllEntities() {
-        return List.copyOf(entities);
+        List<E> current = entitySnapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = entitySnapshot;
+                if (current == null) {
+                    current = List.copyOf(entities);
+                    entitySnapshot = current;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -100,9 +730,6 @@ public abstract class AbstractBookingManager<E extends AbstractEntity<B>, B exte
      */
     @Override
     public E findEntityById(String id) {
-        return entities.stream()
-                .filter(entity -> entity.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return entitiesById.get(id);
     }
 }
@@ -1,105 +1,635 @@
 package org.dip.tus.core;
 
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.util.FixedPoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Objects;
-import java.util.PriorityQueue;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjLongConsumer;
+
+import static org.dip.tus.util.EpochTime.toEpochSecond;
 
 /**
  * Abstract class representing an entity that manages a collection of its own bookings.
  * Provides functionality to manage bookings, check for booking clashes, and handle booking queues.
+ * <p>
+ * Bookings are held in an interval index keyed by their start time in epoch seconds. As bookings on a single entity never
+ * overlap, their end times are ordered the same way as their start times, so a clash check only has to look at
+ * the booking immediately preceding the end of the requested range. Clash checks, inserts and removals are all
+ * O(log n) in the number of bookings held by the entity.
+ * <p>
+ * Each entity guards its index with its own read/write lock, so bookings for different entities commit in
+ * parallel while the clash check and insert for a single entity happen atomically.
+ * <p>
+ * Readers are served an immutable, time-ordered snapshot of the index. The snapshot is built at most once per
+ * modification and shared by every reader until the next write, so reads never copy the underlying storage.
+ * <p>
+ * Alongside the index each entity keeps an {@link OccupancyBitmap} at a granularity chosen by the subclass
+ * (a day for rooms, an hour for parking spots, 15 minutes for tables). Availability checks scan the bitmap a
+ * word at a time first and only fall back to the index when a slot in the range is marked. An entity added to a
+ * manager also records its bookings in the manager's {@link EntitySlotIndex}, from the same insert and delete
+ * paths.
+ * <p>
+ * Bookings whose end time has passed can be moved out of the live index into an archive tier by
+ * {@link #archiveBookingsEndedBy(long, BookingStore)}, keeping the live index bounded by current and future
+ * bookings. Archived bookings are held as fixed-width records in a {@link BookingStore} rather than as objects.
+ * They are still consulted for clash checks and removals, and {@link #getAllBookings()} recreates them on
+ * demand, while {@link #forEachBookingRecord} reads them in place.
  *
  * @param <T> The type of booking associated with this entity.
  */
 public abstract class AbstractEntity<T extends AbstractBooking> {
 
-    protected PriorityQueue<T> bookings;
+    protected final NavigableMap<Long, T> bookings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ArchivedBookings archive;
+    private volatile Snapshot<T> snapshot = new Snapshot<>(this, null, new long[0], List.of());
+    private volatile int bookingCount;
+    private volatile int liveBookingCount;
+    private final OccupancyBitmap occupancy;
+    private EntitySlotIndex slotIndex;
+    private int slotPosition;
+
+    /**
+     * Constructs an entity whose occupancy calendar uses the given slot size.
+     *
+     * @param slotSize The granularity of the entity's occupancy bitmap.
+     */
+    protected AbstractEntity(Duration slotSize) {
+        this.occupancy = new OccupancyBitmap(slotSize.toSeconds());
+    }
 
     public abstract String getId();
 
     /**
-     * Checks if a given booking clashes with any existing bookings in the queue.
+     * Writes an archived booking to the store. Subclasses whose bookings carry extra fields pass them as the
+     * record's quantity or tag.
+     *
+     * @param store   The archive store.
+     * @param booking The booking being archived.
+     * @return The index of the new record.
+     * @throws IOException if the store cannot grow.
+     */
+    protected long writeArchived(BookingStore store, T booking) throws IOException {
+        return store.append(booking, 0, null);
+    }
+
+    /**
+     * Recreates an archived booking from its record. The booking ID is restored by the caller.
+     *
+     * @param store  The archive store.
+     * @param record The index of the booking's record.
+     * @return A booking equivalent to the one archived.
+     * @throws BookingDateArgumentException if the record's times are invalid.
+     */
+    protected abstract T readArchived(BookingStore store, long record) throws BookingDateArgumentException;
+
+    /**
+     * Checks if a given booking clashes with any existing bookings in the index.
      *
      * @param booking The booking to check.
      * @return {@code true} if the booking clashes with any existing bookings, {@code false} otherwise.
      */
     public boolean doesBookingClash(T booking) {
-        if (bookings.isEmpty()) {
-            return false;
+        lock.readLock().lock();
+        try {
+            return clashes(booking.getBookingStartEpochSecond(), booking.getBookingEndEpochSecond());
+        } finally {
+            lock.readLock().unlock();
         }
-        return bookings
-                .stream()
-                .anyMatch(b -> booking.getBookingDateTimeStart().isBefore(b.getBookingDateTimeEnd()) &&
-                        booking.getBookingDateTimeEnd().isAfter(b.getBookingDateTimeStart()));
     }
 
     /**
-     * Checks if a given time range clashes with any existing bookings in the queue.
+     * Checks if a given time range clashes with any existing bookings in the index.
+     * Only the latest booking starting before {@code end} can overlap the range, so this is a single lookup.
      *
      * @param start The start of the time range.
      * @param end The end of the time range.
      * @return {@code true} if the time range clashes with any existing bookings, {@code false} otherwise.
      */
     public boolean doesBookingClash(LocalDateTime start, LocalDateTime end) {
-        if (bookings.isEmpty()) {
+        lock.readLock().lock();
+        try {
+            return clashes(toEpochSecond(start), toEpochSecond(end));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether any booking, live or archived, overlaps [start, end). Must be called while holding the lock.
+     */
+    boolean overlapsLocked(long start, long end) {
+        return clashes(start, end);
+    }
+
+    private boolean clashes(long start, long end) {
+        if (occupancy.isFree(start, end)) {
             return false;
         }
-        return bookings
-                .stream()
-                .anyMatch(b -> b.getBookingDateTimeStart().isBefore(end) &&
-                        start.isBefore(b.getBookingDateTimeEnd()));
+        Map.Entry<Long, T> previous = bookings.lowerEntry(end);
+        return (previous != null && start < previous.getValue().getBookingEndEpochSecond())
+                || (archive != null && archive.overlaps(start, end));
     }
 
     /**
-     * Adds a new booking to the bookings queue. The bookings are automatically ordered based on the comparator
-     * defined in the entity's implementation.
+     * Adds a new booking to the bookings index, ordered by its start time.
+     * The clash check and the insert happen under the entity's write lock, so concurrent callers cannot
+     * both claim the same time range. The booking's customer is registered first, before the lock is taken.
      *
      * @param newBooking The new booking to add.
      * @return {@code true} if the booking was successfully added, {@code false} if it clashes with existing bookings.
      */
     public boolean addBookingToQueue(T newBooking) {
-        if (!doesBookingClash(newBooking)) {
-            bookings.add(newBooking);
-            return true;
+        newBooking.bindCustomer(CustomerManager.getInstance().getCustomerIdOrAdd(newBooking.getCustomer()));
+        lock.writeLock().lock();
+        try {
+            return tryInsert(newBooking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a booking unless it clashes with an existing one. Must be called while holding the write lock.
+     *
+     * @param newBooking The booking to insert.
+     * @return {@code true} if the booking was inserted, {@code false} if it clashes.
+     */
+    boolean tryInsert(T newBooking) {
+        if (clashes(newBooking.getBookingStartEpochSecond(), newBooking.getBookingEndEpochSecond())) {
+            return false;
+        }
+        insert(newBooking);
+        return true;
+    }
+
+    /**
+     * Validates a batch of new bookings for this entity against the existing bookings and each other in a single
+     * merge pass over the index. Must be called while holding the write lock.
+     *
+     * @param batch    The new bookings, sorted by start time.
+     * @param indices  The position of each booking in the caller's request, parallel to {@code batch}.
+     * @param results  The caller's result array; entries for rejected bookings are set, valid ones are left untouched.
+     * @return The number of bookings in the batch that passed validation.
+     */
+    int validateBatch(List<T> batch, int[] indices, BookingResult[] results) {
+        Long from = bookings.floorKey(batch.get(0).getBookingStartEpochSecond());
+        Iterator<T> existing = (from == null ? bookings : bookings.tailMap(from, true)).values().iterator();
+        T current = existing.hasNext() ? existing.next() : null;
+        long lastAcceptedEnd = Long.MIN_VALUE;
+        int valid = 0;
+
+        for (int i = 0; i < batch.size(); i++) {
+            T booking = batch.get(i);
+            long start = booking.getBookingStartEpochSecond();
+            long end = booking.getBookingEndEpochSecond();
+            while (current != null && current.getBookingEndEpochSecond() <= start) {
+                current = existing.hasNext() ? existing.next() : null;
+            }
+            if ((current != null && current.getBookingStartEpochSecond() < end)
+                    || (archive != null && archive.overlaps(start, end))) {
+                results[indices[i]] = BookingResult.CLASHES_WITH_EXISTING;
+            } else if (start < lastAcceptedEnd) {
+                results[indices[i]] = BookingResult.CLASHES_WITHIN_BATCH;
+            } else {
+                lastAcceptedEnd = end;
+                valid++;
+            }
         }
-        return false;
+        return valid;
     }
 
     /**
-     * Removes a booking from the bookings queue, if it exists.
+     * Inserts a booking that has already been checked for clashes. Must be called while holding the write lock.
+     *
+     * @param booking The booking to insert.
+     */
+    void insert(T booking) {
+        bookings.put(booking.getBookingStartEpochSecond(), booking);
+        occupancy.mark(booking.getBookingStartEpochSecond(), booking.getBookingEndEpochSecond());
+        if (slotIndex != null) {
+            slotIndex.add(slotPosition, booking.getBookingStartEpochSecond(), booking.getBookingEndEpochSecond());
+        }
+        bookingsChanged();
+    }
+
+    /**
+     * Writes a booking recovered from durable storage straight into the archive, without creating a booking object.
+     * Must be called while holding the write lock.
+     *
+     * @param store          The store to archive to. An entity holding archived bookings always archives to the
+     *                       same store.
+     * @param bookingId      The booking's ID.
+     * @param start          The start in epoch seconds.
+     * @param end            The end in epoch seconds.
+     * @param costFixedPoint The cost in fixed-point hundredths.
+     * @param customerId     The customer's registered ID.
+     * @param quantity       The record's quantity, as {@link #writeArchived} would store it.
+     * @param tag            The record's tag, as {@link #writeArchived} would store it.
+     * @return The index of the new record, or {@code -1} if the booking clashes with one already held.
+     * @throws IllegalArgumentException if the entity already archives to a different store.
+     * @throws IOException if the store cannot grow.
+     */
+    long restoreArchived(BookingStore store, long bookingId, long start, long end, long costFixedPoint, int customerId,
+                         int quantity, String tag) throws IOException {
+        archiveTo(store);
+        if (clashes(start, end)) {
+            return -1;
+        }
+        long record = store.append(bookingId, start, end, costFixedPoint, customerId, quantity, tag);
+        archive.add(record);
+        // As when archiving, the bitmap stops holding slots that only archived bookings can occupy
+        occupancy.trimBefore(end);
+        if (slotIndex != null) {
+            slotIndex.add(slotPosition, start, end);
+        }
+        bookingsChanged();
+        return record;
+    }
+
+    /**
+     * Attaches this entity to its manager's cross-entity index at the next position, recording the bookings it
+     * already holds.
+     *
+     * @param index The manager's index.
+     * @param group The entity's group in the index.
+     * @throws IllegalArgumentException if the entity is already attached to an index.
+     */
+    void attach(EntitySlotIndex index, int group) {
+        lock.writeLock().lock();
+        try {
+            if (slotIndex != null) {
+                throw new IllegalArgumentException("Entity " + getId() + " is already managed");
+            }
+            slotIndex = index;
+            slotPosition = index.register(group);
+            for (T booking : bookings.values()) {
+                index.add(slotPosition, booking.getBookingStartEpochSecond(), booking.getBookingEndEpochSecond());
+            }
+            for (int record = 0; archive != null && record < archive.size(); record++) {
+                index.add(slotPosition, archive.start(record), archive.end(record));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the slot size of this entity's occupancy bitmap.
+     *
+     * @return The slot size in seconds.
+     */
+    long getSlotSeconds() {
+        return occupancy.getSlotSeconds();
+    }
+
+    void lockForWrite() {
+        lock.writeLock().lock();
+    }
+
+    void unlockForWrite() {
+        lock.writeLock().unlock();
+    }
+
+    /**
+     * Removes a booking from the bookings index, if it exists.
      * @param booking The booking to remove.
      * @return {@code true} if the booking was successfully removed, {@code false} otherwise.
      */
     public boolean removeBookingFromQueue(T booking) {
-        return bookings.remove(booking);
+        lock.writeLock().lock();
+        try {
+            return delete(booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a booking from the index. Must be called while holding the write lock.
+     *
+     * @param booking The booking to remove.
+     * @return {@code true} if the booking was removed, {@code false} if it was not held by this entity.
+     */
+    boolean delete(T booking) {
+        long start = booking.getBookingStartEpochSecond();
+        if (!bookings.remove(start, booking)) {
+            int position = archive == null ? -1 : archive.find(start, booking.getBookingId());
+            if (position < 0) {
+                return false;
+            }
+            archive.remove(position);
+        }
+        occupancy.clear(start, booking.getBookingEndEpochSecond());
+        // Neighbouring bookings, live or archived, may share a boundary slot with the removed one
+        markOccupancy(bookings.lowerEntry(start));
+        markOccupancy(bookings.higherEntry(start));
+        if (archive != null) {
+            int previous = archive.lower(start);
+            for (int position = Math.max(previous, 0); position <= previous + 1 && position < archive.size(); position++) {
+                occupancy.mark(archive.start(position), archive.end(position));
+            }
+        }
+        if (slotIndex != null) {
+            slotIndex.remove(this, slotPosition, start, booking.getBookingEndEpochSecond());
+        }
+        bookingsChanged();
+        return true;
     }
 
     /**
-     * Checks if the entity is currently occupied based on the current time.
+     * Retrieves the occupancy of this entity over a time range, one bit per slot, where bit 0 is the slot
+     * containing {@code start}. A clear bit means the slot is certainly free; a set bit means some booking
+     * touches the slot. Bitmaps of entities sharing a slot size can be combined with {@link BitSet#and} and
+     * {@link BitSet#or} to build availability grids across entities.
+     *
+     * @param start The start of the time range.
+     * @param end The end of the time range.
+     * @return The occupied slots in the range.
+     */
+    public BitSet getOccupancy(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            return occupancy.occupancy(toEpochSecond(start), toEpochSecond(end));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves every booking that ended at or before the cutoff out of the live index into the archive store.
+     * Because bookings never overlap, those are exactly the bookings at the head of the live index.
+     *
+     * @param cutoff The cutoff, in epoch seconds.
+     * @param store  The store to archive to. An entity holding archived bookings always archives to the same store.
+     * @return The number of bookings archived.
+     * @throws IllegalArgumentException if the entity already archives to a different store.
+     * @throws UncheckedIOException if the store cannot grow.
+     */
+    public int archiveBookingsEndedBy(long cutoff, BookingStore store) {
+        return archiveBookingsEndedBy(cutoff, store, (booking, record) -> { });
+    }
+
+    /**
+     * Archives as {@link #archiveBookingsEndedBy(long, BookingStore)}, passing each archived booking and its record
+     * index to {@code onArchived} while the write lock is still held.
+     */
+    int archiveBookingsEndedBy(long cutoff, BookingStore store, ObjLongConsumer<? super T> onArchived) {
+        lock.writeLock().lock();
+        try {
+            archiveTo(store);
+            int archived = 0;
+            Map.Entry<Long, T> first = bookings.firstEntry();
+            while (first != null && first.getValue().getBookingEndEpochSecond() <= cutoff) {
+                long record = writeArchived(store, first.getValue());
+                archive.add(record);
+                bookings.pollFirstEntry();
+                onArchived.accept(first.getValue(), record);
+                archived++;
+                first = bookings.firstEntry();
+            }
+            if (archived > 0) {
+                // Archived bookings are checked through the archive, so the bitmap no longer needs their slots
+                occupancy.trimBefore(cutoff);
+                bookingsChanged();
+            }
+            return archived;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Binds the archive to the given store. An archive holding no records moves to a new store, as nothing is
+     * left behind in the old one. Must be called while holding the write lock.
+     *
+     * @throws IllegalArgumentException if archived bookings are already held in a different store.
+     */
+    private void archiveTo(BookingStore store) {
+        if (archive == null || (archive.size() == 0 && archive.store() != store)) {
+            archive = new ArchivedBookings(store);
+        } else if (archive.store() != store) {
+            throw new IllegalArgumentException("Entity " + getId() + " already archives to another store");
+        }
+    }
+
+    /**
+     * Checks if the entity is occupied at the given time, using the booking that started most recently before it.
      * @param currentTime The current time.
      * @return {@code true} if the entity is currently occupied, {@code false} otherwise.
      */
     public boolean isOccupied(LocalDateTime currentTime) {
-        T nextBooking = getNextBooking();
-        if (Objects.nonNull(nextBooking)) {
-            return currentTime.isAfter(nextBooking.getBookingDateTimeStart())
-                    && currentTime.isBefore(nextBooking.getBookingDateTimeEnd());
+        long now = toEpochSecond(currentTime);
+        lock.readLock().lock();
+        try {
+            Map.Entry<Long, T> latest = bookings.lowerEntry(now);
+            long latestStart = latest == null ? Long.MIN_VALUE : latest.getKey();
+            long latestEnd = latest == null ? Long.MIN_VALUE : latest.getValue().getBookingEndEpochSecond();
+            int archived = archive == null ? -1 : archive.lower(now);
+            if (archived >= 0 && archive.start(archived) > latestStart) {
+                latestEnd = archive.end(archived);
+            }
+            return now < latestEnd;
+        } finally {
+            lock.readLock().unlock();
         }
-        return false;
     }
 
     /**
-     * Retrieves the next booking in the bookings queue. The bookings are ordered chronologically based on their start time.
-     * @return The next booking in the queue, or {@code null} if the queue is empty.
+     * Retrieves the next booking in the live bookings index. The bookings are ordered chronologically based on their start time.
+     * @return The earliest live booking, or {@code null} if there are no live bookings.
      */
     public T getNextBooking() {
-        return bookings.peek();
+        lock.readLock().lock();
+        try {
+            Map.Entry<Long, T> first = bookings.firstEntry();
+            return first == null ? null : first.getValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves an immutable snapshot of all bookings, archived and live, ordered by start time.
+     * The returned list is shared between readers and is not affected by later bookings or removals.
+     * Archived bookings are recreated from their records each time they are read from the list.
+     * @return A time-ordered, unmodifiable list of the bookings held by this entity.
+     */
+    public List<T> getAllBookings() {
+        return currentSnapshot();
+    }
+
+    /**
+     * Passes the fields of every booking, archived and live, to the visitor in start-time order, reading archived
+     * bookings straight from their records. Sees the same snapshot as {@link #getAllBookings()}.
+     *
+     * @param visitor The visitor.
+     */
+    public void forEachBookingRecord(BookingRecordVisitor visitor) {
+        currentSnapshot().forEachRecord(visitor);
+    }
+
+    /**
+     * Recreates one archived booking from its record.
+     *
+     * @param record The index of the booking's record in this entity's archive store.
+     * @return The booking, or {@code null} if the record has been removed.
+     */
+    T readArchivedRecord(long record) {
+        lock.readLock().lock();
+        try {
+            if (archive == null || archive.store().isRemoved(record)) {
+                return null;
+            }
+            return materialise(archive.store(), record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Snapshot<T> currentSnapshot() {
+        Snapshot<T> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                current = archive == null || archive.size() == 0
+                        ? new Snapshot<>(this, null, new long[0], List.copyOf(bookings.values()))
+                        : new Snapshot<>(this, archive.store(), mergedOrder(), List.copyOf(bookings.values()));
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the archived and live bookings by start time. Non-negative entries are archive record indexes and
+     * negative entries {@code -(i + 1)} refer to the i-th live booking. Must be called while holding the lock.
+     */
+    private long[] mergedOrder() {
+        long[] order = new long[archive.size() + bookings.size()];
+        Iterator<Long> liveStarts = bookings.keySet().iterator();
+        long nextLiveStart = liveStarts.hasNext() ? liveStarts.next() : Long.MAX_VALUE;
+        int archived = 0;
+        int live = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (archived < archive.size() && archive.start(archived) < nextLiveStart) {
+                order[i] = archive.record(archived++);
+            } else {
+                order[i] = -(++live);
+                nextLiveStart = liveStarts.hasNext() ? liveStarts.next() : Long.MAX_VALUE;
+            }
+        }
+        return order;
+    }
+
+    private T materialise(BookingStore store, long record) {
+        try {
+            T booking = readArchived(store, record);
+            booking.assignBookingId(store.getBookingId(record));
+            return booking;
+        } catch (BookingDateArgumentException e) {
+            throw new IllegalStateException("Corrupt archived booking record " + record, e);
+        }
+    }
+
+    /**
+     * Retrieves the number of bookings held by this entity, archived and live, without taking a snapshot.
+     * @return The number of bookings held.
+     */
+    public int getBookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Retrieves the number of bookings in the live index, i.e. bookings not yet archived.
+     * @return The number of live bookings.
+     */
+    public int getLiveBookingCount() {
+        return liveBookingCount;
+    }
+
+    private void markOccupancy(Map.Entry<Long, T> entry) {
+        if (entry != null) {
+            occupancy.mark(entry.getKey(), entry.getValue().getBookingEndEpochSecond());
+        }
+    }
+
+    /**
+     * Invalidates the shared snapshot after a modification. Must be called while holding the write lock.
+     */
+    private void bookingsChanged() {
+        liveBookingCount = bookings.size();
+        bookingCount = liveBookingCount + (archive == null ? 0 : archive.size());
+        snapshot = null;
     }
 
     /**
-     * Retrieves a copy of all bookings in the queue.
-     * @return A new {@code PriorityQueue} containing all bookings in this entity.
+     * Immutable view of the bookings at one point in time. Live bookings are held directly; archived ones are
+     * held as record indexes and recreated on access.
      */
-    public PriorityQueue<T> getAllBookings() {
-        return new PriorityQueue<>(bookings);
+    private static final class Snapshot<T extends AbstractBooking> extends AbstractList<T> implements RandomAccess {
+
+        private final AbstractEntity<T> entity;
+        private final BookingStore store;
+        private final long[] order;
+        private final List<T> live;
+
+        private Snapshot(AbstractEntity<T> entity, BookingStore store, long[] order, List<T> live) {
+            this.entity = entity;
+            this.store = store;
+            this.order = order;
+            this.live = live;
+        }
+
+        @Override
+        public T get(int index) {
+            if (store == null) {
+                return live.get(index);
+            }
+            long entry = order[index];
+            return entry >= 0 ? entity.materialise(store, entry) : live.get((int) (-entry - 1));
+        }
+
+        @Override
+        public int size() {
+            return store == null ? live.size() : order.length;
+        }
+
+        private void forEachRecord(BookingRecordVisitor visitor) {
+            for (int i = 0; i < size(); i++) {
+                long entry = store == null ? -(i + 1) : order[i];
+                if (entry >= 0) {
+                    visitor.visit(store.getBookingId(entry), store.getStartEpochSecond(entry),
+                            store.getEndEpochSecond(entry), store.getCostFixedPoint(entry), store.getCustomerId(entry));
+                } else {
+                    T booking = live.get((int) (-entry - 1));
+                    visitor.visit(booking.getBookingId(), booking.getBookingStartEpochSecond(),
+                            booking.getBookingEndEpochSecond(), FixedPoint.toFixedPoint(booking.getCost()),
+                            booking.getCustomerId());
+                }
+            }
+        }
     }
 }
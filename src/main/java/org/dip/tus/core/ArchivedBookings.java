@@ -0,0 +1,104 @@
+package org.dip.tus.core;
+
+import java.util.Arrays;
+
+/**
+ * An entity's archived bookings: the indexes of their records in a {@link BookingStore}, kept sorted by start
+ * time. Lookups binary-search the start times read from the store, so no booking objects are held. Not
+ * thread-safe: the owning entity guards it with its own lock.
+ */
+final class ArchivedBookings {
+
+    private final BookingStore store;
+    private long[] records = new long[8];
+    private int size;
+
+    ArchivedBookings(BookingStore store) {
+        this.store = store;
+    }
+
+    BookingStore store() {
+        return store;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long record(int position) {
+        return records[position];
+    }
+
+    long start(int position) {
+        return store.getStartEpochSecond(records[position]);
+    }
+
+    long end(int position) {
+        return store.getEndEpochSecond(records[position]);
+    }
+
+    /**
+     * Finds the latest archived booking starting strictly before the given time.
+     *
+     * @param epochSecond The time, in epoch seconds.
+     * @return Its position, or {@code -1} if there is none.
+     */
+    int lower(long epochSecond) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (start(middle) < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Checks whether any archived booking overlaps the range [start, end).
+     */
+    boolean overlaps(long start, long end) {
+        int previous = lower(end);
+        return previous >= 0 && start < end(previous);
+    }
+
+    /**
+     * Finds the archived booking with the given start time and ID.
+     *
+     * @return Its position, or {@code -1} if it is not archived here.
+     */
+    int find(long start, long bookingId) {
+        int position = lower(start + 1);
+        return position >= 0 && start(position) == start && store.getBookingId(records[position]) == bookingId
+                ? position : -1;
+    }
+
+    /**
+     * Adds a record in start-time order. Bookings are normally archived oldest first, so this is usually an append.
+     */
+    void add(long record) {
+        if (size == records.length) {
+            records = Arrays.copyOf(records, size * 2);
+        }
+        int position = lower(store.getStartEpochSecond(record)) + 1;
+        System.arraycopy(records, position, records, position + 1, size - position);
+        records[position] = record;
+        size++;
+    }
+
+    /**
+     * Removes the record at the given position and flags it as removed in the store.
+     */
+    void remove(int position) {
+        store.markRemoved(records[position]);
+        System.arraycopy(records, position + 1, records, position, size - position - 1);
+        size--;
+    }
+
+    long[] copy() {
+        return Arrays.copyOf(records, size);
+    }
+}
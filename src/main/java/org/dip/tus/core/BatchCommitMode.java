@@ -0,0 +1,11 @@
+package org.dip.tus.core;
+
+/**
+ * Controls how the bulk booking API commits a batch.
+ * ALL_OR_NOTHING commits the batch only if every booking in it is valid,
+ * PER_ITEM commits every valid booking and rejects the rest.
+ */
+public enum BatchCommitMode {
+    ALL_OR_NOTHING,
+    PER_ITEM
+}
@@ -0,0 +1,84 @@
+package org.dip.tus.core;
+
+import org.dip.tus.menu.ConsoleColour;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task that periodically moves bookings which have already ended out of the live entity indexes
+ * of each manager and into their archive tier. Runs on a single daemon thread so it never keeps the
+ * application alive.
+ */
+public class BookingArchiver {
+
+    private final List<AbstractBookingManager<?, ?>> managers;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs an archiver over the given managers.
+     *
+     * @param managers The managers whose entities should be archived.
+     * @param interval How often to run archival.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public BookingArchiver(List<AbstractBookingManager<?, ?>> managers, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Archive interval must be positive");
+        }
+        this.managers = List.copyOf(managers);
+        this.interval = interval;
+    }
+
+    /**
+     * Starts periodic archival. The first run happens immediately. A run that fails is reported on the console and
+     * archival carries on at the next interval.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A task that throws is never run again, so a failed run is reported and the next one still happens
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveEndedBefore(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                System.out.println(ConsoleColour.RED + "Archiving failed: " + e.getMessage() + ConsoleColour.RESET);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic archival.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Archives, across every manager, the bookings that ended at or before the cutoff.
+     *
+     * @param cutoff The cutoff time.
+     * @return The number of bookings archived.
+     */
+    public int archiveEndedBefore(LocalDateTime cutoff) {
+        int archived = 0;
+        for (AbstractBookingManager<?, ?> manager : managers) {
+            archived += manager.archiveBookingsEndedBefore(cutoff);
+        }
+        return archived;
+    }
+}
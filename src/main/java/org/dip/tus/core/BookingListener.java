@@ -0,0 +1,54 @@
+package org.dip.tus.core;
+
+/**
+ * Listener notified by an {@link AbstractBookingManager} whenever a booking is committed to or removed from one
+ * of its entities. Notifications are delivered while the entity's write lock is held, so a listener sees the
+ * changes to any single entity in the order they were made. Listeners for different entities may be called
+ * concurrently, so implementations must be thread-safe and should return quickly.
+ * <p>
+ * Once the call that made the changes has released its locks, {@link #changesCompleted()} is called on the same
+ * thread, so slow work such as waiting for durability can be done once per call rather than once per booking.
+ * <p>
+ * A listener may throw to veto the changes, for example when they cannot be made durable. The remaining listeners
+ * are still notified, and the manager then removes every booking the call added, notifying
+ * {@link #bookingRemoved} for each, before rethrowing the failure to the caller.
+ *
+ * @param <E> The type of entity being booked.
+ * @param <B> The type of booking.
+ */
+public interface BookingListener<E extends AbstractEntity<B>, B extends AbstractBooking> {
+
+    /**
+     * Called after a booking has been added to an entity.
+     *
+     * @param entity  The entity the booking was added to.
+     * @param booking The booking that was added.
+     */
+    void bookingAdded(E entity, B booking);
+
+    /**
+     * Called after a booking has been removed from an entity.
+     *
+     * @param entity  The entity the booking was removed from.
+     * @param booking The booking that was removed.
+     */
+    void bookingRemoved(E entity, B booking);
+
+    /**
+     * Called after a booking recovered from durable storage has been written straight into an entity's archive,
+     * without being committed. The booking is recreated from its archive record for the call and is not kept.
+     * Listeners that account for every booking held, rather than for every change, count it here.
+     *
+     * @param entity  The entity that archived the booking.
+     * @param booking The booking, recreated from its record.
+     */
+    default void archivedBookingRestored(E entity, B booking) {
+    }
+
+    /**
+     * Called on the committing thread after a call that added or removed at least one booking has released the
+     * entity locks it held.
+     */
+    default void changesCompleted() {
+    }
+}
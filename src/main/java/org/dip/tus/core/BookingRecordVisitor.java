@@ -0,0 +1,19 @@
+package org.dip.tus.core;
+
+/**
+ * Receives the primitive fields of bookings, live or archived, without a booking object being created for them.
+ */
+@FunctionalInterface
+public interface BookingRecordVisitor {
+
+    /**
+     * Called once per booking.
+     *
+     * @param bookingId        The booking ID.
+     * @param startEpochSecond The start of the booking in epoch seconds.
+     * @param endEpochSecond   The end of the booking in epoch seconds.
+     * @param costFixedPoint   The cost of the booking in hundredths, see {@link org.dip.tus.util.FixedPoint}.
+     * @param customerId       The ID of the booking's customer in the {@link org.dip.tus.customer.CustomerManager}.
+     */
+    void visit(long bookingId, long startEpochSecond, long endEpochSecond, long costFixedPoint, int customerId);
+}
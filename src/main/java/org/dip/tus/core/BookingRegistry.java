@@ -0,0 +1,117 @@
+package org.dip.tus.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton registry of every committed booking across all booking managers, keyed by booking ID.
+ * IDs are compact, monotonic and collision-free. They are drawn from a lock-free counter when a booking is first
+ * committed, and a booking keeps its ID for life.
+ * <p>
+ * Archived bookings stay registered as a reference to their archive record rather than as an object, and are
+ * recreated when looked up.
+ */
+public final class BookingRegistry {
+
+    private static final BookingRegistry instance = new BookingRegistry();
+
+    private final AtomicLong lastId = new AtomicLong();
+    private final Map<Long, Registration> bookingsById = new ConcurrentHashMap<>();
+
+    private BookingRegistry() {
+    }
+
+    public static BookingRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * A committed booking together with the manager that holds it. An archived booking has no object, only the
+     * entity and archive record it is held in.
+     */
+    record Registration(AbstractBookingManager<?, ?> manager, AbstractBooking booking, AbstractEntity<?> entity,
+                        long record) {
+
+        /**
+         * Retrieves the booking, recreating it from its archive record if it has been archived.
+         *
+         * @return The booking, or {@code null} if its archive record has since been removed.
+         */
+        AbstractBooking resolve() {
+            return booking != null ? booking : entity.readArchivedRecord(record);
+        }
+    }
+
+    /**
+     * Registers a committed booking, assigning it the next ID if it does not have one yet.
+     *
+     * @param manager The manager the booking was committed to.
+     * @param booking The committed booking.
+     */
+    void register(AbstractBookingManager<?, ?> manager, AbstractBooking booking) {
+        if (booking.getBookingId() == 0) {
+            booking.assignBookingId(lastId.incrementAndGet());
+        } else {
+            lastId.accumulateAndGet(booking.getBookingId(), Math::max);
+        }
+        bookingsById.put(booking.getBookingId(), new Registration(manager, booking, null, -1));
+    }
+
+    /**
+     * Replaces a booking's registration with a reference to its archive record, so the object can be dropped.
+     *
+     * @param manager   The manager holding the booking.
+     * @param entity    The entity that archived it.
+     * @param bookingId The booking's ID.
+     * @param record    The index of its record in the entity's archive store.
+     */
+    void registerArchived(AbstractBookingManager<?, ?> manager, AbstractEntity<?> entity, long bookingId,
+                          long record) {
+        lastId.accumulateAndGet(bookingId, Math::max);
+        bookingsById.put(bookingId, new Registration(manager, null, entity, record));
+    }
+
+    /**
+     * Removes a booking from the registry. The booking keeps its ID.
+     *
+     * @param bookingId The removed booking's ID.
+     */
+    void unregister(long bookingId) {
+        bookingsById.remove(bookingId);
+    }
+
+    Registration find(long bookingId) {
+        return bookingsById.get(bookingId);
+    }
+
+    /**
+     * Retrieves a committed booking by its numeric ID.
+     *
+     * @param bookingId The booking ID.
+     * @return The booking, recreated from its record if archived, or {@code null} if no committed booking has that
+     *         ID.
+     */
+    public AbstractBooking findBookingById(long bookingId) {
+        Registration registration = bookingsById.get(bookingId);
+        return registration == null ? null : registration.resolve();
+    }
+
+    /**
+     * Parses a displayed booking ID such as {@code R42} or {@code D7} into its numeric ID.
+     *
+     * @param bookingId The displayed booking ID.
+     * @return The numeric ID, or {@code 0} if the text is not a valid booking ID.
+     */
+    public static long parseBookingId(String bookingId) {
+        int digits = 0;
+        while (digits < bookingId.length() && Character.isLetter(bookingId.charAt(digits))) {
+            digits++;
+        }
+        try {
+            return Long.parseLong(bookingId.substring(digits));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
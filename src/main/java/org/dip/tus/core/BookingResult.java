@@ -0,0 +1,12 @@
+package org.dip.tus.core;
+
+/**
+ * Outcome of a single booking submitted through the bulk booking API.
+ */
+public enum BookingResult {
+    ADDED,
+    UNKNOWN_ENTITY,
+    CLASHES_WITH_EXISTING,
+    CLASHES_WITHIN_BATCH,
+    NOT_COMMITTED
+}
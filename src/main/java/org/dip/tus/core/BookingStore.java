@@ -0,0 +1,239 @@
+package org.dip.tus.core;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.util.FixedPoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only store of bookings as fixed-width binary records, used to hold archived history off the heap.
+ * <p>
+ * Every record is {@value #RECORD_BYTES} bytes: the booking ID, start and end epoch seconds, the cost in
+ * fixed-point hundredths, the customer's integer ID, a quantity (such as the number of diners), a flags byte and a
+ * short text tag (such as a vehicle registration). A record is addressed by its index and its fields are read in
+ * place, so callers can scan history without creating booking objects.
+ * <p>
+ * Records live in fixed-size chunks. A file-backed store maps each chunk of the file into memory with
+ * {@link FileChannel#map}, so the history is held by the operating system's page cache rather than the Java heap.
+ * The file is scratch space for the running process, not a durable copy of the history: it is truncated when the
+ * store is opened, and history survives restarts through the persistence checkpoint and journal, which load it
+ * into a fresh store. An in-memory store keeps the same compact layout in heap buffers.
+ * <p>
+ * Appends are serialised. Reads of a record may happen from any thread once its index has been published to
+ * that thread, for example through the owning entity's lock.
+ */
+public final class BookingStore implements AutoCloseable {
+
+    public static final int RECORD_BYTES = 64;
+    public static final int TAG_BYTES = 16;
+
+    private static final int BOOKING_ID = 0;
+    private static final int START = 8;
+    private static final int END = 16;
+    private static final int COST = 24;
+    private static final int CUSTOMER_ID = 32;
+    private static final int QUANTITY = 36;
+    private static final int FLAGS = 40;
+    private static final int TAG = 48;
+
+    private static final byte REMOVED = 1;
+
+    private static final int RECORDS_PER_CHUNK_BITS = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << RECORDS_PER_CHUNK_BITS;
+    private static final long CHUNK_BYTES = (long) RECORDS_PER_CHUNK * RECORD_BYTES;
+
+    private final FileChannel channel;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile long size;
+
+    private BookingStore(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a store backed by a memory-mapped file. Any existing content is discarded, as the file is only scratch
+     * space; do not point it at a file whose content must be kept.
+     *
+     * @param file The backing file.
+     * @return The empty store.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static BookingStore open(Path file) throws IOException {
+        return new BookingStore(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Creates a store held in heap buffers.
+     *
+     * @return The empty store.
+     */
+    public static BookingStore inMemory() {
+        return new BookingStore(null);
+    }
+
+    /**
+     * Appends a booking as a new record.
+     *
+     * @param booking  The booking.
+     * @param quantity A quantity specific to the booking type, or {@code 0}.
+     * @param tag      A short text specific to the booking type, or {@code null}. At most {@value #TAG_BYTES} bytes
+     *                 of UTF-8.
+     * @return The new record's index.
+     * @throws IllegalArgumentException if the booking's customer is not registered or the tag is too long.
+     * @throws IOException if a file-backed store cannot grow.
+     */
+    public long append(AbstractBooking booking, int quantity, String tag) throws IOException {
+        int customerId = booking.getCustomerId();
+        if (customerId < 0) {
+            throw new IllegalArgumentException("Customer of booking " + booking.getBookingId() + " is not registered");
+        }
+        return append(booking.getBookingId(), booking.getBookingStartEpochSecond(), booking.getBookingEndEpochSecond(),
+                FixedPoint.toFixedPoint(booking.getCost()), customerId, quantity, tag);
+    }
+
+    /**
+     * Appends a record from its fields, for history that is loaded without creating booking objects.
+     *
+     * @param bookingId      The booking ID.
+     * @param start          The start in epoch seconds.
+     * @param end            The end in epoch seconds.
+     * @param costFixedPoint The cost in fixed-point hundredths.
+     * @param customerId     The customer's registered ID.
+     * @param quantity       A quantity specific to the booking type, or {@code 0}.
+     * @param tag            A short text specific to the booking type, or {@code null}.
+     * @return The new record's index.
+     * @throws IllegalArgumentException if the tag is too long.
+     * @throws IOException if a file-backed store cannot grow.
+     */
+    synchronized long append(long bookingId, long start, long end, long costFixedPoint, int customerId, int quantity,
+                             String tag) throws IOException {
+        byte[] text = tag == null ? new byte[0] : tag.getBytes(StandardCharsets.UTF_8);
+        if (text.length > TAG_BYTES) {
+            throw new IllegalArgumentException("Tag longer than " + TAG_BYTES + " bytes: " + tag);
+        }
+        long index = size;
+        ByteBuffer chunk = chunkFor(index);
+        int offset = offsetOf(index);
+        chunk.putLong(offset + BOOKING_ID, bookingId);
+        chunk.putLong(offset + START, start);
+        chunk.putLong(offset + END, end);
+        chunk.putLong(offset + COST, costFixedPoint);
+        chunk.putInt(offset + CUSTOMER_ID, customerId);
+        chunk.putInt(offset + QUANTITY, quantity);
+        chunk.put(offset + FLAGS, (byte) 0);
+        for (int i = 0; i < TAG_BYTES; i++) {
+            chunk.put(offset + TAG + i, i < text.length ? text[i] : 0);
+        }
+        size = index + 1;
+        return index;
+    }
+
+    /**
+     * Flags a record as removed. The record keeps its space and can still be read.
+     *
+     * @param index The record index.
+     */
+    synchronized void markRemoved(long index) {
+        ByteBuffer chunk = chunkOf(index);
+        int offset = offsetOf(index);
+        chunk.put(offset + FLAGS, (byte) (chunk.get(offset + FLAGS) | REMOVED));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getBookingId(long index) {
+        return chunkOf(index).getLong(offsetOf(index) + BOOKING_ID);
+    }
+
+    public long getStartEpochSecond(long index) {
+        return chunkOf(index).getLong(offsetOf(index) + START);
+    }
+
+    public long getEndEpochSecond(long index) {
+        return chunkOf(index).getLong(offsetOf(index) + END);
+    }
+
+    public long getCostFixedPoint(long index) {
+        return chunkOf(index).getLong(offsetOf(index) + COST);
+    }
+
+    public double getCost(long index) {
+        return FixedPoint.toDouble(getCostFixedPoint(index));
+    }
+
+    public int getCustomerId(long index) {
+        return chunkOf(index).getInt(offsetOf(index) + CUSTOMER_ID);
+    }
+
+    public Customer getCustomer(long index) {
+        return CustomerManager.getInstance().getCustomerById(getCustomerId(index));
+    }
+
+    public int getQuantity(long index) {
+        return chunkOf(index).getInt(offsetOf(index) + QUANTITY);
+    }
+
+    public boolean isRemoved(long index) {
+        return (chunkOf(index).get(offsetOf(index) + FLAGS) & REMOVED) != 0;
+    }
+
+    public String getTag(long index) {
+        ByteBuffer chunk = chunkOf(index);
+        int offset = offsetOf(index) + TAG;
+        byte[] text = new byte[TAG_BYTES];
+        int length = 0;
+        while (length < TAG_BYTES && chunk.get(offset + length) != 0) {
+            text[length] = chunk.get(offset + length);
+            length++;
+        }
+        return new String(text, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Releases the backing file. Mapped chunks stay readable until they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer chunkOf(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No booking record " + index);
+        }
+        return chunks[(int) (index >>> RECORDS_PER_CHUNK_BITS)];
+    }
+
+    private ByteBuffer chunkFor(long index) throws IOException {
+        int chunk = (int) (index >>> RECORDS_PER_CHUNK_BITS);
+        ByteBuffer[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+        ByteBuffer added = channel == null
+                ? ByteBuffer.allocate((int) CHUNK_BYTES)
+                : channel.map(FileChannel.MapMode.READ_WRITE, chunk * CHUNK_BYTES, CHUNK_BYTES);
+        ByteBuffer[] grown = Arrays.copyOf(current, chunk + 1);
+        grown[chunk] = added;
+        chunks = grown;
+        return added;
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index & (RECORDS_PER_CHUNK - 1)) * RECORD_BYTES;
+    }
+}
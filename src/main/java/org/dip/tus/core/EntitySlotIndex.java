@@ -0,0 +1,350 @@
+package org.dip.tus.core;
+
+import org.dip.tus.util.EpochTime;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An occupancy index across all the entities of one booking manager. Every time slot that holds a booking keeps
+ * two bitsets with one bit per entity: the entities with a booking covering the whole slot, and the entities with
+ * a booking covering only part of it. OR-ing the bitsets of the slots in a range gives, a word at a time, the
+ * entities that are certainly busy and the few that need an exact check; every other entity is certainly free.
+ * <p>
+ * Entities can be registered in groups, such as the sections of a parking lot. Each slot also counts, per group,
+ * the entities with a booking covering the whole slot, so the free entities of every group at an instant are
+ * found without visiting the entities that are certainly busy or certainly free.
+ * <p>
+ * Slots are dropped as they pass and when bookings before a cutoff are {@link #pruneBefore archived}. A booking
+ * spanning more than
+ * {@value #MAX_INDEXED_SLOTS} slots is not indexed slot by slot. Queries treat the entities concerned, and every
+ * entity in dropped slots, as possibly busy, so callers fall back to the entity's own clash check for them.
+ * <p>
+ * Entities update the index from their insert and delete paths while holding their own write lock, so the lock
+ * order is entity, then index. Queries hold the index lock only while combining bitsets, never while checking an
+ * entity.
+ */
+final class EntitySlotIndex {
+
+    /**
+     * The most slots a single booking is indexed over.
+     */
+    static final int MAX_INDEXED_SLOTS = 1 << 14;
+
+    private final long slotSeconds;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Slot> slots = new TreeMap<>();
+    private int entityCount;
+    private int[] groups = new int[0];
+    private int[] groupSizes = new int[0];
+    // Per entity, the number of bookings too long to index slot by slot, and the entities with any
+    private int[] unindexed = new int[0];
+    private final BitSet unindexedEntities = new BitSet();
+    private long prunedBefore = Long.MIN_VALUE;
+
+    /**
+     * The entities a query range overlaps.
+     *
+     * @param busy     Entities certainly booked somewhere in the range.
+     * @param possible Entities that may be booked in the range and need an exact check.
+     */
+    record Overlap(BitSet busy, BitSet possible) {
+    }
+
+    /**
+     * The entities of each group free at an instant, before the exact check.
+     *
+     * @param free     Per group, the entities without a booking covering the instant's whole slot.
+     * @param possible Entities counted as free that may be booked at the instant and need an exact check.
+     */
+    record GroupCounts(int[] free, BitSet possible) {
+    }
+
+    private static final class Slot {
+        long[] covered = new long[0];
+        long[] touched = new long[0];
+        int[] coveredPerGroup = new int[0];
+    }
+
+    /**
+     * Constructs an index with the given slot size, dropping slots as they pass on the system clock.
+     *
+     * @param slotSeconds The length of a slot in seconds.
+     */
+    EntitySlotIndex(long slotSeconds) {
+        this(slotSeconds, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs an index with the given slot size, dropping slots as they pass on the given clock.
+     *
+     * @param slotSeconds The length of a slot in seconds.
+     * @param clock       The clock that decides which slots have passed.
+     */
+    EntitySlotIndex(long slotSeconds, Clock clock) {
+        if (slotSeconds <= 0) {
+            throw new IllegalArgumentException("Slot size must be positive");
+        }
+        this.slotSeconds = slotSeconds;
+        this.clock = clock;
+    }
+
+    /**
+     * Allocates the next entity position.
+     *
+     * @param group The entity's group, a small non-negative number.
+     * @return The position, counting from 0 in registration order.
+     */
+    int register(int group) {
+        if (group < 0) {
+            throw new IllegalArgumentException("Group must not be negative");
+        }
+        lock.writeLock().lock();
+        try {
+            if (entityCount == unindexed.length) {
+                unindexed = Arrays.copyOf(unindexed, Math.max(8, entityCount * 2));
+                groups = Arrays.copyOf(groups, unindexed.length);
+            }
+            if (group >= groupSizes.length) {
+                groupSizes = Arrays.copyOf(groupSizes, group + 1);
+            }
+            groups[entityCount] = group;
+            groupSizes[group]++;
+            return entityCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a booking of the entity at the given position over [start, end).
+     *
+     * @param position The entity's position.
+     * @param start    The start of the booking in epoch seconds.
+     * @param end      The exclusive end of the booking in epoch seconds.
+     */
+    void add(int position, long start, long end) {
+        long from = Math.floorDiv(start, slotSeconds);
+        long to = slotAfter(end);
+        if (from >= to) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pruneLocked(now());
+            if (to - from > MAX_INDEXED_SLOTS) {
+                if (unindexed[position]++ == 0) {
+                    unindexedEntities.set(position);
+                }
+                return;
+            }
+            for (long slot = Math.max(from, prunedBefore); slot < to; slot++) {
+                Slot entry = slots.computeIfAbsent(slot, key -> new Slot());
+                if (coversSlot(slot, start, end)) {
+                    entry.covered = set(entry.covered, position);
+                    int group = groups[position];
+                    if (group >= entry.coveredPerGroup.length) {
+                        entry.coveredPerGroup = Arrays.copyOf(entry.coveredPerGroup, groupSizes.length);
+                    }
+                    entry.coveredPerGroup[group]++;
+                } else {
+                    entry.touched = set(entry.touched, position);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets a booking of the entity at the given position. Must be called after the booking has been removed from
+     * the entity and while holding the entity's write lock, as the entity is asked whether another of its bookings
+     * still shares the first or last slot.
+     *
+     * @param entity   The entity the booking was removed from.
+     * @param position The entity's position.
+     * @param start    The start of the booking in epoch seconds.
+     * @param end      The exclusive end of the booking in epoch seconds.
+     */
+    void remove(AbstractEntity<?> entity, int position, long start, long end) {
+        long from = Math.floorDiv(start, slotSeconds);
+        long to = slotAfter(end);
+        if (from >= to) {
+            return;
+        }
+        boolean firstShared = !coversSlot(from, start, end)
+                && entity.overlapsLocked(from * slotSeconds, (from + 1) * slotSeconds);
+        boolean lastShared = !coversSlot(to - 1, start, end)
+                && entity.overlapsLocked((to - 1) * slotSeconds, to * slotSeconds);
+        lock.writeLock().lock();
+        try {
+            pruneLocked(now());
+            if (to - from > MAX_INDEXED_SLOTS) {
+                if (--unindexed[position] == 0) {
+                    unindexedEntities.clear(position);
+                }
+                return;
+            }
+            for (long slot = Math.max(from, prunedBefore); slot < to; slot++) {
+                Slot entry = slots.get(slot);
+                if (entry == null) {
+                    continue;
+                }
+                if (clear(entry.covered, position)) {
+                    entry.coveredPerGroup[groups[position]]--;
+                }
+                clear(entry.touched, position);
+                if ((slot == from && firstShared) || (slot == to - 1 && lastShared)) {
+                    entry.touched = set(entry.touched, position);
+                } else if (isEmpty(entry.covered) && isEmpty(entry.touched)) {
+                    slots.remove(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the entities a range overlaps by OR-ing the bitsets of the slots it touches.
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end   The exclusive end of the range in epoch seconds.
+     * @return The busy and possibly busy entities, by position.
+     */
+    Overlap overlap(long start, long end) {
+        long from = Math.floorDiv(start, slotSeconds);
+        long to = slotAfter(end);
+        lock.readLock().lock();
+        try {
+            BitSet possible = new BitSet(entityCount);
+            if (from >= to) {
+                return new Overlap(new BitSet(), possible);
+            }
+            long[] covered = new long[(entityCount + 63) >>> 6];
+            long[] touched = new long[covered.length];
+            for (Slot entry : slots.subMap(from, to).values()) {
+                or(covered, entry.covered);
+                or(touched, entry.touched);
+            }
+            if (from < prunedBefore) {
+                possible.set(0, entityCount);
+            }
+            possible.or(unindexedEntities);
+            BitSet busy = BitSet.valueOf(covered);
+            possible.or(BitSet.valueOf(touched));
+            possible.andNot(busy);
+            return new Overlap(busy, possible);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the entities of each group that are free at an instant, reading only the slot containing it.
+     * Entities with a booking covering the whole slot are subtracted from the counts; the rest are counted as free
+     * unless they are flagged for an exact check.
+     *
+     * @param epochSecond The instant in epoch seconds.
+     * @return The counts per group and the entities to check.
+     */
+    GroupCounts countByGroup(long epochSecond) {
+        long slot = Math.floorDiv(epochSecond, slotSeconds);
+        lock.readLock().lock();
+        try {
+            int[] free = groupSizes.clone();
+            BitSet possible = new BitSet(entityCount);
+            if (slot < prunedBefore) {
+                possible.set(0, entityCount);
+                return new GroupCounts(free, possible);
+            }
+            Slot entry = slots.get(slot);
+            if (entry != null) {
+                for (int group = 0; group < entry.coveredPerGroup.length; group++) {
+                    free[group] -= entry.coveredPerGroup[group];
+                }
+                possible.or(BitSet.valueOf(entry.touched));
+            }
+            possible.or(unindexedEntities);
+            if (entry != null) {
+                possible.andNot(BitSet.valueOf(entry.covered));
+            }
+            return new GroupCounts(free, possible);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every slot before the one containing the cutoff. Queries reaching back past the cutoff then report
+     * every entity as possibly busy.
+     *
+     * @param cutoff The cutoff in epoch seconds.
+     */
+    void pruneBefore(long cutoff) {
+        lock.writeLock().lock();
+        try {
+            pruneLocked(cutoff);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void pruneLocked(long cutoff) {
+        long slot = Math.floorDiv(cutoff, slotSeconds);
+        if (slot > prunedBefore) {
+            slots.headMap(slot).clear();
+            prunedBefore = slot;
+        }
+    }
+
+    private long now() {
+        return EpochTime.toEpochSecond(LocalDateTime.now(clock));
+    }
+
+    private long slotAfter(long epochSecond) {
+        return Math.floorDiv(epochSecond - 1, slotSeconds) + 1;
+    }
+
+    private boolean coversSlot(long slot, long start, long end) {
+        return start <= slot * slotSeconds && (slot + 1) * slotSeconds <= end;
+    }
+
+    private static long[] set(long[] words, int position) {
+        if (position >>> 6 >= words.length) {
+            words = Arrays.copyOf(words, (position >>> 6) + 1);
+        }
+        words[position >>> 6] |= 1L << position;
+        return words;
+    }
+
+    private static boolean clear(long[] words, int position) {
+        if (position >>> 6 >= words.length || (words[position >>> 6] & 1L << position) == 0) {
+            return false;
+        }
+        words[position >>> 6] &= ~(1L << position);
+        return true;
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void or(long[] target, long[] words) {
+        for (int i = 0; i < words.length; i++) {
+            target[i] |= words[i];
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.dip.tus.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Occupancy calendar for a single entity, stored as a bitmap of fixed-size time slots counted from the epoch.
+ * A set bit means at least one booking touches that slot, so a run of clear bits proves the range is free,
+ * while a set bit only means the exact booking index has to be consulted.
+ * <p>
+ * The bitmap grows in either direction to cover the slots that have been marked, up to a window of
+ * {@value #MAX_WINDOW_SLOTS} slots. A booking that does not fit in the window is not marked; instead the slots on
+ * its side of the window are treated as possibly occupied, so checks there fall back to the booking index.
+ * {@link #trimBefore} drops the slots before a cutoff in the same way once the bookings there are archived, so
+ * the window follows the current bookings rather than the whole history. Not thread-safe: the owning entity
+ * guards it with its own lock.
+ */
+public class OccupancyBitmap {
+
+    /**
+     * The most slots the bitmap covers: 32 KB of bits, or about seven years of 15-minute slots.
+     */
+    public static final int MAX_WINDOW_SLOTS = 1 << 18;
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long slotSeconds;
+    private long baseSlot;
+    private long[] words = EMPTY;
+    // Slots before unknownBefore, and from unknownFrom on, may be occupied by bookings the bitmap does not hold
+    private long unknownBefore = Long.MIN_VALUE;
+    private long unknownFrom = Long.MAX_VALUE;
+
+    /**
+     * Constructs an empty bitmap.
+     *
+     * @param slotSeconds The width of one slot in seconds.
+     * @throws IllegalArgumentException if the slot width is not positive.
+     */
+    public OccupancyBitmap(long slotSeconds) {
+        if (slotSeconds <= 0) {
+            throw new IllegalArgumentException("Slot size must be positive");
+        }
+        this.slotSeconds = slotSeconds;
+    }
+
+    public long getSlotSeconds() {
+        return slotSeconds;
+    }
+
+    /**
+     * Converts an epoch second to the slot containing it.
+     *
+     * @param epochSecond The instant, in seconds from the epoch.
+     * @return The index of the slot containing that instant.
+     */
+    public long slotOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, slotSeconds);
+    }
+
+    /**
+     * Converts the end of a half-open range to the first slot not touched by it.
+     *
+     * @param epochSecond The exclusive end of the range, in seconds from the epoch.
+     * @return The exclusive end slot.
+     */
+    public long slotAfter(long epochSecond) {
+        return Math.floorDiv(epochSecond + slotSeconds - 1, slotSeconds);
+    }
+
+    /**
+     * Marks every slot touched by the range [start, end) as occupied. A range that cannot be covered without
+     * growing the window past {@value #MAX_WINDOW_SLOTS} slots instead makes every slot on its side of the window
+     * possibly occupied.
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end   The exclusive end of the range in epoch seconds.
+     */
+    public void mark(long start, long end) {
+        long from = slotOf(start);
+        long to = slotAfter(end);
+        if (from >= to) {
+            return;
+        }
+        if (!ensureCovers(from, to)) {
+            if (words.length > 0 && from < baseSlot) {
+                unknownBefore = Math.max(unknownBefore, to);
+            } else {
+                unknownFrom = Math.min(unknownFrom, from);
+            }
+            return;
+        }
+        apply(from - baseSlot, to - baseSlot, true);
+    }
+
+    /**
+     * Drops the slots before the one containing the cutoff, which are then treated as possibly occupied.
+     * Called once the bookings before the cutoff have been archived, so the window does not keep history.
+     *
+     * @param cutoff The cutoff in epoch seconds.
+     */
+    public void trimBefore(long cutoff) {
+        long newBase = slotOf(cutoff) & ~63L;
+        if (words.length == 0 || newBase <= baseSlot) {
+            return;
+        }
+        int dropped = (int) Math.min(words.length, (newBase - baseSlot) >>> 6);
+        words = dropped == words.length ? EMPTY : Arrays.copyOfRange(words, dropped, words.length);
+        baseSlot += (long) dropped << 6;
+        unknownBefore = Math.max(unknownBefore, baseSlot);
+    }
+
+    /**
+     * Clears every slot touched by the range [start, end).
+     * Callers must re-mark any neighbouring booking that shares a boundary slot with the range.
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end   The exclusive end of the range in epoch seconds.
+     */
+    public void clear(long start, long end) {
+        long from = Math.max(slotOf(start), baseSlot);
+        long to = Math.min(slotAfter(end), baseSlot + ((long) words.length << 6));
+        if (from >= to) {
+            return;
+        }
+        apply(from - baseSlot, to - baseSlot, false);
+    }
+
+    /**
+     * Checks whether no slot touched by the range [start, end) is marked, scanning a word at a time.
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end   The exclusive end of the range in epoch seconds.
+     * @return {@code true} if the range is certainly free, {@code false} if it may be occupied.
+     */
+    public boolean isFree(long start, long end) {
+        long from = slotOf(start);
+        long to = slotAfter(end);
+        if (from >= to) {
+            return true;
+        }
+        if (from < unknownBefore || to > unknownFrom) {
+            return false;
+        }
+        from = Math.max(from, baseSlot);
+        to = Math.min(to, baseSlot + ((long) words.length << 6));
+        if (from >= to) {
+            return true;
+        }
+        int fromBit = (int) (from - baseSlot);
+        int toBit = (int) (to - baseSlot);
+        int firstWord = fromBit >>> 6;
+        int lastWord = (toBit - 1) >>> 6;
+        long firstMask = -1L << fromBit;
+        long lastMask = -1L >>> -toBit;
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) == 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return false;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (words[i] != 0) {
+                return false;
+            }
+        }
+        return (words[lastWord] & lastMask) == 0;
+    }
+
+    /**
+     * Copies the occupancy of the slots touched by [start, end) into a {@link BitSet}, where bit 0 is the slot
+     * containing {@code start}. The result can be combined with other entities' occupancy using
+     * {@link BitSet#and} and {@link BitSet#or}. Slots the bitmap does not hold are reported as occupied.
+     *
+     * @param start The start of the range in epoch seconds.
+     * @param end   The exclusive end of the range in epoch seconds.
+     * @return The occupied slots in the range.
+     * @throws IllegalArgumentException if the range spans more than {@value #MAX_WINDOW_SLOTS} slots.
+     */
+    public BitSet occupancy(long start, long end) {
+        long from = slotOf(start);
+        long to = slotAfter(end);
+        if (to - from > MAX_WINDOW_SLOTS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_WINDOW_SLOTS + " slots");
+        }
+        BitSet result = new BitSet((int) Math.max(0, to - from));
+        if (from >= to) {
+            return result;
+        }
+        if (from < unknownBefore) {
+            result.set(0, (int) (Math.min(to, unknownBefore) - from));
+        }
+        if (to > unknownFrom) {
+            result.set((int) (Math.max(from, unknownFrom) - from), (int) (to - from));
+        }
+        long lo = Math.max(from, baseSlot);
+        long hi = Math.min(to, baseSlot + ((long) words.length << 6));
+        for (long slot = lo; slot < hi; ) {
+            int bit = (int) (slot - baseSlot);
+            long word = words[bit >>> 6] >>> bit;
+            int span = (int) Math.min(64 - (bit & 63), hi - slot);
+            if (span < 64) {
+                word &= (1L << span) - 1;
+            }
+            while (word != 0) {
+                int offset = Long.numberOfTrailingZeros(word);
+                result.set((int) (slot - from) + offset);
+                word &= word - 1;
+            }
+            slot += span;
+        }
+        return result;
+    }
+
+    private void apply(long fromBit, long toBit, boolean set) {
+        int firstWord = (int) (fromBit >>> 6);
+        int lastWord = (int) ((toBit - 1) >>> 6);
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = -1L;
+            if (i == firstWord) {
+                mask &= -1L << fromBit;
+            }
+            if (i == lastWord) {
+                mask &= -1L >>> -toBit;
+            }
+            words[i] = set ? words[i] | mask : words[i] & ~mask;
+        }
+    }
+
+    /**
+     * Grows the window to cover the slots [from, to), unless that would take it past the maximum.
+     *
+     * @return {@code true} if the slots are covered.
+     */
+    private boolean ensureCovers(long from, long to) {
+        if (words.length == 0) {
+            if (to - (from & ~63L) > MAX_WINDOW_SLOTS) {
+                return false;
+            }
+            baseSlot = from & ~63L;
+            words = new long[(int) (((to - baseSlot) + 63) >>> 6)];
+            return true;
+        }
+        long end = baseSlot + ((long) words.length << 6);
+        if (from >= baseSlot && to <= end) {
+            return true;
+        }
+        long newBase = Math.min(baseSlot, from & ~63L);
+        long newEnd = (Math.max(end, to) + 63) & ~63L;
+        if (newEnd - newBase > MAX_WINDOW_SLOTS) {
+            return false;
+        }
+        // Grow with headroom so that a run of bookings in one direction does not resize every time
+        long headroom = Math.max(64, (newEnd - newBase) / 2) & ~63L;
+        long spare = MAX_WINDOW_SLOTS - (newEnd - newBase);
+        if (newBase < baseSlot && newEnd > end) {
+            spare = (spare / 2) & ~63L;
+        }
+        headroom = Math.min(headroom, spare);
+        if (newBase < baseSlot) {
+            newBase -= headroom;
+        }
+        if (newEnd > end) {
+            newEnd += headroom;
+        }
+        long[] grown = new long[(int) ((newEnd - newBase) >>> 6)];
+        System.arraycopy(words, 0, grown, (int) ((baseSlot - newBase) >>> 6), words.length);
+        words = grown;
+        baseSlot = newBase;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of slots the bitmap currently covers.
+     *
+     * @return The window size in slots.
+     */
+    int windowSlots() {
+        return words.length << 6;
+    }
+
+    @Override
+    public String toString() {
+        return "OccupancyBitmap{" +
+                "slotSeconds=" + slotSeconds +
+                ", baseSlot=" + baseSlot +
+                ", slots=" + ((long) words.length << 6) +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package org.dip.tus.customer;
+
+import java.time.LocalDate;
+
+/**
+ * The registry key of a customer: their name, ignoring case, and their date of birth.
+ * <p>
+ * The key wraps the caller's name and date as they are, without building a lower-cased copy of the name. Its hash
+ * is computed once from the case-folded characters, and {@link #equals} compares names with
+ * {@link String#equalsIgnoreCase}, which folds case the same way, character by character.
+ */
+final class CustomerKey {
+
+    private final String name;
+    private final LocalDate dateOfBirth;
+    private final int hash;
+
+    CustomerKey(String name, LocalDate dateOfBirth) {
+        this.name = name;
+        this.dateOfBirth = dateOfBirth;
+        this.hash = 31 * foldedHash(name) + Long.hashCode(dateOfBirth.toEpochDay());
+    }
+
+    /**
+     * Folds the case of a name the way {@link String#equalsIgnoreCase} does, so that two names are equal ignoring
+     * case exactly when their folded forms are equal.
+     *
+     * @param name The name.
+     * @return The folded name, or the name itself if it is already folded.
+     */
+    static String fold(String name) {
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            if (fold(codePoint) != codePoint) {
+                StringBuilder folded = new StringBuilder(name.length()).append(name, 0, i);
+                name.substring(i).codePoints().forEach(c -> folded.appendCodePoint(fold(c)));
+                return folded.toString();
+            }
+            i += Character.charCount(codePoint);
+        }
+        return name;
+    }
+
+    private static int fold(int codePoint) {
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+
+    private static int foldedHash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            hash = 31 * hash + fold(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CustomerKey key && hash == key.hash && dateOfBirth.equals(key.dateOfBirth)
+                && name.equalsIgnoreCase(key.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
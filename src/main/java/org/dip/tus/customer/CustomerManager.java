@@ -4,15 +4,66 @@ import org.dip.tus.menu.ConsoleColour;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Singleton class that manages the registration and retrieval of customers.
+ * Each registered customer is given a compact integer ID, so that stored bookings can refer to the customer
+ * without holding the {@link Customer} itself.
+ * <p>
+ * The registry is safe for concurrent use. Customers are keyed by name and date of birth in a
+ * {@link ConcurrentHashMap}, which locks only the bin of the key being registered, so concurrent check-ins of
+ * different customers do not contend, and registering the same customer twice at once yields one profile and one
+ * ID. Customers are found by ID from a {@link CustomerTable} without taking a lock.
+ * <p>
+ * Customers are also indexed by their case-folded name, in name order, so that customers can be found by full
+ * name or by the start of their name without scanning the registry.
  */
 public class CustomerManager {
 
     private static final CustomerManager instance = new CustomerManager();
-    private final Map<String, Customer> customerRegistry = new HashMap<>();
+    private final Map<CustomerKey, Registration> customerRegistry = new ConcurrentHashMap<>();
+    // Folded name to the customers with that name, in the order they were registered
+    private final NavigableMap<String, Queue<Customer>> customersByName = new ConcurrentSkipListMap<>();
+    private final CustomerTable customersById = new CustomerTable();
+    private final AtomicInteger lastCustomerId = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+    private final List<Consumer<Customer>> customerListeners = new CopyOnWriteArrayList<>();
+    private final Collection<Customer> customers = new CustomersView();
+
+    /**
+     * A registered customer and their ID.
+     */
+    private record Registration(Customer customer, int customerId) {
+    }
+
+    /**
+     * A live, read-only view of the registered customers in the order they were registered.
+     */
+    private final class CustomersView extends AbstractCollection<Customer> {
+
+        @Override
+        public Iterator<Customer> iterator() {
+            return customersById.iterator(lastCustomerId.get());
+        }
+
+        @Override
+        public Spliterator<Customer> spliterator() {
+            // The size can change while the view is walked, so it is not reported up front
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public int size() {
+            return customerRegistry.size();
+        }
+    }
 
 
     private CustomerManager() {
@@ -24,25 +75,113 @@ public class CustomerManager {
     }
 
     /**
-     * Generates a unique key for a customer based on their name and date of birth.
+     * Adds a customer to the registry if they don't already exist.
      *
-     * @param name the customer's name.
-     * @param dob  the customer's date of birth.
-     * @return the generated unique key.
+     * @param customer the customer to add.
+     * @return the existing or newly added customer.
      */
-    private String generateKey(String name, LocalDate dob) {
-        return name.toLowerCase() + "|" + dob.toString();
+    public Customer addCustomer(Customer customer) {
+        return register(customer.name(), customer.dateOfBirth(), customer).customer();
     }
 
     /**
-     * Adds a customer to the registry if they don't already exist.
+     * Finds the registration of a customer, registering them in a single atomic step if none exists.
+     *
+     * @param name     the customer's name.
+     * @param dob      the customer's date of birth.
+     * @param customer the customer to register, or {@code null} to create one from the name and date of birth.
+     * @return the existing or new registration.
+     */
+    private Registration register(String name, LocalDate dob, Customer customer) {
+        CustomerKey key = new CustomerKey(name, dob);
+        Registration existing = customerRegistry.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        boolean[] added = new boolean[1];
+        Registration registered = customerRegistry.computeIfAbsent(key, k -> {
+            Customer newCustomer = customer != null ? customer : new Customer(name, dob);
+            int customerId = lastCustomerId.incrementAndGet();
+            customersById.set(customerId, newCustomer);
+            customersByName.computeIfAbsent(CustomerKey.fold(name), folded -> new ConcurrentLinkedQueue<>())
+                    .add(newCustomer);
+            added[0] = true;
+            return new Registration(newCustomer, customerId);
+        });
+        if (added[0]) {
+            version.incrementAndGet();
+            customerListeners.forEach(listener -> listener.accept(registered.customer()));
+        }
+        return registered;
+    }
+
+    /**
+     * Retrieves the registry's version, which goes up with every customer registered. Results computed from the
+     * registry can be tagged with it and reused while it is unchanged.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Retrieves the integer ID of a registered customer. A customer equal by name and date of birth to one already
+     * registered gets that customer's ID. This is a pure lookup: unknown customers are not registered.
+     *
+     * @param customer the customer.
+     * @return the customer's ID, or {@code -1} if the customer is not registered.
+     */
+    public int getCustomerId(Customer customer) {
+        Registration registration = customerRegistry.get(new CustomerKey(customer.name(), customer.dateOfBirth()));
+        return registration != null ? registration.customerId() : -1;
+    }
+
+    /**
+     * Adds a customer to the registry if they don't already exist, as {@link #addCustomer} does.
      *
      * @param customer the customer to add.
-     * @return the existing or newly added customer.
+     * @return the integer ID of the existing or newly added customer.
      */
-    public Customer addCustomer(Customer customer) {
-        String key = generateKey(customer.name(), customer.dateOfBirth());
-        return customerRegistry.computeIfAbsent(key, k -> customer);
+    public int getCustomerIdOrAdd(Customer customer) {
+        return register(customer.name(), customer.dateOfBirth(), customer).customerId();
+    }
+
+    /**
+     * Retrieves a customer by their integer ID.
+     *
+     * @param customerId the customer's ID.
+     * @return the customer, or {@code null} if no customer has that ID.
+     */
+    public Customer getCustomerById(int customerId) {
+        return customersById.get(customerId);
+    }
+
+    /**
+     * Retrieves the number of registered customers.
+     *
+     * @return the number of customers.
+     */
+    public int getCustomerCount() {
+        return customerRegistry.size();
+    }
+
+    /**
+     * Registers a listener to be called with every customer newly added to the registry.
+     *
+     * @param listener the listener to register.
+     */
+    public void addCustomerListener(Consumer<Customer> listener) {
+        customerListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener previously registered with {@link #addCustomerListener}.
+     *
+     * @param listener the listener to unregister.
+     */
+    public void removeCustomerListener(Consumer<Customer> listener) {
+        customerListeners.remove(listener);
     }
 
     /**
@@ -53,8 +192,8 @@ public class CustomerManager {
      * @return the customer if found, or {@code null} otherwise.
      */
     public Customer getCustomer(String name, LocalDate dob) {
-        String key = generateKey(name, dob);
-        return customerRegistry.get(key);
+        Registration registration = customerRegistry.get(new CustomerKey(name, dob));
+        return registration != null ? registration.customer() : null;
     }
 
     /**
@@ -64,42 +203,72 @@ public class CustomerManager {
      * @return a list of customers with the given name.
      */
     public List<Customer> getCustomersByName(String name) {
-        return customerRegistry.values().stream()
-                .filter(customer -> customer.name().equalsIgnoreCase(name))
-                .collect(Collectors.toList());
+        Queue<Customer> customers = customersByName.get(CustomerKey.fold(name));
+        return customers == null ? new ArrayList<>() : new ArrayList<>(customers);
+    }
+
+    /**
+     * Retrieves customers whose name starts with the given prefix (case-insensitive), in name order.
+     *
+     * @param prefix the start of the name to search for.
+     * @param limit  the maximum number of customers to retrieve.
+     * @return a list of at most {@code limit} customers whose name starts with the prefix.
+     */
+    public List<Customer> getCustomersByNamePrefix(String prefix, int limit) {
+        String foldedPrefix = CustomerKey.fold(prefix);
+        List<Customer> customers = new ArrayList<>();
+        for (Map.Entry<String, Queue<Customer>> entry : customersByName.tailMap(foldedPrefix).entrySet()) {
+            if (!entry.getKey().startsWith(foldedPrefix)) {
+                break;
+            }
+            for (Customer customer : entry.getValue()) {
+                if (customers.size() >= limit) {
+                    return customers;
+                }
+                customers.add(customer);
+            }
+        }
+        return customers;
     }
 
     /**
-     * Retrieves an existing customer or adds a new customer if none exists.
+     * Retrieves an existing customer or adds a new customer if none exists, as a single atomic step.
+     * Concurrent calls for the same name and date of birth all return the same customer.
      *
      * @param name the customer's name.
      * @param dob  the customer's date of birth.
      * @return the existing or newly added customer.
      */
     public Customer getCustomerOrAdd(String name, LocalDate dob) {
-        Customer existingCustomer = getCustomer(name, dob);
-        if (existingCustomer != null) {
-            return existingCustomer;
-        }
-        Customer newCustomer = new Customer(name, dob);
-        return addCustomer(newCustomer);
+        return register(name, dob, null).customer();
     }
 
     /**
-     * Retrieves a list of all registered customers.
+     * Retrieves a live, read-only view of all registered customers, in the order they were registered.
+     * Nothing is copied: iterating or streaming the view walks the registry, and customers registered
+     * meanwhile may or may not be seen.
      *
-     * @return a list of all customers.
+     * @return a view of all customers.
      */
+    public Collection<Customer> getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Retrieves a list of all registered customers, in the order they were registered.
+     *
+     * @return a new list holding every customer.
+     * @deprecated Copies every customer on each call; use {@link #getCustomers()}, which is a live view.
+     */
+    @Deprecated
     public List<Customer> getCustomerList() {
-        return customerRegistry.values().stream().collect(Collectors.toList());
+        return new ArrayList<>(customers);
     }
 
     /**
      * Displays all registered customers in a formatted table.
      */
     public void displayAllCustomers() {
-        List<Customer> customers = getCustomerList();
-
         if (customers.isEmpty()) {
             System.out.println(ConsoleColour.RED + "No customers are currently registered." + ConsoleColour.RESET);
             return;
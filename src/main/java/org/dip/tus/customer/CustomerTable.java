@@ -0,0 +1,100 @@
+package org.dip.tus.customer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A table of customers indexed by their integer ID. IDs are handed out densely from 1, so the table is an array of
+ * fixed-size chunks, found from the ID with a shift and a mask, instead of a map of boxed IDs.
+ * <p>
+ * Lookups take no lock. Storing a customer takes a lock only when it needs a new chunk, which replaces the chunk
+ * directory with a larger copy. A slot still being stored reads as empty.
+ */
+final class CustomerTable {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Customer[][] chunks = new Customer[0][];
+
+    /**
+     * Stores the customer with the given ID. Each ID is stored once.
+     *
+     * @param customerId The ID, at least 1.
+     * @param customer   The customer.
+     */
+    void set(int customerId, Customer customer) {
+        int chunk = customerId >>> CHUNK_BITS;
+        Customer[][] current = chunks;
+        if (chunk >= current.length || current[chunk] == null) {
+            current = addChunk(chunk);
+        }
+        current[chunk][customerId & CHUNK_MASK] = customer;
+    }
+
+    private synchronized Customer[][] addChunk(int chunk) {
+        Customer[][] current = chunks;
+        if (chunk < current.length && current[chunk] != null) {
+            return current;
+        }
+        Customer[][] grown = Arrays.copyOf(current, Math.max(chunk + 1, current.length * 2));
+        grown[chunk] = new Customer[CHUNK_SIZE];
+        chunks = grown;
+        return grown;
+    }
+
+    /**
+     * Retrieves the customer with the given ID.
+     *
+     * @param customerId The ID.
+     * @return The customer, or {@code null} if no customer is stored with that ID.
+     */
+    Customer get(int customerId) {
+        if (customerId < 0) {
+            return null;
+        }
+        Customer[][] current = chunks;
+        int chunk = customerId >>> CHUNK_BITS;
+        return chunk < current.length && current[chunk] != null ? current[chunk][customerId & CHUNK_MASK] : null;
+    }
+
+    /**
+     * Iterates over the customers stored with IDs from 1 up to and including the given ID, in ID order.
+     *
+     * @param lastCustomerId The last ID to visit.
+     * @return The iterator.
+     */
+    Iterator<Customer> iterator(int lastCustomerId) {
+        return new Iterator<>() {
+            private int customerId;
+            private Customer next = advance();
+
+            private Customer advance() {
+                while (customerId < lastCustomerId) {
+                    Customer customer = get(++customerId);
+                    if (customer != null) {
+                        return customer;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Customer next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Customer customer = next;
+                next = advance();
+                return customer;
+            }
+        };
+    }
+}
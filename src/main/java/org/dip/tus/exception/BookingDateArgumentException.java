@@ -2,16 +2,17 @@ package org.dip.tus.exception;
 
 /**
  * Exception thrown when invalid booking dates are provided.
+ * This reports a validation failure rather than a programming error, so no stack trace is captured.
  */
 
 public class BookingDateArgumentException extends Exception {
 
     public BookingDateArgumentException() {
-        super();
+        this(null);
     }
 
     public BookingDateArgumentException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
 
@@ -0,0 +1,206 @@
+package org.dip.tus.io;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.report.BookingType;
+import org.dip.tus.report.RevenueLedger;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming export of bookings and reports as plain CSV or JSON lines, without console colours.
+ * <p>
+ * Bookings are read one entity at a time from the entity's current booking snapshot. Archived bookings are
+ * recreated one at a time as they are written, and nothing is collected across entities, so memory use does not
+ * grow with the size of the dataset. Each row goes straight to the output; files are written through a 1 MB
+ * buffer in front of a {@link FileChannel}.
+ * <p>
+ * The booking export uses the {@link BookingRow} layout plus a trailing {@code bookingId}, so it can be read back
+ * with the {@link BookingImporter}.
+ */
+public final class BookingExporter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String[] BOOKING_COLUMNS =
+            {"type", "name", "dateOfBirth", "entityId", "start", "end", "detail", "bookingId"};
+    private static final String[] CUSTOMER_REPORT_COLUMNS =
+            {"name", "dateOfBirth", "type", "bookingId", "entityId", "start", "end", "cost"};
+    private static final String[] FINANCIAL_REPORT_COLUMNS = {"type", "bookings", "revenue"};
+
+    private final CustomerManager customerManager = CustomerManager.getInstance();
+    private final RoomManager roomManager = RoomManager.getInstance();
+    private final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private final RestaurantManager restaurantManager = RestaurantManager.getInstance();
+    private final RevenueLedger revenueLedger = RevenueLedger.getInstance();
+
+    /**
+     * A body of an export, writing to an open writer.
+     */
+    @FunctionalInterface
+    private interface Export {
+        long writeTo(Writer out, DataFormat format) throws IOException;
+    }
+
+    /**
+     * Exports every customer and then every room, parking and restaurant booking to a file, picking the format
+     * from the file extension. An existing file is replaced.
+     *
+     * @param file The file to write.
+     * @return The number of rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long exportBookings(Path file) throws IOException {
+        return export(file, this::exportBookings);
+    }
+
+    /**
+     * Exports every customer and then every room, parking and restaurant booking. Bookings are grouped by entity
+     * and ordered by start time within each entity. The writer is flushed but not closed.
+     *
+     * @param out    The writer to write to.
+     * @param format The format of the rows.
+     * @return The number of rows written.
+     * @throws IOException if the writer fails.
+     */
+    public long exportBookings(Writer out, DataFormat format) throws IOException {
+        RowWriter rows = new RowWriter(out, format, BOOKING_COLUMNS);
+        for (Customer customer : customerManager.getCustomers()) {
+            rows.string("CUSTOMER").string(customer.name()).string(customer.dateOfBirth().toString())
+                    .empty().empty().empty().empty().empty().endRow();
+        }
+        writeBookings(roomManager, rows);
+        writeBookings(parkingLotManager, rows);
+        writeBookings(restaurantManager, rows);
+        out.flush();
+        return rows.getRowCount();
+    }
+
+    /**
+     * Exports the customer booking report to a file, picking the format from the file extension.
+     *
+     * @param file The file to write.
+     * @return The number of rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long exportCustomerReport(Path file) throws IOException {
+        return export(file, this::exportCustomerReport);
+    }
+
+    /**
+     * Exports the customer booking report: one row per booking, grouped by customer, with the booking's cost.
+     * The writer is flushed but not closed.
+     *
+     * @param out    The writer to write to.
+     * @param format The format of the rows.
+     * @return The number of rows written.
+     * @throws IOException if the writer fails.
+     */
+    public long exportCustomerReport(Writer out, DataFormat format) throws IOException {
+        RowWriter rows = new RowWriter(out, format, CUSTOMER_REPORT_COLUMNS);
+        for (Customer customer : customerManager.getCustomers()) {
+            for (RoomBooking booking : roomManager.getAllBookingsForCustomer(customer)) {
+                writeReportRow(rows, customer, booking);
+            }
+            for (ParkingBooking booking : parkingLotManager.getAllBookingsForCustomer(customer)) {
+                writeReportRow(rows, customer, booking);
+            }
+            for (RestaurantBooking booking : restaurantManager.getAllBookingsForCustomer(customer)) {
+                writeReportRow(rows, customer, booking);
+            }
+        }
+        out.flush();
+        return rows.getRowCount();
+    }
+
+    /**
+     * Exports the financial report to a file, picking the format from the file extension.
+     *
+     * @param file The file to write.
+     * @return The number of rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long exportFinancialReport(Path file) throws IOException {
+        return export(file, this::exportFinancialReport);
+    }
+
+    /**
+     * Exports the financial report: the number of bookings and the revenue of each booking type, then the totals.
+     * Read from the running totals of the {@link RevenueLedger}. The writer is flushed but not closed.
+     *
+     * @param out    The writer to write to.
+     * @param format The format of the rows.
+     * @return The number of rows written.
+     * @throws IOException if the writer fails.
+     */
+    public long exportFinancialReport(Writer out, DataFormat format) throws IOException {
+        RowWriter rows = new RowWriter(out, format, FINANCIAL_REPORT_COLUMNS);
+        long bookings = 0;
+        for (BookingType bookingType : BookingType.values()) {
+            rows.string(bookingType.name()).number(revenueLedger.getBookingCount(bookingType))
+                    .amount(revenueLedger.getRevenue(bookingType)).endRow();
+            bookings += revenueLedger.getBookingCount(bookingType);
+        }
+        rows.string("TOTAL").number(bookings).amount(revenueLedger.getTotalRevenue()).endRow();
+        out.flush();
+        return rows.getRowCount();
+    }
+
+    private static long export(Path file, Export export) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+                     StandardCharsets.UTF_8), BUFFER_SIZE / 16)) {
+            return export.writeTo(out, DataFormat.forPath(file));
+        }
+    }
+
+    private static <E extends AbstractEntity<B>, B extends AbstractBooking> void writeBookings(
+            AbstractBookingManager<E, B> manager, RowWriter rows) throws IOException {
+        for (E entity : manager.getAllEntities()) {
+            for (B booking : entity.getAllBookings()) {
+                Customer customer = booking.getCustomer();
+                rows.string(BookingType.of(booking).name()).string(customer.name())
+                        .string(customer.dateOfBirth().toString()).string(booking.getEntityId())
+                        .string(EpochTime.toLocalDateTime(booking.getBookingStartEpochSecond()).toString())
+                        .string(EpochTime.toLocalDateTime(booking.getBookingEndEpochSecond()).toString());
+                switch (booking) {
+                    case RoomBooking roomBooking -> rows.amount(FixedPoint.toFixedPoint(roomBooking.getCost()));
+                    case ParkingBooking parkingBooking -> rows.string(parkingBooking.getRegistration());
+                    case RestaurantBooking restaurantBooking -> rows.number(restaurantBooking.getNumberOfPeople());
+                    default -> rows.empty();
+                }
+                rows.number(booking.getBookingId()).endRow();
+            }
+        }
+    }
+
+    private static void writeReportRow(RowWriter rows, Customer customer, AbstractBooking booking) throws IOException {
+        rows.string(customer.name()).string(customer.dateOfBirth().toString()).string(BookingType.of(booking).name())
+                .string(booking.generateBookingID()).string(booking.getEntityId())
+                .string(EpochTime.toLocalDateTime(booking.getBookingStartEpochSecond()).toString())
+                .string(EpochTime.toLocalDateTime(booking.getBookingEndEpochSecond()).toString())
+                .amount(FixedPoint.toFixedPoint(booking.getCost()))
+                .endRow();
+    }
+}
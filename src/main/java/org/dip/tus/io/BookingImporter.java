@@ -0,0 +1,363 @@
+package org.dip.tus.io;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.BatchCommitMode;
+import org.dip.tus.core.BookingResult;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.parking.ParkingSpot;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.restaurant.Table;
+import org.dip.tus.room.Room;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming bulk import of customers and bookings from CSV or JSON lines, in the layout described by
+ * {@link BookingRow}. Each row must be on a single line.
+ * <p>
+ * The calling thread reads the input through a large buffer and cuts it into chunks of lines. Chunks are parsed
+ * in parallel on a pool of worker threads, which look up each row's customer once per chunk but do not register
+ * anyone. The calling thread then commits the parsed chunks in input order, one bulk
+ * {@link AbstractBookingManager#addBookingsToEntities} call per manager, so every entity is locked once per chunk
+ * rather than once per booking. Customers are registered with the {@link CustomerManager} as their rows are
+ * committed, so a rejected row adds no customer and {@link ImportReport#getCustomersAdded()} counts only the
+ * customers of committed rows. Only a bounded number of chunks are in
+ * flight at a time, so memory stays flat however large the input is.
+ * <p>
+ * Rows are imported as history: unlike the interactive booking flows, bookings in the past are accepted.
+ * A row that cannot be parsed, names an unknown entity or clashes with another booking is rejected and reported
+ * without stopping the import.
+ */
+public final class BookingImporter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int DEFAULT_CHUNK_ROWS = 8_192;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final CustomerManager customerManager = CustomerManager.getInstance();
+    private final RoomManager roomManager = RoomManager.getInstance();
+    private final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private final RestaurantManager restaurantManager = RestaurantManager.getInstance();
+    private final int parallelism;
+    private final int chunkRows;
+
+    /**
+     * Constructs an importer that parses on one thread per available processor.
+     */
+    public BookingImporter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Constructs an importer.
+     *
+     * @param parallelism The number of threads parsing chunks.
+     * @param chunkRows   The number of lines in each chunk.
+     * @throws IllegalArgumentException if either value is not positive.
+     */
+    public BookingImporter(int parallelism, int chunkRows) {
+        if (parallelism <= 0 || chunkRows <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Imports a file, picking its format from the file extension.
+     *
+     * @param file The file to import.
+     * @return The import report.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImportReport importFrom(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return importFrom(reader, DataFormat.forPath(file));
+        }
+    }
+
+    /**
+     * Imports rows from a reader. The reader is not closed.
+     *
+     * @param reader The reader to import from.
+     * @param format The format of the rows.
+     * @return The import report.
+     * @throws IOException if the reader fails.
+     */
+    public ImportReport importFrom(Reader reader, DataFormat format) throws IOException {
+        long startNanos = System.nanoTime();
+        int customersBefore = customerManager.getCustomerCount();
+        BufferedReader in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, BUFFER_SIZE);
+        Progress progress = new Progress();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "booking-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            int[] columns = null;
+            List<String> lines = new ArrayList<>(chunkRows);
+            long lineNumber = 0;
+            long firstLine = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (format == DataFormat.CSV && columns == null) {
+                    boolean header = BookingRow.isCsvHeader(line);
+                    columns = header ? BookingRow.columnsFromHeader(line)
+                            : BookingRow.defaultColumns(BookingRow.FIELD_NAMES.length);
+                    if (header) {
+                        firstLine = lineNumber + 1;
+                        continue;
+                    }
+                }
+                lines.add(line);
+                if (lines.size() == chunkRows) {
+                    submit(parsers, inFlight, lines, firstLine, format, columns, progress);
+                    lines = new ArrayList<>(chunkRows);
+                    firstLine = lineNumber + 1;
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(parsers, inFlight, lines, firstLine, format, columns, progress);
+            }
+            while (!inFlight.isEmpty()) {
+                commit(await(inFlight.poll()), progress);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            parsers.shutdownNow();
+        }
+        return new ImportReport(progress.rowsRead, progress.bookingsAdded,
+                customerManager.getCustomerCount() - customersBefore, progress.rejectedCount,
+                progress.rejectedRows, System.nanoTime() - startNanos);
+    }
+
+    private void submit(ExecutorService parsers, Deque<Future<ParsedChunk>> inFlight, List<String> lines,
+                        long firstLine, DataFormat format, int[] columns, Progress progress) throws IOException {
+        inFlight.add(parsers.submit(() -> parseChunk(lines, firstLine, format, columns)));
+        // Let the parsers run ahead of the commits, but no further than a couple of chunks each
+        while (inFlight.size() > 2 * parallelism) {
+            commit(await(inFlight.poll()), progress);
+        }
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ParsedChunk parseChunk(List<String> lines, long firstLine, DataFormat format, int[] columns) {
+        ParsedChunk chunk = new ParsedChunk(firstLine, lines.size());
+        for (int offset = 0; offset < lines.size(); offset++) {
+            String line = lines.get(offset);
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.rows++;
+            try {
+                String[] fields = format == DataFormat.CSV
+                        ? BookingRow.splitCsv(line, columns)
+                        : BookingRow.parseJson(line);
+                parseRow(fields, offset, chunk);
+            } catch (DateTimeParseException e) {
+                chunk.reject(offset, "Invalid date or time '" + e.getParsedString() + "'");
+            } catch (BookingDateArgumentException | IllegalArgumentException e) {
+                chunk.reject(offset, e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private void parseRow(String[] fields, int offset, ParsedChunk chunk) throws BookingDateArgumentException {
+        String type = require(fields, BookingRow.TYPE).toUpperCase(Locale.ROOT);
+        if (type.equals("CUSTOMER")) {
+            chunk.customerRows.add(customer(fields, chunk));
+            return;
+        }
+        String entityId = require(fields, BookingRow.ENTITY_ID);
+        LocalDateTime start = BookingRow.parseDateTime(require(fields, BookingRow.START));
+        LocalDateTime end = BookingRow.parseDateTime(require(fields, BookingRow.END));
+        String detail = fields[BookingRow.DETAIL];
+        switch (type) {
+            case "ROOM" -> {
+                Room room = roomManager.findEntityById(entityId);
+                if (room == null) {
+                    throw new IllegalArgumentException("Unknown room " + entityId);
+                }
+                double cost = detail == null ? roomManager.calculateCostForDates(room, start, end) : Double.parseDouble(detail);
+                chunk.rooms.add(new RoomBooking(customer(fields, chunk), room, start, end, cost), offset);
+            }
+            case "PARKING" -> {
+                ParkingSpot parkingSpot = parkingLotManager.findEntityById(entityId);
+                if (parkingSpot == null) {
+                    throw new IllegalArgumentException("Unknown parking spot " + entityId);
+                }
+                String registration = require(fields, BookingRow.DETAIL);
+                chunk.parking.add(new ParkingBooking(customer(fields, chunk), start, end, registration, parkingSpot), offset);
+            }
+            case "RESTAURANT" -> {
+                Table table = restaurantManager.findEntityById(entityId);
+                if (table == null) {
+                    throw new IllegalArgumentException("Unknown table " + entityId);
+                }
+                int numberOfPeople = Integer.parseInt(require(fields, BookingRow.DETAIL));
+                if (numberOfPeople < 1 || numberOfPeople > table.getNumberofSeats()) {
+                    throw new IllegalArgumentException("Table " + entityId + " cannot seat " + numberOfPeople);
+                }
+                chunk.restaurant.add(new RestaurantBooking(customer(fields, chunk), start, end, table, numberOfPeople), offset);
+            }
+            default -> throw new IllegalArgumentException("Unknown row type '" + fields[BookingRow.TYPE] + "'");
+        }
+    }
+
+    private Customer customer(String[] fields, ParsedChunk chunk) {
+        String name = require(fields, BookingRow.NAME);
+        String dateOfBirth = require(fields, BookingRow.DATE_OF_BIRTH);
+        // Exports list a customer's bookings together, so most rows repeat a customer already seen in the chunk
+        return chunk.customers.computeIfAbsent(name + '|' + dateOfBirth, key -> {
+            LocalDate dob = BookingRow.parseDate(dateOfBirth);
+            Customer registered = customerManager.getCustomer(name, dob);
+            return registered != null ? registered : new Customer(name, dob);
+        });
+    }
+
+    private static String require(String[] fields, int field) {
+        String value = fields[field];
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + BookingRow.FIELD_NAMES[field]);
+        }
+        return value;
+    }
+
+    private void commit(ParsedChunk chunk, Progress progress) {
+        chunk.customerRows.forEach(customerManager::addCustomer);
+        commit(roomManager, chunk.rooms, chunk);
+        commit(parkingLotManager, chunk.parking, chunk);
+        commit(restaurantManager, chunk.restaurant, chunk);
+        progress.rowsRead += chunk.rows;
+        progress.bookingsAdded += chunk.bookingsAdded;
+        progress.rejectedCount += chunk.rejectedCount;
+        chunk.rejections.sort(Comparator.comparingLong(ImportReport.RejectedRow::lineNumber));
+        for (ImportReport.RejectedRow row : chunk.rejections) {
+            if (progress.rejectedRows.size() == MAX_REPORTED_REJECTIONS) {
+                break;
+            }
+            progress.rejectedRows.add(row);
+        }
+    }
+
+    private static <B extends AbstractBooking> void commit(AbstractBookingManager<?, B> manager,
+                                                           PendingBookings<B> pending, ParsedChunk chunk) {
+        if (pending.bookings.isEmpty()) {
+            return;
+        }
+        BookingResult[] results = manager.addBookingsToEntities(pending.bookings, BatchCommitMode.PER_ITEM);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == BookingResult.ADDED) {
+                chunk.bookingsAdded++;
+            } else {
+                chunk.reject(pending.offsets[i], "Booking on " + pending.bookings.get(i).getEntityId()
+                        + " rejected: " + results[i]);
+            }
+        }
+    }
+
+    /**
+     * Running totals over the chunks committed so far. Only touched by the importing thread.
+     */
+    private static final class Progress {
+        private long rowsRead;
+        private long bookingsAdded;
+        private long rejectedCount;
+        private final List<ImportReport.RejectedRow> rejectedRows = new ArrayList<>();
+    }
+
+    /**
+     * The bookings parsed from a chunk for one manager, with the offset of the line each came from.
+     */
+    private static final class PendingBookings<B extends AbstractBooking> {
+        private final List<B> bookings = new ArrayList<>();
+        private final int[] offsets;
+
+        private PendingBookings(int capacity) {
+            offsets = new int[capacity];
+        }
+
+        private void add(B booking, int offset) {
+            offsets[bookings.size()] = offset;
+            bookings.add(booking);
+        }
+    }
+
+    /**
+     * The outcome of parsing one chunk of lines, handed from a parsing thread to the importing thread.
+     */
+    private static final class ParsedChunk {
+        private final long firstLine;
+        private final PendingBookings<RoomBooking> rooms;
+        private final PendingBookings<ParkingBooking> parking;
+        private final PendingBookings<RestaurantBooking> restaurant;
+        private final List<ImportReport.RejectedRow> rejections = new ArrayList<>();
+        private final Map<String, Customer> customers = new HashMap<>();
+        private final List<Customer> customerRows = new ArrayList<>();
+        private int rows;
+        private int bookingsAdded;
+        private int rejectedCount;
+
+        private ParsedChunk(long firstLine, int lineCount) {
+            this.firstLine = firstLine;
+            this.rooms = new PendingBookings<>(lineCount);
+            this.parking = new PendingBookings<>(lineCount);
+            this.restaurant = new PendingBookings<>(lineCount);
+        }
+
+        private void reject(int offset, String reason) {
+            rejectedCount++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new ImportReport.RejectedRow(firstLine + offset, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.dip.tus.io;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * File formats supported for bulk import and export of customers and bookings.
+ */
+public enum DataFormat {
+    CSV,
+    JSON_LINES;
+
+    /**
+     * Picks the format from a file's extension: {@code .jsonl}, {@code .ndjson} and {@code .json} are read as
+     * JSON lines, anything else as CSV.
+     *
+     * @param file The file.
+     * @return The format of the file.
+     */
+    public static DataFormat forPath(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSON_LINES;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,100 @@
+package org.dip.tus.io;
+
+import org.dip.tus.menu.ConsoleColour;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read, what they added, which rows were rejected and how fast the
+ * import ran. Only the first rejections are kept in detail, but every rejection is counted.
+ */
+public final class ImportReport {
+
+    /**
+     * A row that was not imported.
+     *
+     * @param lineNumber The line the row was read from, counting from 1.
+     * @param reason     Why the row was rejected.
+     */
+    public record RejectedRow(long lineNumber, String reason) {
+    }
+
+    private final long rowsRead;
+    private final long bookingsAdded;
+    private final long customersAdded;
+    private final long rejectedCount;
+    private final List<RejectedRow> rejectedRows;
+    private final long elapsedNanos;
+
+    ImportReport(long rowsRead, long bookingsAdded, long customersAdded, long rejectedCount,
+                 List<RejectedRow> rejectedRows, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.bookingsAdded = bookingsAdded;
+        this.customersAdded = customersAdded;
+        this.rejectedCount = rejectedCount;
+        this.rejectedRows = List.copyOf(rejectedRows);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getBookingsAdded() {
+        return bookingsAdded;
+    }
+
+    public long getCustomersAdded() {
+        return customersAdded;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Retrieves the rejected rows kept in detail, in line order.
+     *
+     * @return The first rejected rows.
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates the import throughput.
+     *
+     * @return The number of rows read per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Displays the report in a formatted table, followed by the rejected rows kept in detail.
+     */
+    public void display() {
+        System.out.println(ConsoleColour.BLUE + "+---------------------------------------------+");
+        System.out.println("|                Import Report                |");
+        System.out.println("+---------------------------------------------+" + ConsoleColour.RESET);
+        System.out.printf(ConsoleColour.CYAN + "| %-25s | %15d |\n", "Rows Read", rowsRead);
+        System.out.printf("| %-25s | %15d |\n", "Bookings Added", bookingsAdded);
+        System.out.printf("| %-25s | %15d |\n", "Customers Added", customersAdded);
+        System.out.printf("| %-25s | %15d |\n", "Rows Rejected", rejectedCount);
+        System.out.printf("| %-25s | %15.3f |\n", "Elapsed Seconds", elapsedNanos / 1_000_000_000.0);
+        System.out.printf("| %-25s | %15.0f |\n" + ConsoleColour.RESET, "Rows per Second", getRowsPerSecond());
+        System.out.println(ConsoleColour.BLUE + "+---------------------------------------------+" + ConsoleColour.RESET);
+
+        for (RejectedRow row : rejectedRows) {
+            System.out.println(ConsoleColour.RED + "Line " + row.lineNumber() + ": " + row.reason() + ConsoleColour.RESET);
+        }
+        if (rejectedCount > rejectedRows.size()) {
+            System.out.println(ConsoleColour.RED + "... and " + (rejectedCount - rejectedRows.size())
+                    + " more rejected rows." + ConsoleColour.RESET);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.dip.tus.io;
+
+import org.dip.tus.util.FixedPoint;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows of plain CSV or JSON lines, one field at a time, straight to a {@link Writer}. Rows are never built
+ * up in memory first. Strings are quoted or escaped as the format needs; numbers and amounts are written bare.
+ */
+final class RowWriter {
+
+    private final Writer out;
+    private final DataFormat format;
+    private final String[] columns;
+    private int column;
+    private long rowCount;
+
+    /**
+     * Constructs a row writer and, for CSV, writes the header line.
+     *
+     * @param out     The writer to write to.
+     * @param format  The format of the rows.
+     * @param columns The column names, in the order fields are written.
+     * @throws IOException if the header cannot be written.
+     */
+    RowWriter(Writer out, DataFormat format, String... columns) throws IOException {
+        this.out = out;
+        this.format = format;
+        this.columns = columns;
+        if (format == DataFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(columns[i]);
+            }
+            out.write('\n');
+        }
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    RowWriter string(String value) throws IOException {
+        if (value == null) {
+            return empty();
+        }
+        startField();
+        if (format == DataFormat.CSV) {
+            writeCsv(value);
+        } else {
+            writeJson(value);
+        }
+        return this;
+    }
+
+    RowWriter number(long value) throws IOException {
+        startField();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a fixed-point amount with two decimal places.
+     */
+    RowWriter amount(long fixedPoint) throws IOException {
+        startField();
+        out.write(FixedPoint.format(fixedPoint));
+        return this;
+    }
+
+    /**
+     * Writes an empty CSV field, or a JSON {@code null}.
+     */
+    RowWriter empty() throws IOException {
+        startField();
+        if (format == DataFormat.JSON_LINES) {
+            out.write("null");
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current row.
+     *
+     * @throws IllegalStateException if fewer fields were written than there are columns.
+     */
+    void endRow() throws IOException {
+        if (column != columns.length) {
+            throw new IllegalStateException("Row has " + column + " fields, expected " + columns.length);
+        }
+        out.write(format == DataFormat.JSON_LINES ? "}\n" : "\n");
+        column = 0;
+        rowCount++;
+    }
+
+    private void startField() throws IOException {
+        if (column == columns.length) {
+            throw new IllegalStateException("Row already has " + columns.length + " fields");
+        }
+        if (format == DataFormat.JSON_LINES) {
+            out.write(column == 0 ? "{\"" : ",\"");
+            out.write(columns[column]);
+            out.write("\":");
+        } else if (column > 0) {
+            out.write(',');
+        }
+        column++;
+    }
+
+    private void writeCsv(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeJson(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.write(value, start, i - start);
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> out.write(String.format("\\u%04x", (int) c));
+                }
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
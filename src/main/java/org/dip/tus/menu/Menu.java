@@ -1,10 +1,11 @@
 package org.dip.tus.menu;
 
-import org.dip.tus.customer.Customer;
 import org.dip.tus.customer.CustomerManager;
 import org.dip.tus.parking.ParkingLotManager;
 import org.dip.tus.room.RoomManager;
 import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.service.ExportService;
+import org.dip.tus.service.ImportService;
 import org.dip.tus.service.ParkingService;
 import org.dip.tus.service.ReportService;
 import org.dip.tus.service.RestaurantService;
@@ -29,6 +30,8 @@ public class Menu {
     private static final RestaurantService restaurantService = RestaurantService.getInstance();
     private static final ParkingService parkingService = ParkingService.getInstance();
     private static final ReportService reportService = ReportService.getInstance();
+    private static final ImportService importService = ImportService.getInstance();
+    private static final ExportService exportService = ExportService.getInstance();
 
     /**
      * Displays the main menu and handles user input for navigating the application.
@@ -48,7 +51,9 @@ public class Menu {
                 case 3 -> displaySubMenu("Parking Spot", parkingSubMenuHandler());
                 case 4 -> viewAllCustomers();
                 case 5 -> displayReportMenu();
-                case 6 -> {
+                case 6 -> importService.handleImport();
+                case 7 -> exportService.handleExport();
+                case 8 -> {
                     System.out.println("Exiting system...");
                     menuLoop = false;
                 }
@@ -77,8 +82,10 @@ public class Menu {
         System.out.println("3) Parking Reservation");
         System.out.println("4) View All Customer Records");
         System.out.println("5) Generate Reports");
-        System.out.println("6) Quit");
-        System.out.print("Select an option [1-6]: ");
+        System.out.println("6) Import Bookings From File");
+        System.out.println("7) Export Bookings and Reports To File");
+        System.out.println("8) Quit");
+        System.out.print("Select an option [1-8]: ");
     }
 
     /**
@@ -93,14 +100,17 @@ public class Menu {
             System.out.println("2) Customer Booking Report per Customer");
             System.out.println("3) Booking Summary Report");
             System.out.println("4) Financial Report");
-            System.out.println("5) Back to Main Menu");
+            System.out.println("5) Financial Report for Date Range");
+            System.out.println("6) Occupancy Report for Date Range");
+            System.out.println("7) Cache Statistics");
+            System.out.println("8) Back to Main Menu");
             System.out.println("----------------------------------------------------");
-            System.out.print("Select an option [1-5]: ");
+            System.out.print("Select an option [1-8]: ");
 
             int reportChoice = getInput();
 
             switch (reportChoice) {
-                case 1 -> reportService.generateCustomerBookingReport(customerManager.getCustomerList().toArray(new Customer[0]));
+                case 1 -> reportService.generateAllCustomersBookingReport();
                 case 2 -> reportService.generateCustomerBookingReport(
                         customerManager.getCustomer(
                                 InputHelper.parseString("Enter customer name: "),
@@ -109,7 +119,16 @@ public class Menu {
                 );
                 case 3 -> reportService.generateBookingSummaryReport();
                 case 4 -> reportService.generateFinancialReport();
-                case 5 -> reportMenuLoop = false;
+                case 5 -> reportService.generateFinancialReport(
+                        InputHelper.parseDate("Enter first day (YYYY-MM-DD): "),
+                        InputHelper.parseDate("Enter last day (YYYY-MM-DD): ")
+                );
+                case 6 -> reportService.generateOccupancyReport(
+                        InputHelper.parseDate("Enter first day (YYYY-MM-DD): "),
+                        InputHelper.parseDate("Enter last day (YYYY-MM-DD): ")
+                );
+                case 7 -> reportService.displayCacheStatistics();
+                case 8 -> reportMenuLoop = false;
                 default -> System.out.println("Invalid option. Please try again.");
             }
         }
@@ -2,9 +2,12 @@ package org.dip.tus.parking;
 
 import org.dip.tus.customer.Customer;
 import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.BookingStore;
 import org.dip.tus.exception.BookingDateArgumentException;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.util.FixedPoint;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 /**
@@ -12,9 +15,13 @@ import java.time.LocalDateTime;
  */
 public final class ParkingBooking extends AbstractBooking {
 
+    /**
+     * The longest registration that fits in an archived booking record.
+     */
+    public static final int MAX_REGISTRATION_BYTES = BookingStore.TAG_BYTES;
+
     private String registration;
     private ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
-    private String parkingBookingID;
     private ParkingSpot parkingSpot;
     private double cost;
 
@@ -24,38 +31,60 @@ public final class ParkingBooking extends AbstractBooking {
      * @param customer       The customer making the booking.
      * @param startDateTime  The start date and time of the booking.
      * @param endDateTime    The end date and time of the booking.
-     * @param registration   The vehicle's registration number.
+     * @param registration   The vehicle's registration number, at most {@value #MAX_REGISTRATION_BYTES} bytes of UTF-8.
      * @param parkingSpot    The parking spot assigned to the booking.
      * @throws BookingDateArgumentException if the start date is not before the end date.
+     * @throws IllegalArgumentException if the registration is too long to archive.
      */
     public ParkingBooking(Customer customer, LocalDateTime startDateTime,
                           LocalDateTime endDateTime, String registration, ParkingSpot parkingSpot)
             throws BookingDateArgumentException {
         super(customer, startDateTime, endDateTime);
+        if (!isValidRegistration(registration)) {
+            throw new IllegalArgumentException("Vehicle registration must be 1 to " + MAX_REGISTRATION_BYTES
+                    + " bytes: " + registration);
+        }
         this.registration = registration;
-        this.parkingBookingID = generateBookingID();
         this.parkingSpot = parkingSpot;
         this.cost = calculateCost();
     }
 
     private double calculateCost() {
-        return getParkingSpot().calculateCost(getBookingDateTimeStart(), getBookingDateTimeEnd());
+        return FixedPoint.toDouble(ParkingSpot.quote(getBookingStartEpochSecond(), getBookingEndEpochSecond()));
     }
 
+    @Override
     public double getCost() {
         return cost;
     }
 
+    /**
+     * Checks whether a vehicle registration can be booked: not blank and short enough to archive.
+     *
+     * @param registration The registration.
+     * @return {@code true} if the registration is valid.
+     */
+    public static boolean isValidRegistration(String registration) {
+        return registration != null && !registration.isBlank()
+                && registration.getBytes(StandardCharsets.UTF_8).length <= MAX_REGISTRATION_BYTES;
+    }
+
+    public String getRegistration() {
+        return registration;
+    }
+
     public ParkingSpot getParkingSpot() {
         return parkingSpot;
     }
 
+    @Override
+    public String getEntityId() {
+        return parkingSpot.getId();
+    }
+
     @Override
     public String generateBookingID() {
-        return new StringBuilder()
-                .append("P")
-                .append(getCustomer().hashCode() + getBookingDateTimeStart().hashCode())
-                .toString();
+        return formatBookingId("P");
     }
 
     @Override
@@ -74,7 +103,7 @@ public final class ParkingBooking extends AbstractBooking {
                 parkingSpot.getId(),
                 getBookingDateTimeStart(),
                 getBookingDateTimeEnd(),
-                parkingBookingID,
+                generateBookingID(),
                 getCost()
         );
     }
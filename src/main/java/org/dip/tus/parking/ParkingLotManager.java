@@ -1,17 +1,21 @@
 package org.dip.tus.parking;
 
 import org.dip.tus.core.AbstractBookingManager;
-import org.dip.tus.customer.Customer;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.report.OccupancyLedger;
+import org.dip.tus.report.RevenueLedger;
+import org.dip.tus.util.FixedPoint;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.IntStream;
 
 /**
  * Singleton class Manages parking spots and their associated bookings. Provides functionality to add, retrieve, and display parking
- * spots and their availability.
+ * spots and their availability. Availability queries are answered by the manager's slot index, with spots grouped
+ * by section so free spots per section are counted from per-slot totals.
  */
 public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, ParkingBooking> {
 
@@ -26,6 +30,8 @@ public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, Parki
     }
 
     private ParkingLotManager() {
+        addBookingListener(RevenueLedger.getInstance().listener());
+        addBookingListener(OccupancyLedger.getInstance().listener());
         initialiseParkingLot();
     }
 
@@ -41,16 +47,24 @@ public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, Parki
                 );
     }
 
+    /**
+     * Groups parking spots by section, section A being group 0.
+     *
+     * @param parkingSpot The parking spot.
+     * @return The spot's group.
+     */
+    @Override
+    protected int groupOf(ParkingSpot parkingSpot) {
+        return parkingSpot.getSection() - 'A';
+    }
+
     /**
      * Retrieves the first currently available parking spot.
      * @return A parking spot that is not currently occupied or null if none are available.
      */
     public ParkingSpot getCurrentAvailableParkingSpot() {
-        return entities
-                .stream()
-                .filter(p -> !p.isOccupied(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        return findFirstAvailableBetween(now, now.plusSeconds(1));
     }
 
     /**
@@ -61,11 +75,31 @@ public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, Parki
      * @return A parking spot that does not have conflicting bookings, or null if none are available.
      */
     public ParkingSpot getAvailableParkingSpotForDateTime(LocalDateTime start, LocalDateTime end) {
-        return entities
-                .stream()
-                .filter(p -> !p.doesBookingClash(start, end))
-                .findFirst()
-                .orElse(null);
+        return findFirstAvailableBetween(start, end);
+    }
+
+    /**
+     * Counts the parking spots in each section that are not occupied right now.
+     *
+     * @return The number of free spots per section, ordered by section.
+     */
+    public Map<Character, Integer> getCurrentFreeSpotCountBySection() {
+        return getFreeSpotCountBySection(LocalDateTime.now());
+    }
+
+    /**
+     * Counts the parking spots in each section that are not occupied at the given time.
+     *
+     * @param time The time.
+     * @return The number of free spots per section, ordered by section.
+     */
+    public Map<Character, Integer> getFreeSpotCountBySection(LocalDateTime time) {
+        int[] free = countAvailableByGroup(time);
+        Map<Character, Integer> counts = new TreeMap<>();
+        for (int group = 0; group < free.length; group++) {
+            counts.put((char) ('A' + group), free[group]);
+        }
+        return counts;
     }
 
      /**
@@ -94,7 +128,7 @@ public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, Parki
             System.out.printf(color + "| %-8c | %-13d | %-22d |\n" + ConsoleColour.RESET,
                     parkingSpot.getSection(),
                     parkingSpot.getSpotNumber(),
-                    parkingSpot.getAllBookings().size());
+                    parkingSpot.getBookingCount());
         }
         System.out.println(ConsoleColour.BLUE + "+---------------------------------------------------+" + ConsoleColour.RESET);
     }
@@ -106,22 +140,7 @@ public class ParkingLotManager extends AbstractBookingManager<ParkingSpot, Parki
      * @return The total cost of the parking booking.
      */
     public double calculateCostForBooking(ParkingBooking parkingBooking) {
-        ParkingSpot parkingSpot = parkingBooking.getParkingSpot();
-        return parkingSpot.calculateCost(parkingBooking.getBookingDateTimeStart(), parkingBooking.getBookingDateTimeEnd());
-    }
-
-    /**
-     * Retrieves all bookings made by a specific customer across all parking spots.
-     *
-     * @param customer The customer whose bookings are to be retrieved.
-     * @return A list of parking bookings made by the specified customer.
-     */
-    @Override
-    public List<ParkingBooking> getAllBookingsForCustomer(Customer customer) {
-        return getAllEntities()
-                .stream()
-                .flatMap(room -> room.getAllBookings().stream())
-                .filter(booking -> booking.getCustomer().equals(customer))
-                .collect(Collectors.toList());
+        return FixedPoint.toDouble(ParkingSpot.quote(parkingBooking.getBookingStartEpochSecond(),
+                parkingBooking.getBookingEndEpochSecond()));
     }
 }
@@ -1,11 +1,15 @@
 package org.dip.tus.parking;
 
 import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingStore;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.Objects;
-import java.util.PriorityQueue;
 
 /**
  * Represents a parking spot in a parking lot. Each spot belongs to a specific section and has a unique spot number.
@@ -15,8 +19,8 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
 
     private char section;
     private int spotNumber;
-    private final double costPerHour = 5.0;
-    private final double costPerDay = 25;
+    private static final long COST_PER_HOUR = FixedPoint.toFixedPoint(5.0);
+    private static final long COST_PER_DAY = FixedPoint.toFixedPoint(25);
 
     /**
      * Constructs a parking spot with a specified section and spot number.
@@ -26,6 +30,7 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
      * @throws IllegalArgumentException If the section or spot number is invalid.
      */
     public ParkingSpot(char section, int spotNumber) {
+        super(Duration.ofHours(1));
         if (section >= 'A' && section <= 'D') {
             this.section = section;
         } else {
@@ -36,7 +41,6 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
         } else {
             throw new IllegalArgumentException("Invalid Parking Spot Number");
         }
-        this.bookings = new PriorityQueue<>(Comparator.comparing(ParkingBooking::getBookingDateTimeStart));
     }
 
     /**
@@ -48,11 +52,23 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
      * @return The calculated cost based on the booking duration.
      */
     public double calculateCost(LocalDateTime start, LocalDateTime end) {
-        long hours = java.time.Duration.between(start, end).toHours();
+        return FixedPoint.toDouble(quote(EpochTime.toEpochSecond(start), EpochTime.toEpochSecond(end)));
+    }
+
+    /**
+     * Calculates the cost of parking in any spot for the given period, as {@link #calculateCost} does.
+     * Charges €5 per whole hour, or €25 per whole day from five hours on.
+     *
+     * @param startEpochSecond The start of the period, in seconds from the epoch.
+     * @param endEpochSecond   The end of the period, in seconds from the epoch.
+     * @return The cost in fixed point.
+     */
+    public static long quote(long startEpochSecond, long endEpochSecond) {
+        long hours = (endEpochSecond - startEpochSecond) / 3_600;
         if (hours >= 5) {
-            return costPerDay * (hours / 24);
+            return COST_PER_DAY * (hours / 24);
         }
-        return costPerHour * hours;
+        return COST_PER_HOUR * hours;
     }
 
     @Override
@@ -61,20 +77,18 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
     }
 
     /**
-     * Checks if the new booking clashes with any existing bookings.
-     *
-     * @param newBooking The new booking to check for clashes.
-     * @return {@code true} if there is a clash; {@code false} otherwise.
+     * Archives the vehicle registration in the record's tag.
      */
     @Override
-    public boolean doesBookingClash(ParkingBooking newBooking) {
-        if (bookings.isEmpty()) {
-            return false;
-        }
-        return bookings
-                .stream()
-                .anyMatch(b -> newBooking.getBookingDateTimeStart().isBefore(b.getBookingDateTimeEnd()) &&
-                        newBooking.getBookingDateTimeEnd().isAfter(b.getBookingDateTimeStart()));
+    protected long writeArchived(BookingStore store, ParkingBooking booking) throws IOException {
+        return store.append(booking, 0, booking.getRegistration());
+    }
+
+    @Override
+    protected ParkingBooking readArchived(BookingStore store, long record) throws BookingDateArgumentException {
+        return new ParkingBooking(store.getCustomer(record),
+                EpochTime.toLocalDateTime(store.getStartEpochSecond(record)),
+                EpochTime.toLocalDateTime(store.getEndEpochSecond(record)), store.getTag(record), this);
     }
 
     @Override
@@ -82,7 +96,7 @@ public class ParkingSpot extends AbstractEntity<ParkingBooking> {
         return "ParkingSpot{" +
                 "section=" + section +
                 ", spotNumber=" + spotNumber +
-                ", totalBookings=" + bookings.size() +
+                ", totalBookings=" + getBookingCount() +
                 '}';
     }
 
@@ -0,0 +1,266 @@
+package org.dip.tus.persistence;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.parking.ParkingSpot;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.restaurant.Table;
+import org.dip.tus.room.Room;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Compact binary encoding of customers and bookings for the journal and checkpoints.
+ * <p>
+ * A customer is its name (UTF-8, length-prefixed) and date of birth as an epoch day. A booking starts with a
+ * one-byte kind ({@code R}oom, {@code P}arking or {@code T}able), then its ID, start and end epoch seconds,
+ * customer and entity ID, followed by the fields only that kind has. Values derived from other fields, such as
+ * parking and restaurant costs, are recomputed on decode rather than stored.
+ * <p>
+ * A booking that ended before the archive cutoff passed to {@link #restoreBooking(ByteBuffer, long)} is decoded
+ * field by field straight into its manager's archive store, so history is loaded without creating booking objects.
+ */
+public final class BookingCodec {
+
+    private static final byte ROOM = 'R';
+    private static final byte PARKING = 'P';
+    private static final byte TABLE = 'T';
+
+    private BookingCodec() {
+    }
+
+    /**
+     * Encodes a customer on its own.
+     *
+     * @param customer The customer.
+     * @return A buffer holding the encoded customer, ready to read.
+     */
+    public static ByteBuffer encodeCustomer(Customer customer) {
+        byte[] name = customer.name().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(customerSize(name));
+        putCustomer(buffer, name, customer.dateOfBirth());
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a customer and registers it with the {@link CustomerManager}, returning the registered instance.
+     *
+     * @param buffer The buffer, positioned at an encoded customer.
+     * @return The registered customer.
+     * @throws IOException if the encoding is malformed.
+     */
+    public static Customer decodeCustomer(ByteBuffer buffer) throws IOException {
+        try {
+            String name = getString(buffer);
+            LocalDate dateOfBirth = LocalDate.ofEpochDay(buffer.getLong());
+            return CustomerManager.getInstance().getCustomerOrAdd(name, dateOfBirth);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw corrupt("Malformed customer", e);
+        }
+    }
+
+    /**
+     * Encodes a booking with everything needed to rebuild it.
+     *
+     * @param booking The booking.
+     * @return A buffer holding the encoded booking, ready to read.
+     * @throws IllegalArgumentException if the booking is of an unknown kind.
+     */
+    public static ByteBuffer encodeBooking(AbstractBooking booking) {
+        byte[] name = booking.getCustomer().name().getBytes(StandardCharsets.UTF_8);
+        byte[] entityId = booking.getEntityId().getBytes(StandardCharsets.UTF_8);
+        byte[] registration = booking instanceof ParkingBooking parkingBooking
+                ? parkingBooking.getRegistration().getBytes(StandardCharsets.UTF_8) : null;
+        int size = Byte.BYTES + 3 * Long.BYTES + customerSize(name) + Short.BYTES + entityId.length
+                + switch (booking) {
+                    case RoomBooking roomBooking -> Double.BYTES;
+                    case ParkingBooking parkingBooking -> Short.BYTES + registration.length;
+                    case RestaurantBooking restaurantBooking -> Integer.BYTES;
+                    default -> throw new IllegalArgumentException("Unknown booking type " + booking.getClass());
+                };
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(kindOf(booking));
+        buffer.putLong(booking.getBookingId());
+        buffer.putLong(booking.getBookingStartEpochSecond());
+        buffer.putLong(booking.getBookingEndEpochSecond());
+        putCustomer(buffer, name, booking.getCustomer().dateOfBirth());
+        putBytes(buffer, entityId);
+        switch (booking) {
+            case RoomBooking roomBooking -> buffer.putDouble(roomBooking.getCost());
+            case ParkingBooking parkingBooking -> putBytes(buffer, registration);
+            case RestaurantBooking restaurantBooking -> buffer.putInt(restaurantBooking.getNumberOfPeople());
+            default -> throw new IllegalArgumentException("Unknown booking type " + booking.getClass());
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes just enough of a booking to find it again: its kind and ID.
+     *
+     * @param booking The booking.
+     * @return A buffer holding the encoded reference, ready to read.
+     */
+    public static ByteBuffer encodeBookingReference(AbstractBooking booking) {
+        return ByteBuffer.allocate(Byte.BYTES + Long.BYTES)
+                .put(kindOf(booking))
+                .putLong(booking.getBookingId())
+                .flip();
+    }
+
+    /**
+     * Decodes a booking and commits it to its manager under its original ID. A booking that is already
+     * registered is left alone.
+     *
+     * @param buffer The buffer, positioned at an encoded booking.
+     * @throws IOException if the encoding is malformed or refers to an unknown entity.
+     */
+    public static void restoreBooking(ByteBuffer buffer) throws IOException {
+        restoreBooking(buffer, Long.MIN_VALUE);
+    }
+
+    /**
+     * Decodes a booking and restores it to its manager under its original ID. A booking that ended at or before
+     * the cutoff goes straight into the manager's archive store; any other is recreated and committed. A booking
+     * that is already registered is left alone.
+     *
+     * @param buffer        The buffer, positioned at an encoded booking.
+     * @param archiveCutoff The cutoff in epoch seconds, usually the time the state is loaded.
+     * @throws IOException if the encoding is malformed, refers to an unknown entity, or the archive store cannot
+     *                     grow.
+     */
+    public static void restoreBooking(ByteBuffer buffer, long archiveCutoff) throws IOException {
+        try {
+            byte kind = buffer.get();
+            long bookingId = buffer.getLong();
+            long startEpochSecond = buffer.getLong();
+            long endEpochSecond = buffer.getLong();
+            Customer customer = decodeCustomer(buffer);
+            String entityId = getString(buffer);
+            boolean archived = endEpochSecond <= archiveCutoff;
+            LocalDateTime start = archived ? null : EpochTime.toLocalDateTime(startEpochSecond);
+            LocalDateTime end = archived ? null : EpochTime.toLocalDateTime(endEpochSecond);
+            switch (kind) {
+                case ROOM -> {
+                    RoomManager manager = RoomManager.getInstance();
+                    Room room = requireEntity(manager.findEntityById(entityId), entityId);
+                    double cost = buffer.getDouble();
+                    if (archived) {
+                        manager.restoreArchivedBooking(entityId, bookingId, startEpochSecond, endEpochSecond,
+                                FixedPoint.toFixedPoint(cost), customer, 0, null);
+                    } else {
+                        manager.restoreBooking(new RoomBooking(customer, room, start, end, cost), bookingId);
+                    }
+                }
+                case PARKING -> {
+                    ParkingLotManager manager = ParkingLotManager.getInstance();
+                    ParkingSpot parkingSpot = requireEntity(manager.findEntityById(entityId), entityId);
+                    String registration = getString(buffer);
+                    if (archived) {
+                        manager.restoreArchivedBooking(entityId, bookingId, startEpochSecond, endEpochSecond,
+                                ParkingSpot.quote(startEpochSecond, endEpochSecond), customer, 0, registration);
+                    } else {
+                        manager.restoreBooking(new ParkingBooking(customer, start, end, registration, parkingSpot), bookingId);
+                    }
+                }
+                case TABLE -> {
+                    RestaurantManager manager = RestaurantManager.getInstance();
+                    Table table = requireEntity(manager.findEntityById(entityId), entityId);
+                    int numberOfPeople = buffer.getInt();
+                    if (archived) {
+                        MealEnum mealType = MealEnum.startingAt(
+                                (int) (Math.floorMod(startEpochSecond, EpochTime.SECONDS_PER_DAY) / 3_600));
+                        manager.restoreArchivedBooking(entityId, bookingId, startEpochSecond, endEpochSecond,
+                                RestaurantBooking.quote(mealType, numberOfPeople), customer, numberOfPeople, null);
+                    } else {
+                        manager.restoreBooking(new RestaurantBooking(customer, start, end, table, numberOfPeople), bookingId);
+                    }
+                }
+                default -> throw corrupt("Unknown booking kind " + kind, null);
+            }
+        } catch (BufferUnderflowException | BookingDateArgumentException | IllegalArgumentException e) {
+            throw corrupt("Malformed booking", e);
+        }
+    }
+
+    /**
+     * Decodes a booking reference and removes that booking from its manager, if it is still held.
+     *
+     * @param buffer The buffer, positioned at an encoded booking reference.
+     * @throws IOException if the encoding is malformed.
+     */
+    public static void removeBooking(ByteBuffer buffer) throws IOException {
+        try {
+            byte kind = buffer.get();
+            long bookingId = buffer.getLong();
+            switch (kind) {
+                case ROOM -> RoomManager.getInstance().removeBookingById(bookingId);
+                case PARKING -> ParkingLotManager.getInstance().removeBookingById(bookingId);
+                case TABLE -> RestaurantManager.getInstance().removeBookingById(bookingId);
+                default -> throw corrupt("Unknown booking kind " + kind, null);
+            }
+        } catch (BufferUnderflowException e) {
+            throw corrupt("Malformed booking reference", e);
+        }
+    }
+
+    private static byte kindOf(AbstractBooking booking) {
+        return switch (booking) {
+            case RoomBooking roomBooking -> ROOM;
+            case ParkingBooking parkingBooking -> PARKING;
+            case RestaurantBooking restaurantBooking -> TABLE;
+            default -> throw new IllegalArgumentException("Unknown booking type " + booking.getClass());
+        };
+    }
+
+    private static <T> T requireEntity(T entity, String entityId) throws IOException {
+        if (entity == null) {
+            throw corrupt("Unknown entity " + entityId, null);
+        }
+        return entity;
+    }
+
+    private static int customerSize(byte[] name) {
+        return Short.BYTES + name.length + Long.BYTES;
+    }
+
+    private static void putCustomer(ByteBuffer buffer, byte[] name, LocalDate dateOfBirth) {
+        putBytes(buffer, name);
+        buffer.putLong(dateOfBirth.toEpochDay());
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Value too long to encode");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static IOException corrupt(String message, Exception cause) {
+        StreamCorruptedException exception = new StreamCorruptedException(message);
+        exception.initCause(cause);
+        return exception;
+    }
+}
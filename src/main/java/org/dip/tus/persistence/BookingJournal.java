@@ -0,0 +1,437 @@
+package org.dip.tus.persistence;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of booking and customer mutations.
+ * <p>
+ * Each record is framed as {@code [int length][byte type][payload][int crc32]}, where the length covers the type
+ * and payload and the checksum is taken over the same bytes. Appending threads hand their encoded record to a
+ * single flusher thread and then wait for it to become durable. The flusher writes everything queued since its
+ * last flush with one gathering write and one {@link FileChannel#force} call, so concurrent commits share an
+ * fsync instead of paying for one each (group commit).
+ * <p>
+ * When the journal is opened, every intact record is replayed in order. A torn or corrupt record at the end of
+ * the file, left by a crash mid-write, is discarded and the file is truncated to the last intact record. Replay
+ * maps the file a window of {@value #REPLAY_WINDOW_BYTES} bytes at a time, so segments of any size can be read.
+ * <p>
+ * The journal can be {@link #roll rolled} over to a new segment file, so that segments covered by a checkpoint
+ * can be deleted. Records appended before the roll stay in the old segment, and everything after goes to the
+ * new one.
+ */
+public final class BookingJournal implements AutoCloseable {
+
+    /**
+     * The number of bytes mapped at a time while replaying; a larger record gets a window of its own.
+     */
+    static final long REPLAY_WINDOW_BYTES = 1 << 26;
+
+    private static final int FRAME_OVERHEAD = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+    /**
+     * Receives the records read back when a journal is opened.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Applies one recovered record.
+         *
+         * @param type    The record type.
+         * @param payload The record payload, positioned at its first byte.
+         * @throws IOException if the payload cannot be applied.
+         */
+        void handle(JournalRecordType type, ByteBuffer payload) throws IOException;
+    }
+
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasPending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private FileChannel nextChannel;
+    private long rollAfterSequence;
+
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long appendedSequence;
+    private long durableSequence;
+    private long flushCount;
+    private IOException failure;
+    private boolean closed;
+
+    private BookingJournal(FileChannel channel, int maxBatchSize) {
+        this.channel = channel;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = new Thread(this::flushLoop, "booking-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens a journal for appending, first replaying every intact record already in it.
+     *
+     * @param file         The journal file. It is created if it does not exist.
+     * @param maxBatchSize The most records written per fsync.
+     * @param handler      Receives each recovered record, in the order it was written.
+     * @return The open journal, positioned after the last intact record.
+     * @throws IOException if the file cannot be read or opened, or the handler fails.
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    public static BookingJournal open(Path file, int maxBatchSize, RecordHandler handler) throws IOException {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        long validLength = Files.exists(file) ? replay(file, handler) : 0;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new BookingJournal(channel, maxBatchSize);
+    }
+
+    /**
+     * Replays every intact record in a journal file without opening it for writing.
+     *
+     * @param file    The journal file.
+     * @param handler Receives each record, in the order it was written.
+     * @return The length in bytes of the intact prefix of the file.
+     * @throws IOException if the file cannot be read or the handler fails.
+     */
+    public static long replay(Path file, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readRecords(channel, 0, REPLAY_WINDOW_BYTES, handler);
+        }
+    }
+
+    /**
+     * Reads framed records from a channel, mapping at most one window of the file at a time, until the end of the
+     * file or the first torn or corrupt record. A record too large for the window is mapped on its own.
+     *
+     * @param channel     The channel to read.
+     * @param offset      The position of the first record.
+     * @param windowBytes The most bytes to map at a time.
+     * @param handler     Receives each intact record.
+     * @return The position just after the last intact record.
+     * @throws IOException if the channel cannot be read or the handler fails.
+     */
+    static long readRecords(FileChannel channel, long offset, long windowBytes, RecordHandler handler)
+            throws IOException {
+        long size = channel.size();
+        long position = offset;
+        while (size - position >= FRAME_OVERHEAD) {
+            long window = Math.min(Math.max(windowBytes, FRAME_OVERHEAD), size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            int read = readRecords(buffer, handler);
+            if (read == 0) {
+                // The first record is either corrupt or larger than the window
+                long frameBytes = Integer.BYTES + (long) buffer.getInt(0) + Integer.BYTES;
+                if (frameBytes < FRAME_OVERHEAD || frameBytes <= window || frameBytes > size - position
+                        || frameBytes > Integer.MAX_VALUE) {
+                    return position;
+                }
+                read = readRecords(channel.map(FileChannel.MapMode.READ_ONLY, position, frameBytes), handler);
+                if (read == 0) {
+                    return position;
+                }
+            }
+            position += read;
+        }
+        return position;
+    }
+
+    /**
+     * Reads framed records from the buffer's position until its limit or the first torn or corrupt record.
+     *
+     * @param buffer  The buffer holding the records.
+     * @param handler Receives each intact record.
+     * @return The position just after the last intact record.
+     * @throws IOException if the handler fails.
+     */
+    static int readRecords(ByteBuffer buffer, RecordHandler handler) throws IOException {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= FRAME_OVERHEAD) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < Byte.BYTES || length > buffer.remaining() - Integer.BYTES) {
+                return start;
+            }
+            ByteBuffer body = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            buffer.position(buffer.position() + length);
+            JournalRecordType type = JournalRecordType.fromCode(body.get());
+            if ((int) crc.getValue() != buffer.getInt() || type == null) {
+                return start;
+            }
+            handler.handle(type, body);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Appends a record and waits until it, and everything appended before it, is durable.
+     *
+     * @param type    The record type.
+     * @param payload The record payload, from its position to its limit.
+     * @throws IOException if the journal has failed or been closed, or the wait is interrupted.
+     */
+    public void commit(JournalRecordType type, ByteBuffer payload) throws IOException {
+        awaitDurable(append(type, payload));
+    }
+
+    /**
+     * Queues a record for the next flush without waiting for it.
+     *
+     * @param type    The record type.
+     * @param payload The record payload, from its position to its limit.
+     * @return The record's sequence number, to pass to {@link #awaitDurable(long)}.
+     * @throws IOException if the journal has failed or been closed.
+     */
+    public long append(JournalRecordType type, ByteBuffer payload) throws IOException {
+        ByteBuffer frame = frame(type, payload);
+        lock.lock();
+        try {
+            checkUsable();
+            pending.add(frame);
+            hasPending.signal();
+            return ++appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the record with the given sequence number has been forced to disk.
+     *
+     * @param sequence The sequence number returned by {@link #append}.
+     * @throws IOException if the flush failed or the wait is interrupted.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for journal flush");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Switches appends over to a new segment file. Records already appended are written to the current segment,
+     * which is then forced and closed; this returns once the switch has happened.
+     *
+     * @param file The new segment file. An existing file is truncated.
+     * @throws IOException if the file cannot be opened, the journal has failed or been closed, or the wait is
+     *                     interrupted.
+     */
+    public void roll(Path file) throws IOException {
+        FileChannel next = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        lock.lock();
+        try {
+            checkUsable();
+            if (nextChannel != null) {
+                throw new IllegalStateException("Journal is already rolling");
+            }
+            nextChannel = next;
+            rollAfterSequence = appendedSequence;
+            hasPending.signal();
+            while (nextChannel == next) {
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for journal roll");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of fsyncs performed so far; with {@link #getDurableCount()} this gives the average
+     * group size.
+     *
+     * @return The number of flushes.
+     */
+    public long getFlushCount() {
+        lock.lock();
+        try {
+            return flushCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of records made durable so far.
+     *
+     * @return The number of durable records.
+     */
+    public long getDurableCount() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes every queued record, stops the flusher thread and closes the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            hasPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (nextChannel != null) {
+            nextChannel.close();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer[] batch = null;
+            FileChannel rolledOver = null;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed && !rollDue()) {
+                    hasPending.awaitUninterruptibly();
+                }
+                if (rollDue()) {
+                    rolledOver = channel;
+                    channel = nextChannel;
+                    nextChannel = null;
+                    flushed.signalAll();
+                } else if (pending.isEmpty()) {
+                    flushed.signalAll();
+                    return;
+                } else {
+                    int limit = maxBatchSize;
+                    if (nextChannel != null) {
+                        // Records appended after a roll was requested belong in the next segment
+                        limit = (int) Math.min(limit, rollAfterSequence - durableSequence);
+                    }
+                    List<ByteBuffer> taken = pending.subList(0, Math.min(pending.size(), limit));
+                    batch = taken.toArray(ByteBuffer[]::new);
+                    taken.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (rolledOver != null) {
+                try {
+                    rolledOver.close();
+                } catch (IOException e) {
+                    // Everything in the old segment is already forced to disk
+                }
+                continue;
+            }
+
+            IOException error = null;
+            try {
+                write(batch);
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSequence += batch.length;
+                    flushCount++;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    private boolean rollDue() {
+        return nextChannel != null && durableSequence == rollAfterSequence;
+    }
+
+    private void write(ByteBuffer[] batch) throws IOException {
+        int first = 0;
+        while (first < batch.length) {
+            channel.write(batch, first, batch.length - first);
+            while (first < batch.length && !batch[first].hasRemaining()) {
+                first++;
+            }
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal write failed", failure);
+        }
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+    }
+
+    /**
+     * Frames a record for writing to a journal or checkpoint.
+     *
+     * @param type    The record type.
+     * @param payload The record payload, from its position to its limit.
+     * @return The framed record, ready to write.
+     */
+    static ByteBuffer frame(JournalRecordType type, ByteBuffer payload) {
+        int length = Byte.BYTES + payload.remaining();
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        frame.putInt(length);
+        frame.put((byte) type.ordinal());
+        frame.put(payload.duplicate());
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), Integer.BYTES, length);
+        frame.putInt((int) crc.getValue());
+        return frame.flip();
+    }
+}
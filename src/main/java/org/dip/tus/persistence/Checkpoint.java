@@ -0,0 +1,145 @@
+package org.dip.tus.persistence;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomManager;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Binary image of every customer and booking, used to start up without replaying the whole journal.
+ * <p>
+ * The file is a header followed by the same framed records the journal uses: one {@code CUSTOMER_ADDED} per
+ * customer, one {@code BOOKING_ADDED} per booking, and a final {@code CHECKPOINT_END} holding the record count.
+ * A file without that final record is incomplete and is rejected.
+ * <p>
+ * Writing streams each entity's immutable booking snapshot through a fixed-size buffer, so bookings keep being
+ * committed while a checkpoint is written. Reading maps the file a window at a time, as journal replay does.
+ */
+public final class Checkpoint {
+
+    private static final int MAGIC = 0x48424350;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private Checkpoint() {
+    }
+
+    /**
+     * Writes a checkpoint of the current customers and bookings and forces it to disk.
+     *
+     * @param file The file to write. An existing file is truncated.
+     * @return The number of customer and booking records written.
+     * @throws IOException if the file cannot be written.
+     */
+    public static long write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(channel);
+            writer.buffer.putInt(MAGIC).putInt(VERSION);
+            for (Customer customer : CustomerManager.getInstance().getCustomers()) {
+                writer.append(JournalRecordType.CUSTOMER_ADDED, BookingCodec.encodeCustomer(customer));
+            }
+            for (AbstractBookingManager<?, ?> manager : List.of(RoomManager.getInstance(),
+                    ParkingLotManager.getInstance(), RestaurantManager.getInstance())) {
+                for (AbstractEntity<?> entity : manager.getAllEntities()) {
+                    for (AbstractBooking booking : entity.getAllBookings()) {
+                        writer.append(JournalRecordType.BOOKING_ADDED, BookingCodec.encodeBooking(booking));
+                    }
+                }
+            }
+            long records = writer.records;
+            writer.append(JournalRecordType.CHECKPOINT_END, ByteBuffer.allocate(Long.BYTES).putLong(records).flip());
+            writer.drain();
+            channel.force(true);
+            return records;
+        }
+    }
+
+    /**
+     * Reads a checkpoint, passing every customer and booking record to the handler in the order written.
+     *
+     * @param file    The checkpoint file.
+     * @param handler Receives each record.
+     * @return The number of customer and booking records read.
+     * @throws IOException if the file cannot be read, is not a complete checkpoint, or the handler fails.
+     */
+    public static long load(Path file, BookingJournal.RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.size() >= HEADER_BYTES) {
+                while (header.hasRemaining()) {
+                    channel.read(header);
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new StreamCorruptedException("Not a checkpoint: " + file);
+            }
+            long[] counts = {0, -1};
+            BookingJournal.readRecords(channel, HEADER_BYTES, BookingJournal.REPLAY_WINDOW_BYTES, (type, payload) -> {
+                if (type == JournalRecordType.CHECKPOINT_END) {
+                    counts[1] = payload.getLong();
+                } else if (counts[1] < 0) {
+                    counts[0]++;
+                    handler.handle(type, payload);
+                }
+            });
+            if (counts[1] != counts[0]) {
+                throw new StreamCorruptedException("Incomplete checkpoint: " + file);
+            }
+            return counts[0];
+        }
+    }
+
+    /**
+     * Streams framed records to a channel through a fixed-size buffer.
+     */
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long records;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void append(JournalRecordType type, ByteBuffer payload) throws IOException {
+            ByteBuffer frame = BookingJournal.frame(type, payload);
+            if (frame.remaining() > buffer.remaining()) {
+                drain();
+            }
+            if (frame.remaining() > buffer.remaining()) {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } else {
+                buffer.put(frame);
+            }
+            if (type != JournalRecordType.CHECKPOINT_END) {
+                records++;
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
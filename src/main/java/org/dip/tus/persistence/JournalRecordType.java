@@ -0,0 +1,24 @@
+package org.dip.tus.persistence;
+
+/**
+ * The kinds of mutation recorded in the {@link BookingJournal}. The ordinal is written to the log, so new
+ * constants must only ever be appended.
+ */
+public enum JournalRecordType {
+    CUSTOMER_ADDED,
+    BOOKING_ADDED,
+    BOOKING_REMOVED,
+    CHECKPOINT_END;
+
+    private static final JournalRecordType[] VALUES = values();
+
+    /**
+     * Looks up a record type by the code written to the log.
+     *
+     * @param code The code read from the log.
+     * @return The record type, or {@code null} if the code is unknown.
+     */
+    public static JournalRecordType fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+}
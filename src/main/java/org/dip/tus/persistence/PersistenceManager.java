@@ -0,0 +1,282 @@
+package org.dip.tus.persistence;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingListener;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.EpochTime;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Makes the state of the booking managers and the {@link CustomerManager} durable.
+ * <p>
+ * The data directory holds numbered journal segments ({@code journal-N.log}) and checkpoints
+ * ({@code checkpoint-N.bin}). Checkpoint N captures everything in the segments before N, and possibly some of
+ * segment N itself. Replaying a record that the checkpoint already reflects has no effect, because booking IDs
+ * are never reused.
+ * <p>
+ * Opening it loads the latest checkpoint and replays only the segments from that checkpoint on. Bookings that
+ * have already ended are loaded straight into their manager's archive store as records, so only current and
+ * future bookings are recreated as objects. It then
+ * subscribes to every manager so that each added customer, committed booking and removed booking is appended to
+ * the journal. A call that commits or removes bookings waits for them to become durable once, after it has
+ * released the entity locks, so a bulk insert shares fsyncs and no other thread is blocked on one. Customers are
+ * not waited for on their own; they are appended before any booking that refers to them, so that booking's wait
+ * covers them. If appending or waiting fails, the manager rolls the call's bookings back before the failure
+ * reaches the caller, so a booking the journal could not make durable is never left visible.
+ * A {@link #checkpoint()} rolls the journal to a new segment,
+ * writes a checkpoint for it, and deletes the segments and checkpoints it supersedes.
+ */
+public final class PersistenceManager implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".bin";
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final Path directory;
+    private final BookingJournal journal;
+    private final List<Runnable> subscriptions = new ArrayList<>();
+    private final ThreadLocal<long[]> pendingSequence = ThreadLocal.withInitial(() -> new long[1]);
+    private long segment;
+    private ScheduledExecutorService scheduler;
+
+    private PersistenceManager(Path directory, BookingJournal journal, long segment) {
+        this.directory = directory;
+        this.journal = journal;
+        this.segment = segment;
+    }
+
+    /**
+     * Restores state from the latest checkpoint and journal tail in the given directory, and starts journaling
+     * further changes to it.
+     *
+     * @param directory The data directory. It is created if it does not exist.
+     * @return The open persistence manager.
+     * @throws IOException if the checkpoint or journal cannot be read, or the journal cannot be opened.
+     */
+    public static PersistenceManager open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        NavigableMap<Long, Path> checkpoints = listNumbered(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        NavigableMap<Long, Path> segments = listNumbered(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+
+        // Bookings that have already ended are loaded straight into the archive stores
+        long archiveCutoff = EpochTime.toEpochSecond(LocalDateTime.now());
+        BookingJournal.RecordHandler handler = (type, payload) -> apply(type, payload, archiveCutoff);
+        long base = 0;
+        if (!checkpoints.isEmpty()) {
+            base = checkpoints.lastKey();
+            Checkpoint.load(checkpoints.lastEntry().getValue(), handler);
+        }
+        NavigableMap<Long, Path> tail = segments.tailMap(base, true);
+        long current = tail.isEmpty() ? base : tail.lastKey();
+        for (Path file : tail.headMap(current, false).values()) {
+            BookingJournal.replay(file, handler);
+        }
+        BookingJournal journal = BookingJournal.open(segmentPath(directory, current), MAX_BATCH_SIZE, handler);
+
+        PersistenceManager persistenceManager = new PersistenceManager(directory, journal, current);
+        persistenceManager.deleteSupersededFiles(base);
+        persistenceManager.subscribe();
+        return persistenceManager;
+    }
+
+    /**
+     * Writes a checkpoint of the current state and deletes the journal segments it covers. Bookings can keep
+     * being committed while the checkpoint is written.
+     *
+     * @throws IOException if the journal cannot be rolled or the checkpoint cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        long next = segment + 1;
+        journal.roll(segmentPath(directory, next));
+        segment = next;
+
+        Path target = directory.resolve(CHECKPOINT_PREFIX + next + CHECKPOINT_SUFFIX);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Checkpoint.write(temporary);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteSupersededFiles(next);
+    }
+
+    /**
+     * Starts writing a checkpoint periodically on a background daemon thread.
+     *
+     * @param interval The time between checkpoints.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public synchronized void scheduleCheckpoints(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.out.println(ConsoleColour.RED + "Checkpoint failed: " + e.getMessage() + ConsoleColour.RESET);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void apply(JournalRecordType type, ByteBuffer payload, long archiveCutoff) throws IOException {
+        switch (type) {
+            case CUSTOMER_ADDED -> BookingCodec.decodeCustomer(payload);
+            case BOOKING_ADDED -> BookingCodec.restoreBooking(payload, archiveCutoff);
+            case BOOKING_REMOVED -> BookingCodec.removeBooking(payload);
+            case CHECKPOINT_END -> { }
+        }
+    }
+
+    private void subscribe() {
+        Consumer<Customer> customerListener =
+                customer -> append(JournalRecordType.CUSTOMER_ADDED, BookingCodec.encodeCustomer(customer));
+        CustomerManager.getInstance().addCustomerListener(customerListener);
+        subscriptions.add(() -> CustomerManager.getInstance().removeCustomerListener(customerListener));
+        subscribe(RoomManager.getInstance());
+        subscribe(ParkingLotManager.getInstance());
+        subscribe(RestaurantManager.getInstance());
+    }
+
+    private <E extends AbstractEntity<B>, B extends AbstractBooking> void subscribe(AbstractBookingManager<E, B> manager) {
+        BookingListener<E, B> listener = new BookingListener<>() {
+            @Override
+            public void bookingAdded(E entity, B booking) {
+                append(JournalRecordType.BOOKING_ADDED, BookingCodec.encodeBooking(booking));
+            }
+
+            @Override
+            public void bookingRemoved(E entity, B booking) {
+                append(JournalRecordType.BOOKING_REMOVED, BookingCodec.encodeBookingReference(booking));
+            }
+
+            @Override
+            public void changesCompleted() {
+                awaitAppended();
+            }
+        };
+        manager.addBookingListener(listener);
+        subscriptions.add(() -> manager.removeBookingListener(listener));
+    }
+
+    private void append(JournalRecordType type, ByteBuffer payload) {
+        try {
+            pendingSequence.get()[0] = journal.append(type, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void awaitAppended() {
+        long[] pending = pendingSequence.get();
+        if (pending[0] == 0) {
+            return;
+        }
+        try {
+            journal.awaitDurable(pending[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pending[0] = 0;
+        }
+    }
+
+    /**
+     * Deletes every segment and checkpoint numbered below {@code base}, and any checkpoint left half-written.
+     */
+    private void deleteSupersededFiles(long base) throws IOException {
+        for (Path file : listNumbered(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(base, false).values()) {
+            Files.deleteIfExists(file);
+        }
+        for (Path file : listNumbered(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX).headMap(base, false).values()) {
+            Files.deleteIfExists(file);
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, CHECKPOINT_PREFIX + "*.tmp")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private static NavigableMap<Long, Path> listNumbered(Path directory, String prefix, String suffix) throws IOException {
+        NavigableMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Stops periodic checkpoints, writes a final checkpoint so the next start-up has no journal to replay, and
+     * closes the journal. Changes made afterwards are no longer recorded.
+     *
+     * @throws IOException if the final checkpoint cannot be written or the journal cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = scheduler;
+            scheduler = null;
+        }
+        if (stopping != null) {
+            stopping.shutdown();
+            try {
+                stopping.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                checkpoint();
+            } finally {
+                subscriptions.forEach(Runnable::run);
+                subscriptions.clear();
+                journal.close();
+            }
+        }
+    }
+}
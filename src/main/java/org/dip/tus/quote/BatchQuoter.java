@@ -0,0 +1,137 @@
+package org.dip.tus.quote;
+
+import org.dip.tus.parking.ParkingSpot;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.room.RateCalendar;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.EpochTime;
+
+import java.util.stream.IntStream;
+
+/**
+ * Prices many candidate stays in one call, for example every room type across a month of arrival dates.
+ * <p>
+ * Stays are given as parallel arrays of start and end times in seconds from the epoch, and prices come back as a
+ * {@link QuoteMatrix} of fixed-point amounts, one row per thing priced and one column per stay. Each row is priced
+ * by a tight loop over primitive arrays, with everything that does not change along the row (the rate calendar,
+ * the meal rates) read once. Matrices of more than {@value #PARALLEL_CELLS} prices are split into runs of
+ * {@value #COLUMNS_PER_TASK} columns and priced in parallel.
+ * <p>
+ * Prices are the same as those of {@link RoomManager#calculateCostForDates}, {@link ParkingSpot#calculateCost} and
+ * {@link RestaurantBooking#calculateCost()}. Room prices come from the rate calendar current when the call starts.
+ */
+public final class BatchQuoter {
+
+    private static final int PARALLEL_CELLS = 1 << 16;
+    private static final int COLUMNS_PER_TASK = 4_096;
+
+    private final RoomManager roomManager = RoomManager.getInstance();
+
+    /**
+     * Prices a run of one row's columns into the matrix.
+     */
+    @FunctionalInterface
+    private interface RowPricer {
+        void price(int row, int fromColumn, int toColumn);
+    }
+
+    /**
+     * Prices stays in each of the given room types.
+     *
+     * @param roomTypes         The room types, one row each.
+     * @param startEpochSeconds The start of each stay, one column each.
+     * @param endEpochSeconds   The end of each stay.
+     * @return The price of each stay in each room type.
+     * @throws IllegalArgumentException if the start and end arrays differ in length.
+     */
+    public QuoteMatrix quoteRooms(RoomType[] roomTypes, long[] startEpochSeconds, long[] endEpochSeconds) {
+        requireSameLength(startEpochSeconds, endEpochSeconds);
+        RateCalendar calendar = roomManager.getRateCalendar();
+        long[] fromDays = toEpochDays(startEpochSeconds);
+        long[] toDays = toEpochDays(endEpochSeconds);
+        int columns = startEpochSeconds.length;
+        long[] prices = new long[Math.multiplyExact(roomTypes.length, columns)];
+        priceRows(roomTypes.length, columns, (row, from, to) ->
+                calendar.price(roomTypes[row], fromDays, toDays, from, to, prices, row * columns + from));
+        return new QuoteMatrix(roomTypes.length, columns, prices);
+    }
+
+    /**
+     * Prices parking for each period. Every spot charges the same, so the matrix has a single row.
+     *
+     * @param startEpochSeconds The start of each period, one column each.
+     * @param endEpochSeconds   The end of each period.
+     * @return The price of each period.
+     * @throws IllegalArgumentException if the start and end arrays differ in length.
+     */
+    public QuoteMatrix quoteParking(long[] startEpochSeconds, long[] endEpochSeconds) {
+        requireSameLength(startEpochSeconds, endEpochSeconds);
+        long[] prices = new long[startEpochSeconds.length];
+        priceRows(1, prices.length, (row, from, to) -> {
+            for (int i = from; i < to; i++) {
+                prices[i] = ParkingSpot.quote(startEpochSeconds[i], endEpochSeconds[i]);
+            }
+        });
+        return new QuoteMatrix(1, prices.length, prices);
+    }
+
+    /**
+     * Prices a meal for each party size at each sitting. The meal, and so the rate, follows from the start time.
+     *
+     * @param partySizes        The number of people, one row each.
+     * @param startEpochSeconds The start of each sitting, one column each.
+     * @return The price of each party at each sitting.
+     */
+    public QuoteMatrix quoteRestaurant(int[] partySizes, long[] startEpochSeconds) {
+        int columns = startEpochSeconds.length;
+        long[] coverPrices = new long[columns];
+        for (int i = 0; i < columns; i++) {
+            int hour = (int) (Math.floorMod(startEpochSeconds[i], EpochTime.SECONDS_PER_DAY) / 3_600);
+            coverPrices[i] = RestaurantBooking.quote(MealEnum.startingAt(hour), 1);
+        }
+        long[] prices = new long[Math.multiplyExact(partySizes.length, columns)];
+        priceRows(partySizes.length, columns, (row, from, to) -> {
+            long people = partySizes[row];
+            int offset = row * columns;
+            for (int i = from; i < to; i++) {
+                prices[offset + i] = coverPrices[i] * people;
+            }
+        });
+        return new QuoteMatrix(partySizes.length, columns, prices);
+    }
+
+    /**
+     * Runs the pricer over every row, splitting rows into runs of columns priced in parallel when the matrix is
+     * large enough to be worth it.
+     */
+    private static void priceRows(int rows, int columns, RowPricer pricer) {
+        if ((long) rows * columns < PARALLEL_CELLS) {
+            for (int row = 0; row < rows; row++) {
+                pricer.price(row, 0, columns);
+            }
+            return;
+        }
+        int runsPerRow = (columns + COLUMNS_PER_TASK - 1) / COLUMNS_PER_TASK;
+        IntStream.range(0, rows * runsPerRow).parallel().forEach(task -> {
+            int row = task / runsPerRow;
+            int from = (task % runsPerRow) * COLUMNS_PER_TASK;
+            pricer.price(row, from, Math.min(from + COLUMNS_PER_TASK, columns));
+        });
+    }
+
+    private static long[] toEpochDays(long[] epochSeconds) {
+        long[] days = new long[epochSeconds.length];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = EpochTime.toEpochDay(epochSeconds[i]);
+        }
+        return days;
+    }
+
+    private static void requireSameLength(long[] starts, long[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Got " + starts.length + " start times but " + ends.length + " end times");
+        }
+    }
+}
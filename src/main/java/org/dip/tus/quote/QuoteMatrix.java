@@ -0,0 +1,78 @@
+package org.dip.tus.quote;
+
+import org.dip.tus.util.FixedPoint;
+
+/**
+ * Prices from a batch quote, laid out as a row-major matrix of fixed-point amounts in a single {@code long[]}.
+ * Rows are the things being priced and columns the stays or sittings they were priced for.
+ */
+public final class QuoteMatrix {
+
+    private final int rowCount;
+    private final int columnCount;
+    private final long[] prices;
+
+    QuoteMatrix(int rowCount, int columnCount, long[] prices) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.prices = prices;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Retrieves one price.
+     *
+     * @param row    The row.
+     * @param column The column.
+     * @return The price in fixed point.
+     * @throws IndexOutOfBoundsException if the row or column is outside the matrix.
+     */
+    public long getPrice(int row, int column) {
+        return prices[index(row, column)];
+    }
+
+    /**
+     * Retrieves one price as a monetary amount.
+     *
+     * @param row    The row.
+     * @param column The column.
+     * @return The price.
+     * @throws IndexOutOfBoundsException if the row or column is outside the matrix.
+     */
+    public double getCost(int row, int column) {
+        return FixedPoint.toDouble(getPrice(row, column));
+    }
+
+    /**
+     * Copies one row of prices into an array.
+     *
+     * @param row         The row.
+     * @param destination The array to copy into, from index 0.
+     */
+    public void copyRow(int row, long[] destination) {
+        System.arraycopy(prices, index(row, 0), destination, 0, columnCount);
+    }
+
+    /**
+     * Copies every price, row by row.
+     *
+     * @return A new array of {@code getRowCount() * getColumnCount()} fixed-point prices.
+     */
+    public long[] toArray() {
+        return prices.clone();
+    }
+
+    private int index(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("No price at row " + row + ", column " + column);
+        }
+        return row * columnCount + column;
+    }
+}
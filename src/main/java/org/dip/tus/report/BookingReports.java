@@ -0,0 +1,224 @@
+package org.dip.tus.report;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.FixedPoint;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes the booking reports, one part after another on the calling thread. {@link ParallelReportEngine} writes
+ * the same reports, byte for byte, using the section writers kept here.
+ */
+public final class BookingReports {
+
+    static final String RULE = "----------------------------------------------------";
+    static final String NO_BOOKINGS = "No Bookings to Display\n";
+
+    private static final CustomerManager customerManager = CustomerManager.getInstance();
+    private static final RoomManager roomManager = RoomManager.getInstance();
+    private static final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private static final RestaurantManager restaurantManager = RestaurantManager.getInstance();
+
+    private BookingReports() {
+    }
+
+    /**
+     * Writes the customer booking report of the given customers, stopping at the first missing customer.
+     *
+     * @param out       The writer to write to. It is flushed after each customer.
+     * @param customers The customers to report on.
+     */
+    public static void writeCustomerBookingReport(PrintWriter out, Customer... customers) {
+        writeCustomerReportHeader(out);
+        long totalExpenditure = 0;
+        for (Customer customer : customers) {
+            if (Objects.isNull(customer)) {
+                out.println("No Customer by that name/dob");
+                break;
+            }
+            CustomerBookings bookings = new CustomerBookings();
+            bookings.rooms.addAll(roomManager.getAllBookingsForCustomer(customer));
+            bookings.parking.addAll(parkingLotManager.getAllBookingsForCustomer(customer));
+            bookings.restaurant.addAll(restaurantManager.getAllBookingsForCustomer(customer));
+            totalExpenditure += bookings.writeTo(out, customer);
+            out.flush();
+        }
+        writeCustomerReportFooter(out, totalExpenditure);
+    }
+
+    /**
+     * Writes the customer booking report for every registered customer.
+     * Every booking is visited once and grouped by its customer up front, instead of looking each customer's bookings
+     * up separately, and each customer's section is written out as soon as it is complete.
+     *
+     * @param out The writer to write to. It is flushed after each customer.
+     */
+    public static void writeAllCustomersBookingReport(PrintWriter out) {
+        Map<Customer, CustomerBookings> groups = new HashMap<>();
+        groupByCustomer(roomManager.getAllEntities(), 0, roomManager.getAllEntities().size(), groups);
+        groupByCustomer(parkingLotManager.getAllEntities(), 0, parkingLotManager.getAllEntities().size(), groups);
+        groupByCustomer(restaurantManager.getAllEntities(), 0, restaurantManager.getAllEntities().size(), groups);
+
+        writeCustomerReportHeader(out);
+        long totalExpenditure = 0;
+        for (Customer customer : customerManager.getCustomers()) {
+            // Drop each group once it is written, so the report's memory shrinks as it goes
+            totalExpenditure += CustomerBookings.orEmpty(groups.remove(customer)).writeTo(out, customer);
+            out.flush();
+        }
+        writeCustomerReportFooter(out, totalExpenditure);
+    }
+
+    /**
+     * Writes a summary of all bookings categorized by type (Room, Parking, and Restaurant).
+     *
+     * @param out The writer to write to. It is flushed at the end.
+     */
+    public static void writeBookingSummaryReport(PrintWriter out) {
+        writeSummaryHeader(out);
+        writeSummarySection(out, BookingType.ROOM, roomManager);
+        writeSummarySection(out, BookingType.PARKING, parkingLotManager);
+        writeSummarySection(out, BookingType.RESTAURANT, restaurantManager);
+        writeSummaryFooter(out);
+    }
+
+    private static void writeSummarySection(PrintWriter out, BookingType bookingType,
+                                            AbstractBookingManager<?, ?> manager) {
+        out.println(summaryHeading(bookingType));
+        boolean empty = true;
+        for (AbstractEntity<?> entity : manager.getAllEntities()) {
+            List<? extends AbstractBooking> bookings = entity.getAllBookings();
+            writeSummaryLines(out, bookings, 0, bookings.size());
+            empty &= bookings.isEmpty();
+        }
+        if (empty) {
+            out.println(NO_BOOKINGS);
+        }
+    }
+
+    static void writeSummaryHeader(PrintWriter out) {
+        out.println("Booking Summary Report:");
+        out.println(RULE);
+    }
+
+    static String summaryHeading(BookingType bookingType) {
+        return switch (bookingType) {
+            case ROOM -> ConsoleColour.GREEN + "Room Bookings:" + ConsoleColour.RESET;
+            case PARKING -> ConsoleColour.YELLOW + "Parking Bookings:" + ConsoleColour.RESET;
+            case RESTAURANT -> ConsoleColour.PURPLE + "Restaurant Bookings:" + ConsoleColour.RESET;
+        };
+    }
+
+    static void writeSummaryLines(PrintWriter out, List<? extends AbstractBooking> bookings, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out.println(bookings.get(i));
+        }
+    }
+
+    static void writeSummaryFooter(PrintWriter out) {
+        out.println(RULE);
+        out.flush();
+    }
+
+    static void writeCustomerReportHeader(PrintWriter out) {
+        out.println("Customer Booking Report:");
+        out.println(RULE);
+    }
+
+    static void writeCustomerReportFooter(PrintWriter out, long totalExpenditure) {
+        out.println(ConsoleColour.RED + "Total Expenditure: €" + FixedPoint.format(totalExpenditure) + ConsoleColour.RESET);
+        out.flush();
+    }
+
+    /**
+     * Adds the bookings of a range of entities to their customers' groups, in entity order.
+     */
+    static void groupByCustomer(List<? extends AbstractEntity<?>> entities, int from, int to,
+                                Map<Customer, CustomerBookings> groups) {
+        for (int i = from; i < to; i++) {
+            for (AbstractBooking booking : entities.get(i).getAllBookings()) {
+                groups.computeIfAbsent(booking.getCustomer(), customer -> new CustomerBookings()).add(booking);
+            }
+        }
+    }
+
+    /**
+     * The bookings of one customer, by type.
+     */
+    static final class CustomerBookings {
+        private static final CustomerBookings EMPTY = new CustomerBookings();
+
+        private final List<RoomBooking> rooms = new ArrayList<>();
+        private final List<ParkingBooking> parking = new ArrayList<>();
+        private final List<RestaurantBooking> restaurant = new ArrayList<>();
+
+        static CustomerBookings orEmpty(CustomerBookings bookings) {
+            return bookings == null ? EMPTY : bookings;
+        }
+
+        void add(AbstractBooking booking) {
+            switch (booking) {
+                case RoomBooking roomBooking -> rooms.add(roomBooking);
+                case ParkingBooking parkingBooking -> parking.add(parkingBooking);
+                case RestaurantBooking restaurantBooking -> restaurant.add(restaurantBooking);
+                default -> throw new IllegalArgumentException("Unknown booking type: " + booking.getClass());
+            }
+        }
+
+        /**
+         * Appends another group's bookings after this group's own.
+         */
+        void addAll(CustomerBookings other) {
+            rooms.addAll(other.rooms);
+            parking.addAll(other.parking);
+            restaurant.addAll(other.restaurant);
+        }
+
+        /**
+         * Writes this customer's section of the customer booking report, computing each booking's cost once.
+         *
+         * @return The customer's expenditure in fixed point.
+         */
+        long writeTo(PrintWriter out, Customer customer) {
+            out.println(ConsoleColour.BLUE + "Customer: " + customer.name() +
+                    " (DOB: " + customer.dateOfBirth() + ")" + ConsoleColour.RESET);
+            long expenditure = writeBookings(out, ConsoleColour.GREEN + "  Room Bookings:", rooms);
+            expenditure += writeBookings(out, ConsoleColour.YELLOW + "  Parking Bookings:", parking);
+            expenditure += writeBookings(out, ConsoleColour.PURPLE + "  Restaurant Bookings:", restaurant);
+            out.println(RULE);
+            return expenditure;
+        }
+
+        private static long writeBookings(PrintWriter out, String heading, List<? extends AbstractBooking> bookings) {
+            if (bookings.isEmpty()) {
+                return 0;
+            }
+            bookings.sort(Comparator.comparingLong(AbstractBooking::getBookingStartEpochSecond));
+            out.println(heading + ConsoleColour.RESET);
+            long total = 0;
+            for (AbstractBooking booking : bookings) {
+                long cost = FixedPoint.toFixedPoint(booking.getCost());
+                out.println("    - " + booking + " | Cost: €" + FixedPoint.format(cost));
+                total += cost;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.dip.tus.report;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.room.RoomBooking;
+
+/**
+ * The kinds of booking the hotel takes, used to break reports down by subsystem.
+ */
+public enum BookingType {
+    ROOM,
+    PARKING,
+    RESTAURANT;
+
+    /**
+     * Finds the type of a booking.
+     *
+     * @param booking The booking.
+     * @return The booking's type.
+     * @throws IllegalArgumentException if the booking is of an unknown class.
+     */
+    public static BookingType of(AbstractBooking booking) {
+        return switch (booking) {
+            case RoomBooking roomBooking -> ROOM;
+            case ParkingBooking parkingBooking -> PARKING;
+            case RestaurantBooking restaurantBooking -> RESTAURANT;
+            default -> throw new IllegalArgumentException("Unknown booking type " + booking.getClass().getSimpleName());
+        };
+    }
+}
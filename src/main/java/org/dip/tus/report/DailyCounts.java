@@ -0,0 +1,76 @@
+package org.dip.tus.report;
+
+/**
+ * A histogram of counts per calendar day. Adding to a run of days touches each day once, and reading a range of
+ * days reads only those days' counters, whatever the number of bookings behind them. The covered range of days
+ * grows in either direction as needed.
+ * <p>
+ * Thread-safe.
+ */
+final class DailyCounts {
+
+    private static final int INITIAL_DAYS = 1_024;
+
+    private long baseDay;
+    private long[] counts = new long[0];
+
+    /**
+     * Adds an amount to every day in the range [fromDay, toDay].
+     *
+     * @param fromDay The first day, counted from the epoch.
+     * @param toDay   The last day, inclusive.
+     * @param amount  The amount to add, negative to subtract.
+     */
+    synchronized void add(long fromDay, long toDay, long amount) {
+        if (fromDay > toDay) {
+            return;
+        }
+        ensureCovers(fromDay);
+        ensureCovers(toDay);
+        int end = (int) (toDay - baseDay);
+        for (int i = (int) (fromDay - baseDay); i <= end; i++) {
+            counts[i] += amount;
+        }
+    }
+
+    /**
+     * Copies the counts of the days in the range [fromDay, toDay].
+     *
+     * @param fromDay The first day, counted from the epoch.
+     * @param toDay   The last day, inclusive.
+     * @return The count of each day in order, empty if the range is empty.
+     */
+    synchronized long[] countsBetween(long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return new long[0];
+        }
+        long[] result = new long[Math.toIntExact(toDay - fromDay + 1)];
+        // Only the part of the range that has ever been counted is copied; the rest stays 0
+        long from = Math.max(fromDay, baseDay);
+        long to = Math.min(toDay, baseDay + counts.length - 1);
+        if (from <= to) {
+            System.arraycopy(counts, (int) (from - baseDay), result, (int) (from - fromDay), (int) (to - from + 1));
+        }
+        return result;
+    }
+
+    private void ensureCovers(long epochDay) {
+        if (counts.length == 0) {
+            baseDay = epochDay - INITIAL_DAYS / 2;
+            counts = new long[INITIAL_DAYS];
+            return;
+        }
+        long end = baseDay + counts.length;
+        if (epochDay >= baseDay && epochDay < end) {
+            return;
+        }
+        // Grow with headroom in the direction of the new day
+        long headroom = counts.length;
+        long newBase = epochDay < baseDay ? epochDay - headroom : baseDay;
+        long newEnd = epochDay >= end ? epochDay + 1 + headroom : end;
+        long[] grown = new long[Math.toIntExact(newEnd - newBase)];
+        System.arraycopy(counts, 0, grown, (int) (baseDay - newBase), counts.length);
+        counts = grown;
+        baseDay = newBase;
+    }
+}
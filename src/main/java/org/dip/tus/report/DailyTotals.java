@@ -0,0 +1,93 @@
+package org.dip.tus.report;
+
+/**
+ * Running totals per calendar day, answering the total over any range of days from prefix sums.
+ * Days are stored in a Fenwick tree, so adding to a day and summing a range both take O(log days) whatever the
+ * number of bookings behind them. The covered range of days grows in either direction as needed.
+ * <p>
+ * Thread-safe.
+ */
+final class DailyTotals {
+
+    private static final int INITIAL_DAYS = 1_024;
+
+    private long baseDay;
+    private long[] values = new long[0];
+    private long[] tree = new long[1];
+    private long total;
+
+    /**
+     * Adds an amount to a day's total.
+     *
+     * @param epochDay The day, counted from the epoch.
+     * @param amount   The amount to add, negative to subtract.
+     */
+    synchronized void add(long epochDay, long amount) {
+        ensureCovers(epochDay);
+        int index = (int) (epochDay - baseDay);
+        values[index] += amount;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += amount;
+        }
+        total += amount;
+    }
+
+    /**
+     * Sums the totals of the days in the range [fromDay, toDay].
+     *
+     * @param fromDay The first day, counted from the epoch.
+     * @param toDay   The last day, inclusive.
+     * @return The sum over the range, 0 if the range is empty.
+     */
+    synchronized long sumBetween(long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return 0;
+        }
+        return prefix(toDay - baseDay + 1) - prefix(fromDay - baseDay);
+    }
+
+    synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Sums the first {@code count} covered days, clamping the count to the covered range.
+     */
+    private long prefix(long count) {
+        int end = (int) Math.max(0, Math.min(count, values.length));
+        long sum = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void ensureCovers(long epochDay) {
+        if (values.length == 0) {
+            baseDay = epochDay - INITIAL_DAYS / 2;
+            values = new long[INITIAL_DAYS];
+            tree = new long[INITIAL_DAYS + 1];
+            return;
+        }
+        long end = baseDay + values.length;
+        if (epochDay >= baseDay && epochDay < end) {
+            return;
+        }
+        // Grow with headroom in the direction of the new day, then rebuild the tree from the day values in O(days)
+        long headroom = values.length;
+        long newBase = epochDay < baseDay ? epochDay - headroom : baseDay;
+        long newEnd = epochDay >= end ? epochDay + 1 + headroom : end;
+        long[] grown = new long[Math.toIntExact(newEnd - newBase)];
+        System.arraycopy(values, 0, grown, (int) (baseDay - newBase), values.length);
+        values = grown;
+        baseDay = newBase;
+        tree = new long[values.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.dip.tus.report;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingListener;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.EpochTime;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Singleton holding per-day occupancy histograms, kept up to date as each booking is added or removed so that
+ * occupancy over any range of days is read from counters instead of from the bookings.
+ * <p>
+ * Three histograms are kept:
+ * <ul>
+ *     <li>occupied rooms per night, by {@link RoomType}. A stay occupies each night from its start day up to the
+ *     night before the day it ends, and at least its start day;</li>
+ *     <li>occupied spots per day, by parking section. A booking occupies every day it touches;</li>
+ *     <li>restaurant covers per day, by {@link MealEnum}: the number of people of each booking on its day.</li>
+ * </ul>
+ * Adding or removing a booking updates one counter per day it spans. Each booking manager registers
+ * {@link #listener()} when it is created, before any booking can be added or restored, including history restored
+ * straight into the archive. Archiving a booking does not change the occupancy.
+ */
+public final class OccupancyLedger {
+
+    private static final OccupancyLedger instance = new OccupancyLedger();
+
+    private final Map<RoomType, DailyCounts> roomNights = new EnumMap<>(RoomType.class);
+    private final NavigableMap<Character, DailyCounts> parkingDays = new ConcurrentSkipListMap<>();
+    private final Map<MealEnum, DailyCounts> covers = new EnumMap<>(MealEnum.class);
+
+    private OccupancyLedger() {
+        for (RoomType roomType : RoomType.values()) {
+            roomNights.put(roomType, new DailyCounts());
+        }
+        for (MealEnum mealType : MealEnum.values()) {
+            covers.put(mealType, new DailyCounts());
+        }
+    }
+
+    public static OccupancyLedger getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates a listener that keeps the ledger up to date with a booking manager.
+     *
+     * @param <E> The entity type of the manager.
+     * @param <B> The booking type of the manager.
+     * @return The listener to register with the manager.
+     */
+    public <E extends AbstractEntity<B>, B extends AbstractBooking> BookingListener<E, B> listener() {
+        return new BookingListener<>() {
+            @Override
+            public void bookingAdded(E entity, B booking) {
+                record(booking, 1);
+            }
+
+            @Override
+            public void bookingRemoved(E entity, B booking) {
+                record(booking, -1);
+            }
+
+            @Override
+            public void archivedBookingRestored(E entity, B booking) {
+                record(booking, 1);
+            }
+        };
+    }
+
+    private void record(AbstractBooking booking, int sign) {
+        long startDay = EpochTime.toEpochDay(booking.getBookingStartEpochSecond());
+        switch (booking) {
+            case RoomBooking roomBooking -> {
+                long lastNight = Math.max(startDay, EpochTime.toEpochDay(booking.getBookingEndEpochSecond()) - 1);
+                roomNights.get(roomBooking.getRoom().getRoomType()).add(startDay, lastNight, sign);
+            }
+            case ParkingBooking parkingBooking -> {
+                long lastDay = Math.max(startDay, EpochTime.toEpochDay(booking.getBookingEndEpochSecond() - 1));
+                parkingDays.computeIfAbsent(parkingBooking.getParkingSpot().getSection(), section -> new DailyCounts())
+                        .add(startDay, lastDay, sign);
+            }
+            case RestaurantBooking restaurantBooking -> covers.get(restaurantBooking.getMealType())
+                    .add(startDay, startDay, (long) sign * restaurantBooking.getNumberOfPeople());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of rooms of one type occupied each night of a range.
+     *
+     * @param roomType The room type.
+     * @param from     The first night.
+     * @param to       The last night, inclusive.
+     * @return The number of occupied rooms of each night in order.
+     */
+    public long[] getOccupiedRooms(RoomType roomType, LocalDate from, LocalDate to) {
+        return roomNights.get(roomType).countsBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Retrieves the number of spots of one parking section occupied each day of a range.
+     *
+     * @param section The parking section.
+     * @param from    The first day.
+     * @param to      The last day, inclusive.
+     * @return The number of occupied spots of each day in order.
+     */
+    public long[] getOccupiedSpots(char section, LocalDate from, LocalDate to) {
+        DailyCounts counts = parkingDays.get(section);
+        return counts == null ? new long[Math.toIntExact(Math.max(0, to.toEpochDay() - from.toEpochDay() + 1))]
+                : counts.countsBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Retrieves the number of restaurant covers of one meal each day of a range.
+     *
+     * @param mealType The meal.
+     * @param from     The first day.
+     * @param to       The last day, inclusive.
+     * @return The number of people booked for the meal on each day in order.
+     */
+    public long[] getCovers(MealEnum mealType, LocalDate from, LocalDate to) {
+        return covers.get(mealType).countsBetween(from.toEpochDay(), to.toEpochDay());
+    }
+}
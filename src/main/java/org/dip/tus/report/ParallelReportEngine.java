@@ -0,0 +1,363 @@
+package org.dip.tus.report;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.report.BookingReports.CustomerBookings;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomManager;
+
+import java.io.PrintWriter;
+import java.io.Serial;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Writes the booking summary and all-customers reports using every core, with output identical to
+ * {@link BookingReports}.
+ * <p>
+ * The room, parking and restaurant parts are gathered at the same time, each on its own virtual thread. Within a
+ * part, the bookings of all entities are treated as one range in entity order and split across a
+ * {@link ForkJoinPool} in slices of {@value #BOOKINGS_PER_TASK} bookings, so one busy entity is shared between
+ * cores as well. Slices are rendered to text or grouped by customer independently and then joined back in order,
+ * which keeps the output the same as writing each booking in turn.
+ * <p>
+ * The customer report renders customers {@value #CUSTOMERS_PER_BATCH} at a time and writes each batch before
+ * starting the next, so only one batch of text is held in memory.
+ */
+public final class ParallelReportEngine {
+
+    private static final int BOOKINGS_PER_TASK = 4_096;
+    private static final int CUSTOMERS_PER_TASK = 64;
+    private static final int CUSTOMERS_PER_BATCH = 4_096;
+
+    private final CustomerManager customerManager = CustomerManager.getInstance();
+    private final RoomManager roomManager = RoomManager.getInstance();
+    private final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private final RestaurantManager restaurantManager = RestaurantManager.getInstance();
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an engine that splits work across the common fork/join pool.
+     */
+    public ParallelReportEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine that splits work across the given pool.
+     *
+     * @param pool The pool to run slices of work on.
+     */
+    public ParallelReportEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Writes a summary of all bookings categorized by type (Room, Parking, and Restaurant).
+     *
+     * @param out The writer to write to. It is flushed at the end.
+     */
+    public void writeBookingSummaryReport(PrintWriter out) {
+        List<String[]> sections = inParallel(
+                () -> renderSummary(roomManager),
+                () -> renderSummary(parkingLotManager),
+                () -> renderSummary(restaurantManager));
+
+        BookingReports.writeSummaryHeader(out);
+        BookingType[] bookingTypes = {BookingType.ROOM, BookingType.PARKING, BookingType.RESTAURANT};
+        for (int i = 0; i < bookingTypes.length; i++) {
+            out.println(BookingReports.summaryHeading(bookingTypes[i]));
+            String[] slices = sections.get(i);
+            if (slices.length == 0) {
+                out.println(BookingReports.NO_BOOKINGS);
+            }
+            for (String slice : slices) {
+                out.write(slice);
+            }
+        }
+        BookingReports.writeSummaryFooter(out);
+    }
+
+    /**
+     * Writes the customer booking report for every registered customer.
+     *
+     * @param out The writer to write to. It is flushed after each batch of customers.
+     */
+    public void writeAllCustomersBookingReport(PrintWriter out) {
+        List<Map<Customer, CustomerBookings>> parts = inParallel(
+                () -> groupByCustomer(roomManager),
+                () -> groupByCustomer(parkingLotManager),
+                () -> groupByCustomer(restaurantManager));
+        // Each part holds one type of booking, so the order they are combined in does not matter
+        Map<Customer, CustomerBookings> groups = parts.getFirst();
+        for (Map<Customer, CustomerBookings> part : parts.subList(1, parts.size())) {
+            merge(groups, part);
+        }
+
+        BookingReports.writeCustomerReportHeader(out);
+        Iterator<Customer> customers = customerManager.getCustomers().iterator();
+        List<Customer> batch = new ArrayList<>(CUSTOMERS_PER_BATCH);
+        long totalExpenditure = 0;
+        while (customers.hasNext()) {
+            batch.clear();
+            while (customers.hasNext() && batch.size() < CUSTOMERS_PER_BATCH) {
+                batch.add(customers.next());
+            }
+            int tasks = (batch.size() + CUSTOMERS_PER_TASK - 1) / CUSTOMERS_PER_TASK;
+            String[] text = new String[tasks];
+            long[] expenditure = new long[tasks];
+            pool.invoke(new RenderCustomers(batch, groups, text, expenditure, 0, tasks));
+            for (int i = 0; i < tasks; i++) {
+                out.write(text[i]);
+                totalExpenditure += expenditure[i];
+            }
+            out.flush();
+            // Drop each group once it is written, so the report's memory shrinks as it goes
+            batch.forEach(groups::remove);
+        }
+        BookingReports.writeCustomerReportFooter(out, totalExpenditure);
+    }
+
+    private String[] renderSummary(AbstractBookingManager<?, ?> manager) {
+        BookingSlices slices = new BookingSlices(manager);
+        String[] text = new String[slices.count()];
+        pool.invoke(new RenderSummary(slices, text, 0, text.length));
+        return text;
+    }
+
+    private Map<Customer, CustomerBookings> groupByCustomer(AbstractBookingManager<?, ?> manager) {
+        BookingSlices slices = new BookingSlices(manager);
+        return slices.count() == 0 ? new HashMap<>() : pool.invoke(new GroupByCustomer(slices, 0, slices.count()));
+    }
+
+    /**
+     * Appends the groups of {@code later} to those of {@code earlier}, keeping each customer's bookings in order.
+     */
+    private static void merge(Map<Customer, CustomerBookings> earlier, Map<Customer, CustomerBookings> later) {
+        later.forEach((customer, bookings) -> earlier.merge(customer, bookings, (first, second) -> {
+            first.addAll(second);
+            return first;
+        }));
+    }
+
+    /**
+     * Runs each task on its own virtual thread and waits for all of them.
+     *
+     * @return The results, in the order the tasks were given.
+     */
+    @SafeVarargs
+    private static <T> List<T> inParallel(Callable<T>... tasks) {
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(tasks.length);
+            for (Callable<T> task : tasks) {
+                futures.add(threads.submit(task));
+            }
+            List<T> results = new ArrayList<>(tasks.length);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Report interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The current bookings of every entity of a manager, seen as one range in entity order and cut into slices of
+     * {@value #BOOKINGS_PER_TASK} bookings.
+     */
+    private static final class BookingSlices {
+        private final List<List<? extends AbstractBooking>> snapshots = new ArrayList<>();
+        // firstIndex[i] is the position in the whole range of entity i's first booking
+        private final int[] firstIndex;
+        private final int size;
+
+        private BookingSlices(AbstractBookingManager<?, ?> manager) {
+            List<? extends AbstractEntity<?>> entities = manager.getAllEntities();
+            firstIndex = new int[entities.size() + 1];
+            for (int i = 0; i < entities.size(); i++) {
+                List<? extends AbstractBooking> bookings = entities.get(i).getAllBookings();
+                snapshots.add(bookings);
+                firstIndex[i + 1] = Math.addExact(firstIndex[i], bookings.size());
+            }
+            size = firstIndex[entities.size()];
+        }
+
+        private int count() {
+            return (size + BOOKINGS_PER_TASK - 1) / BOOKINGS_PER_TASK;
+        }
+
+        /**
+         * Calls the visitor with each run of one entity's bookings that falls within a slice, in order.
+         */
+        private void forEachRun(int slice, Run visitor) {
+            int from = slice * BOOKINGS_PER_TASK;
+            int to = Math.min(from + BOOKINGS_PER_TASK, size);
+            int entity = Arrays.binarySearch(firstIndex, from);
+            // Skip past entities without bookings to the last one starting at or before the slice
+            entity = entity >= 0 ? lastStartingAt(entity) : -entity - 2;
+            while (from < to) {
+                int end = Math.min(to, firstIndex[entity + 1]);
+                visitor.accept(snapshots.get(entity), from - firstIndex[entity], end - firstIndex[entity]);
+                from = end;
+                entity++;
+            }
+        }
+
+        private int lastStartingAt(int entity) {
+            while (entity + 1 < snapshots.size() && firstIndex[entity + 1] == firstIndex[entity]) {
+                entity++;
+            }
+            return entity;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void accept(List<? extends AbstractBooking> bookings, int from, int to);
+    }
+
+    /**
+     * Renders the summary lines of a range of slices, one string per slice.
+     */
+    private static final class RenderSummary extends RecursiveAction {
+        // Tasks live only for one report and are never serialized, so their state is transient
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final transient BookingSlices slices;
+        private final transient String[] text;
+        private final int from;
+        private final int to;
+
+        private RenderSummary(BookingSlices slices, String[] text, int from, int to) {
+            this.slices = slices;
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RenderSummary(slices, text, from, middle), new RenderSummary(slices, text, middle, to));
+                return;
+            }
+            for (int slice = from; slice < to; slice++) {
+                StringWriter buffer = new StringWriter();
+                PrintWriter out = new PrintWriter(buffer);
+                slices.forEachRun(slice, (bookings, start, end) ->
+                        BookingReports.writeSummaryLines(out, bookings, start, end));
+                out.flush();
+                text[slice] = buffer.toString();
+            }
+        }
+    }
+
+    /**
+     * Groups the bookings of a range of slices by customer, keeping each customer's bookings in entity order.
+     */
+    private static final class GroupByCustomer extends RecursiveTask<Map<Customer, CustomerBookings>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final transient BookingSlices slices;
+        private final int from;
+        private final int to;
+
+        private GroupByCustomer(BookingSlices slices, int from, int to) {
+            this.slices = slices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Customer, CustomerBookings> compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                GroupByCustomer later = new GroupByCustomer(slices, middle, to);
+                later.fork();
+                Map<Customer, CustomerBookings> groups = new GroupByCustomer(slices, from, middle).compute();
+                merge(groups, later.join());
+                return groups;
+            }
+            Map<Customer, CustomerBookings> groups = new HashMap<>();
+            slices.forEachRun(from, (bookings, start, end) -> {
+                for (int i = start; i < end; i++) {
+                    AbstractBooking booking = bookings.get(i);
+                    groups.computeIfAbsent(booking.getCustomer(), customer -> new CustomerBookings()).add(booking);
+                }
+            });
+            return groups;
+        }
+    }
+
+    /**
+     * Renders the report sections of a batch of customers, {@value #CUSTOMERS_PER_TASK} customers to a string.
+     */
+    private static final class RenderCustomers extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final transient List<Customer> customers;
+        private final transient Map<Customer, CustomerBookings> groups;
+        private final transient String[] text;
+        private final transient long[] expenditure;
+        private final int from;
+        private final int to;
+
+        private RenderCustomers(List<Customer> customers, Map<Customer, CustomerBookings> groups, String[] text,
+                                long[] expenditure, int from, int to) {
+            this.customers = customers;
+            this.groups = groups;
+            this.text = text;
+            this.expenditure = expenditure;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RenderCustomers(customers, groups, text, expenditure, from, middle),
+                        new RenderCustomers(customers, groups, text, expenditure, middle, to));
+                return;
+            }
+            for (int task = from; task < to; task++) {
+                StringWriter buffer = new StringWriter();
+                PrintWriter out = new PrintWriter(buffer);
+                long total = 0;
+                int end = Math.min((task + 1) * CUSTOMERS_PER_TASK, customers.size());
+                for (int i = task * CUSTOMERS_PER_TASK; i < end; i++) {
+                    Customer customer = customers.get(i);
+                    total += CustomerBookings.orEmpty(groups.get(customer)).writeTo(out, customer);
+                }
+                out.flush();
+                text[task] = buffer.toString();
+                expenditure[task] = total;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.dip.tus.report;
+
+import org.dip.tus.core.AbstractBooking;
+import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingListener;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton holding running revenue totals, kept up to date as each booking is added or removed so that the
+ * financial report never has to visit a booking.
+ * <p>
+ * Revenue is held in fixed point (see {@link FixedPoint}), so totals are exact. It is broken down
+ * by {@link BookingType}, by {@link RoomType}, by {@link MealEnum} and by parking section, and is also kept per
+ * calendar day of each booking's start, so the revenue of any range of days is answered from prefix sums.
+ * <p>
+ * Each booking manager registers {@link #listener()} when it is created, before any booking can be added or
+ * restored, including history restored straight into the archive. Archiving a booking does not change its
+ * revenue.
+ */
+public final class RevenueLedger {
+
+    private static final RevenueLedger instance = new RevenueLedger();
+
+    private final Map<BookingType, Tally> byBookingType = new EnumMap<>(BookingType.class);
+    private final Map<BookingType, DailyTotals> dailyByBookingType = new EnumMap<>(BookingType.class);
+    private final Map<RoomType, Tally> byRoomType = new EnumMap<>(RoomType.class);
+    private final Map<MealEnum, Tally> byMealType = new EnumMap<>(MealEnum.class);
+    private final NavigableMap<Character, Tally> byParkingSection = new ConcurrentSkipListMap<>();
+
+    private RevenueLedger() {
+        for (BookingType bookingType : BookingType.values()) {
+            byBookingType.put(bookingType, new Tally());
+            dailyByBookingType.put(bookingType, new DailyTotals());
+        }
+        for (RoomType roomType : RoomType.values()) {
+            byRoomType.put(roomType, new Tally());
+        }
+        for (MealEnum mealType : MealEnum.values()) {
+            byMealType.put(mealType, new Tally());
+        }
+    }
+
+    public static RevenueLedger getInstance() {
+        return instance;
+    }
+
+    /**
+     * A number of bookings and their revenue in fixed point.
+     */
+    private static final class Tally {
+        private final LongAdder bookings = new LongAdder();
+        private final LongAdder revenue = new LongAdder();
+
+        private void add(int sign, long cost) {
+            bookings.add(sign);
+            revenue.add(sign * cost);
+        }
+    }
+
+    /**
+     * Creates a listener that keeps the ledger up to date with a booking manager.
+     *
+     * @param <E> The entity type of the manager.
+     * @param <B> The booking type of the manager.
+     * @return The listener to register with the manager.
+     */
+    public <E extends AbstractEntity<B>, B extends AbstractBooking> BookingListener<E, B> listener() {
+        return new BookingListener<>() {
+            @Override
+            public void bookingAdded(E entity, B booking) {
+                record(booking, 1);
+            }
+
+            @Override
+            public void bookingRemoved(E entity, B booking) {
+                record(booking, -1);
+            }
+
+            @Override
+            public void archivedBookingRestored(E entity, B booking) {
+                record(booking, 1);
+            }
+        };
+    }
+
+    private void record(AbstractBooking booking, int sign) {
+        long cost = FixedPoint.toFixedPoint(booking.getCost());
+        BookingType bookingType = BookingType.of(booking);
+        byBookingType.get(bookingType).add(sign, cost);
+        dailyByBookingType.get(bookingType)
+                .add(EpochTime.toEpochDay(booking.getBookingStartEpochSecond()), sign * cost);
+        switch (booking) {
+            case RoomBooking roomBooking -> byRoomType.get(roomBooking.getRoom().getRoomType()).add(sign, cost);
+            case RestaurantBooking restaurantBooking -> byMealType.get(restaurantBooking.getMealType()).add(sign, cost);
+            case ParkingBooking parkingBooking -> byParkingSection
+                    .computeIfAbsent(parkingBooking.getParkingSpot().getSection(), section -> new Tally())
+                    .add(sign, cost);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Retrieves the revenue of one type of booking.
+     *
+     * @param bookingType The booking type.
+     * @return The revenue in fixed point.
+     */
+    public long getRevenue(BookingType bookingType) {
+        return byBookingType.get(bookingType).revenue.sum();
+    }
+
+    /**
+     * Retrieves the number of bookings of one type.
+     *
+     * @param bookingType The booking type.
+     * @return The number of bookings.
+     */
+    public long getBookingCount(BookingType bookingType) {
+        return byBookingType.get(bookingType).bookings.sum();
+    }
+
+    /**
+     * Retrieves the revenue of every type of booking.
+     *
+     * @return The revenue in fixed point.
+     */
+    public long getTotalRevenue() {
+        long total = 0;
+        for (Tally tally : byBookingType.values()) {
+            total += tally.revenue.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves the room revenue per room type.
+     *
+     * @return The revenue in fixed point of each room type, in declaration order.
+     */
+    public Map<RoomType, Long> getRevenueByRoomType() {
+        Map<RoomType, Long> revenue = new EnumMap<>(RoomType.class);
+        byRoomType.forEach((roomType, tally) -> revenue.put(roomType, tally.revenue.sum()));
+        return revenue;
+    }
+
+    /**
+     * Retrieves the restaurant revenue per meal.
+     *
+     * @return The revenue in fixed point of each meal type, in declaration order.
+     */
+    public Map<MealEnum, Long> getRevenueByMealType() {
+        Map<MealEnum, Long> revenue = new EnumMap<>(MealEnum.class);
+        byMealType.forEach((mealType, tally) -> revenue.put(mealType, tally.revenue.sum()));
+        return revenue;
+    }
+
+    /**
+     * Retrieves the parking revenue per section, for every section that has taken a booking.
+     *
+     * @return The revenue in fixed point of each parking section, ordered by section.
+     */
+    public Map<Character, Long> getRevenueByParkingSection() {
+        Map<Character, Long> revenue = new TreeMap<>();
+        byParkingSection.forEach((section, tally) -> revenue.put(section, tally.revenue.sum()));
+        return Collections.unmodifiableMap(revenue);
+    }
+
+    /**
+     * Retrieves the revenue of one type of booking from bookings starting within a range of days.
+     *
+     * @param bookingType The booking type.
+     * @param from        The first day.
+     * @param to          The last day, inclusive.
+     * @return The revenue in fixed point.
+     */
+    public long getRevenueBetween(BookingType bookingType, LocalDate from, LocalDate to) {
+        return dailyByBookingType.get(bookingType).sumBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Retrieves the revenue of every type of booking from bookings starting within a range of days.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     * @return The revenue in fixed point.
+     */
+    public long getTotalRevenueBetween(LocalDate from, LocalDate to) {
+        long total = 0;
+        for (BookingType bookingType : BookingType.values()) {
+            total += getRevenueBetween(bookingType, from, to);
+        }
+        return total;
+    }
+}
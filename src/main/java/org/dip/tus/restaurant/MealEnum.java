@@ -8,5 +8,21 @@ package org.dip.tus.restaurant;
 public enum MealEnum {
     BREAKFAST,
     LUNCH,
-    DINNER
+    DINNER;
+
+    /**
+     * Determines the meal served at a sitting starting at the given hour.
+     *
+     * @param hour The hour of the day, 0 to 23.
+     * @return Breakfast before noon, lunch before 5pm, dinner after.
+     */
+    public static MealEnum startingAt(int hour) {
+        if (hour < 12) {
+            return BREAKFAST;
+        } else if (hour < 17) {
+            return LUNCH;
+        } else {
+            return DINNER;
+        }
+    }
 }
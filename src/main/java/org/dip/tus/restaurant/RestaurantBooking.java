@@ -4,6 +4,7 @@ import org.dip.tus.customer.Customer;
 import org.dip.tus.core.AbstractBooking;
 import org.dip.tus.exception.BookingDateArgumentException;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.util.FixedPoint;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +14,10 @@ import java.time.LocalDateTime;
  */
 public final class RestaurantBooking extends AbstractBooking {
 
-    private final String restaurantBookingID;
+    private static final long BREAKFAST_PER_PERSON = FixedPoint.toFixedPoint(20.0);
+    private static final long LUNCH_PER_PERSON = FixedPoint.toFixedPoint(30.0);
+    private static final long DINNER_PER_PERSON = FixedPoint.toFixedPoint(40.0);
+
     private final MealEnum mealType;
     private final Table table;
     private final double cost;
@@ -32,7 +36,6 @@ public final class RestaurantBooking extends AbstractBooking {
     public RestaurantBooking(Customer customer, LocalDateTime startTime, LocalDateTime endTime, Table table, int numberOfPeople) throws BookingDateArgumentException {
         super(customer, startTime, endTime);
         this.mealType = determineMealType(startTime);
-        this.restaurantBookingID = generateBookingID();
         this.table = table;
         this.numberOfPeople = numberOfPeople;
         this.cost = calculateCost();
@@ -44,12 +47,23 @@ public final class RestaurantBooking extends AbstractBooking {
      * @return The total cost of the booking.
      */
     public double calculateCost() {
-        double rate = switch (getMealType()) {
-            case BREAKFAST -> 20.0;
-            case LUNCH -> 30.0;
-            case DINNER -> 40.0;
+        return FixedPoint.toDouble(quote(getMealType(), getNumberOfPeople()));
+    }
+
+    /**
+     * Calculates the cost of a meal for a party, as {@link #calculateCost()} does for a booking.
+     *
+     * @param mealType       The meal.
+     * @param numberOfPeople The size of the party.
+     * @return The cost in fixed point.
+     */
+    public static long quote(MealEnum mealType, int numberOfPeople) {
+        long rate = switch (mealType) {
+            case BREAKFAST -> BREAKFAST_PER_PERSON;
+            case LUNCH -> LUNCH_PER_PERSON;
+            case DINNER -> DINNER_PER_PERSON;
         };
-        return rate * getNumberOfPeople();
+        return rate * numberOfPeople;
     }
 
     /**
@@ -59,28 +73,26 @@ public final class RestaurantBooking extends AbstractBooking {
      * @return The meal type associated with the booking.
      */
     private MealEnum determineMealType(LocalDateTime startTime) {
-        int hour = startTime.getHour();
-        if (hour < 12) {
-            return MealEnum.BREAKFAST;
-        } else if (hour < 17) {
-            return MealEnum.LUNCH;
-        } else {
-            return MealEnum.DINNER;
-        }
+        return MealEnum.startingAt(startTime.getHour());
+    }
+
+    @Override
+    public String getEntityId() {
+        return table.getId();
     }
 
     /**
-     * Generates a unique booking ID based on the meal type and object hash.
+     * Generates a unique booking ID based on the meal type and the registry-assigned ID.
      *
      * @return A unique booking ID.
      */
     @Override
     public String generateBookingID() {
-        return switch (mealType) {
-            case BREAKFAST -> "B" + this.hashCode();
-            case LUNCH -> "L" + this.hashCode();
-            case DINNER -> "D" + this.hashCode();
-        };
+        return formatBookingId(switch (mealType) {
+            case BREAKFAST -> "B";
+            case LUNCH -> "L";
+            case DINNER -> "D";
+        });
     }
 
     public MealEnum getMealType() {
@@ -91,6 +103,7 @@ public final class RestaurantBooking extends AbstractBooking {
         return table;
     }
 
+    @Override
     public double getCost() {
         return cost;
     }
@@ -116,7 +129,7 @@ public final class RestaurantBooking extends AbstractBooking {
                 getBookingDateTimeStart(),
                 getBookingDateTimeEnd(),
                 table.getTableNumber(),
-                restaurantBookingID,
+                generateBookingID(),
                 getCost()
         );
     }
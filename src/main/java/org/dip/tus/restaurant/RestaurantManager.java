@@ -1,11 +1,11 @@
 package org.dip.tus.restaurant;
 
 import org.dip.tus.core.AbstractBookingManager;
-import org.dip.tus.customer.Customer;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.report.OccupancyLedger;
+import org.dip.tus.report.RevenueLedger;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -18,6 +18,8 @@ public class RestaurantManager extends AbstractBookingManager<Table, RestaurantB
     private static final RestaurantManager instance = new RestaurantManager();
 
     private RestaurantManager() {
+        addBookingListener(RevenueLedger.getInstance().listener());
+        addBookingListener(OccupancyLedger.getInstance().listener());
         initialiseEntities();
     }
 
@@ -63,22 +65,8 @@ public class RestaurantManager extends AbstractBookingManager<Table, RestaurantB
             System.out.printf(color + "| %-12d | %-12d | %-20d |\n" + ConsoleColour.RESET,
                     table.getTableNumber(),
                     table.getNumberofSeats(),
-                    table.getAllBookings().size());
+                    table.getBookingCount());
         }
         System.out.println(ConsoleColour.BLUE + "+---------------------------------------------------+" + ConsoleColour.RESET);
     }
-
-    /**
-     * Retrieves all bookings made by a specific customer.
-     *
-     * @param customer The customer whose bookings are to be retrieved.
-     * @return A list of bookings associated with the given customer.
-     */
-    public List<RestaurantBooking> getAllBookingsForCustomer(Customer customer) {
-        return getAllEntities()
-                .stream()
-                .flatMap(room -> room.getAllBookings().stream())
-                .filter(booking -> booking.getCustomer().equals(customer))
-                .collect(Collectors.toList());
-    }
 }
@@ -1,10 +1,13 @@
 package org.dip.tus.restaurant;
 
 import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingStore;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.util.EpochTime;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.PriorityQueue;
 
 /**
  * Represents a table in the restaurant.
@@ -22,12 +25,12 @@ public class Table extends AbstractEntity<RestaurantBooking> {
      * @throws IllegalArgumentException if the table number is not within the valid range.
      */
     public Table(int tableNumber, int seats) {
+        super(Duration.ofMinutes(15));
         if (tableNumber < 1 || tableNumber > 20) {
             throw new IllegalArgumentException("Invalid Table Number");
         }
         this.tableNumber = tableNumber;
         this.seats = seats;
-        this.bookings = new PriorityQueue<>(Comparator.comparing(RestaurantBooking::getBookingDateTimeStart));
     }
 
     public int getTableNumber() {
@@ -48,11 +51,26 @@ public class Table extends AbstractEntity<RestaurantBooking> {
         return String.valueOf(this.tableNumber);
     }
 
+    /**
+     * Archives the number of people in the record's quantity.
+     */
+    @Override
+    protected long writeArchived(BookingStore store, RestaurantBooking booking) throws IOException {
+        return store.append(booking, booking.getNumberOfPeople(), null);
+    }
+
+    @Override
+    protected RestaurantBooking readArchived(BookingStore store, long record) throws BookingDateArgumentException {
+        return new RestaurantBooking(store.getCustomer(record),
+                EpochTime.toLocalDateTime(store.getStartEpochSecond(record)),
+                EpochTime.toLocalDateTime(store.getEndEpochSecond(record)), this, store.getQuantity(record));
+    }
+
     @Override
     public String toString() {
         return "Table{" +
                 "tableNumber=" + tableNumber +
-                ", totalBookings=" + bookings.size() +
+                ", totalBookings=" + getBookingCount() +
                 '}';
     }
 
@@ -0,0 +1,247 @@
+package org.dip.tus.room;
+
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable calendar of nightly room rates, pricing any stay in constant time.
+ * <p>
+ * Each {@link RoomType} has a base rate, raised by the weekend multiplier on Saturday and Sunday nights. Seasonal
+ * rates replace the rate of a room type for a range of nights; where seasons overlap, the one added last wins.
+ * Rates are held in fixed point (see {@link FixedPoint}), so prices are exact.
+ * <p>
+ * The base and weekend rates are priced arithmetically, by counting the weekend nights of a stay from the day
+ * numbers alone. Seasons are kept as prefix sums of their difference from the base and weekend rates, over the
+ * days from the first season's start to the last season's end, so any stay costs a few array reads however long
+ * it is. Those prefix sums take a few bytes per room type per day, so all the seasons of a calendar must fall
+ * within {@value #MAX_SEASON_SPAN_DAYS} days of each other. A calendar never changes once built;
+ * {@link #withSeasonalRate} returns a new one.
+ */
+public final class RateCalendar {
+
+    public static final double WEEKEND_MULTIPLIER = 1.5;
+
+    /**
+     * The most days from the first night of the earliest season to the last night of the latest, about 20 years.
+     */
+    public static final int MAX_SEASON_SPAN_DAYS = 20 * 366;
+
+    // 1970-01-01, epoch day 0, was a Thursday, three days after a Monday
+    private static final int EPOCH_DAY_OFFSET_FROM_MONDAY = 3;
+
+    /**
+     * A nightly rate for one room type, replacing its usual rates for a range of nights.
+     *
+     * @param roomType    The room type.
+     * @param from        The first night.
+     * @param to          The last night, inclusive.
+     * @param nightlyRate The rate of each night, in fixed point.
+     */
+    public record SeasonalRate(RoomType roomType, LocalDate from, LocalDate to, long nightlyRate) {
+    }
+
+    private final long[] weekdayRates;
+    private final long[] weekendRates;
+    private final List<SeasonalRate> seasons;
+    private final long firstSeasonDay;
+    // seasonAdjustments[type][i] is the total seasonal difference of that type's nights before firstSeasonDay + i
+    private final long[][] seasonAdjustments;
+
+    /**
+     * Constructs a calendar without seasonal rates.
+     *
+     * @param baseRates         The weekday nightly rate of every room type.
+     * @param weekendMultiplier The multiplier applied to the base rate on Saturday and Sunday nights.
+     * @throws IllegalArgumentException if a room type has no rate or a rate is negative.
+     */
+    public RateCalendar(Map<RoomType, Double> baseRates, double weekendMultiplier) {
+        this(toFixedPoint(baseRates, 1), toFixedPoint(baseRates, weekendMultiplier), List.of());
+    }
+
+    private RateCalendar(long[] weekdayRates, long[] weekendRates, List<SeasonalRate> seasons) {
+        this.weekdayRates = weekdayRates;
+        this.weekendRates = weekendRates;
+        this.seasons = List.copyOf(seasons);
+        firstSeasonDay = seasons.stream().mapToLong(season -> season.from().toEpochDay()).min().orElse(0);
+        long lastSeasonDay = seasons.stream().mapToLong(season -> season.to().toEpochDay()).max().orElse(-1);
+        if (lastSeasonDay - firstSeasonDay + 1 > MAX_SEASON_SPAN_DAYS) {
+            throw new IllegalArgumentException("Seasonal rates span more than " + MAX_SEASON_SPAN_DAYS + " days");
+        }
+        seasonAdjustments = buildAdjustments((int) (lastSeasonDay - firstSeasonDay + 1));
+    }
+
+    private static long[] toFixedPoint(Map<RoomType, Double> baseRates, double multiplier) {
+        long[] rates = new long[RoomType.values().length];
+        for (RoomType roomType : RoomType.values()) {
+            Double baseRate = baseRates.get(roomType);
+            if (baseRate == null || baseRate < 0 || multiplier < 0) {
+                throw new IllegalArgumentException("No valid rate for room type " + roomType);
+            }
+            rates[roomType.ordinal()] = FixedPoint.toFixedPoint(baseRate * multiplier);
+        }
+        return rates;
+    }
+
+    private long[][] buildAdjustments(int days) {
+        long[][] adjustments = new long[RoomType.values().length][];
+        for (RoomType roomType : RoomType.values()) {
+            long[] difference = new long[days];
+            for (SeasonalRate season : seasons) {
+                if (season.roomType() != roomType) {
+                    continue;
+                }
+                int end = (int) (season.to().toEpochDay() - firstSeasonDay);
+                for (int i = (int) (season.from().toEpochDay() - firstSeasonDay); i <= end; i++) {
+                    difference[i] = season.nightlyRate() - usualRate(roomType, firstSeasonDay + i);
+                }
+            }
+            long[] prefix = new long[days + 1];
+            for (int i = 0; i < days; i++) {
+                prefix[i + 1] = prefix[i] + difference[i];
+            }
+            adjustments[roomType.ordinal()] = prefix;
+        }
+        return adjustments;
+    }
+
+    /**
+     * Creates a calendar with an added seasonal rate, leaving this one unchanged. The new season takes precedence
+     * over any existing season on the nights they share.
+     *
+     * @param roomType    The room type.
+     * @param from        The first night.
+     * @param to          The last night, inclusive.
+     * @param nightlyRate The rate of each night.
+     * @return The new calendar.
+     * @throws IllegalArgumentException if the range is empty, the rate is negative, or the seasons would then span
+     *                                  more than {@value #MAX_SEASON_SPAN_DAYS} days.
+     */
+    public RateCalendar withSeasonalRate(RoomType roomType, LocalDate from, LocalDate to, double nightlyRate) {
+        if (to.isBefore(from) || nightlyRate < 0) {
+            throw new IllegalArgumentException("A seasonal rate needs a range of nights and a rate of at least 0");
+        }
+        List<SeasonalRate> added = new ArrayList<>(seasons);
+        added.add(new SeasonalRate(roomType, from, to, FixedPoint.toFixedPoint(nightlyRate)));
+        return new RateCalendar(weekdayRates, weekendRates, added);
+    }
+
+    /**
+     * Creates a calendar without any seasonal rates, keeping this calendar's base and weekend rates.
+     *
+     * @return The new calendar.
+     */
+    public RateCalendar withoutSeasonalRates() {
+        return new RateCalendar(weekdayRates, weekendRates, List.of());
+    }
+
+    /**
+     * Retrieves the seasonal rates, in the order they were added.
+     *
+     * @return An unmodifiable list of the seasonal rates.
+     */
+    public List<SeasonalRate> getSeasonalRates() {
+        return seasons;
+    }
+
+    /**
+     * Retrieves the rate of one night.
+     *
+     * @param roomType The room type.
+     * @param night    The night.
+     * @return The rate in fixed point.
+     */
+    public long getNightlyRate(RoomType roomType, LocalDate night) {
+        long day = night.toEpochDay();
+        return price(roomType, day, day + 1);
+    }
+
+    /**
+     * Prices a stay of one night for every date from the start date up to, but not including, the end date.
+     *
+     * @param roomType The room type.
+     * @param start    The start of the stay.
+     * @param end      The end of the stay.
+     * @return The price, 0 if the stay does not span a night.
+     */
+    public double price(RoomType roomType, LocalDateTime start, LocalDateTime end) {
+        return FixedPoint.toDouble(price(roomType, EpochTime.toEpochDay(EpochTime.toEpochSecond(start)),
+                EpochTime.toEpochDay(EpochTime.toEpochSecond(end))));
+    }
+
+    /**
+     * Prices the nights from one day up to, but not including, another.
+     *
+     * @param roomType The room type.
+     * @param fromDay  The first night, counted from the epoch.
+     * @param toDay    The day the stay ends, counted from the epoch.
+     * @return The price in fixed point, 0 if {@code toDay} is not after {@code fromDay}.
+     */
+    public long price(RoomType roomType, long fromDay, long toDay) {
+        if (toDay <= fromDay) {
+            return 0;
+        }
+        int type = roomType.ordinal();
+        long weekendNights = weekendDaysBefore(toDay) - weekendDaysBefore(fromDay);
+        long[] adjustments = seasonAdjustments[type];
+        return (toDay - fromDay) * weekdayRates[type] + weekendNights * (weekendRates[type] - weekdayRates[type])
+                + adjustments[seasonIndex(toDay)] - adjustments[seasonIndex(fromDay)];
+    }
+
+    /**
+     * Prices many stays of one room type at once, reading the calendar's arrays once for the whole run.
+     *
+     * @param roomType The room type.
+     * @param fromDays The first night of each stay, counted from the epoch.
+     * @param toDays   The day each stay ends, counted from the epoch.
+     * @param from     The index of the first stay to price.
+     * @param to       The index after the last stay to price.
+     * @param prices   Receives the price in fixed point of stay {@code i} at {@code prices[offset + i - from]}.
+     * @param offset   Where in {@code prices} to write the first price.
+     */
+    public void price(RoomType roomType, long[] fromDays, long[] toDays, int from, int to, long[] prices, int offset) {
+        int type = roomType.ordinal();
+        long weekdayRate = weekdayRates[type];
+        long weekendPremium = weekendRates[type] - weekdayRates[type];
+        long[] adjustments = seasonAdjustments[type];
+        for (int i = from; i < to; i++) {
+            long fromDay = fromDays[i];
+            long toDay = Math.max(fromDay, toDays[i]);
+            prices[offset + i - from] = (toDay - fromDay) * weekdayRate
+                    + (weekendDaysBefore(toDay) - weekendDaysBefore(fromDay)) * weekendPremium
+                    + adjustments[seasonIndex(toDay)] - adjustments[seasonIndex(fromDay)];
+        }
+    }
+
+    private long usualRate(RoomType roomType, long day) {
+        return isWeekend(day) ? weekendRates[roomType.ordinal()] : weekdayRates[roomType.ordinal()];
+    }
+
+    private int seasonIndex(long day) {
+        return (int) Math.max(0, Math.min(day - firstSeasonDay, seasonAdjustments[0].length - 1));
+    }
+
+    /**
+     * Tells whether a day is a Saturday or Sunday.
+     *
+     * @param day The day, counted from the epoch.
+     * @return {@code true} on a weekend.
+     */
+    private static boolean isWeekend(long day) {
+        return Math.floorMod(day + EPOCH_DAY_OFFSET_FROM_MONDAY, 7) >= 5;
+    }
+
+    /**
+     * Counts the Saturdays and Sundays before a day, from a fixed Monday. Only differences between two counts are
+     * meaningful.
+     */
+    private static long weekendDaysBefore(long day) {
+        long sinceMonday = day + EPOCH_DAY_OFFSET_FROM_MONDAY;
+        return 2 * Math.floorDiv(sinceMonday, 7) + Math.max(0, Math.floorMod(sinceMonday, 7) - 5);
+    }
+}
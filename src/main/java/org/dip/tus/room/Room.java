@@ -1,10 +1,12 @@
 package org.dip.tus.room;
 
 import org.dip.tus.core.AbstractEntity;
+import org.dip.tus.core.BookingStore;
+import org.dip.tus.exception.BookingDateArgumentException;
+import org.dip.tus.util.EpochTime;
 
-import java.util.Comparator;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.PriorityQueue;
 
 /**
  * Represents a hotel room that can be booked.
@@ -16,20 +18,19 @@ public class Room extends AbstractEntity<RoomBooking> {
 
     /**
      * Constructs a Room object with the specified room number and type.
-     * initialises the priority Queue with a comparator that compares bookings based on the start to ensure
-     * chronological order
+     * Bookings are kept in chronological order by the booking index inherited from {@link AbstractEntity}.
      *
      * @param roomNumber the room number (must be between 1 and 100).
      * @param roomType   the type of the room (SINGLE, DOUBLE, QUEEN, KING).
      * @throws IllegalArgumentException if the room number is not within the valid range.
      */
     protected Room(int roomNumber, RoomType roomType) {
+        super(Duration.ofDays(1));
         if (roomNumber < 1 || roomNumber > 100) {
             throw new IllegalArgumentException("Invalid Room Number");
         }
         this.roomNumber = roomNumber;
         this.roomType = roomType;
-        this.bookings = new PriorityQueue<>(Comparator.comparing(RoomBooking::getBookingDateTimeStart));
     }
 
     public int getRoomNumber() {
@@ -64,7 +65,7 @@ public class Room extends AbstractEntity<RoomBooking> {
         return "Room{" +
                 "roomNumber=" + roomNumber +
                 ", roomType=" + roomType +
-                ", totalBookings=" + bookings.size() +
+                ", totalBookings=" + getBookingCount() +
                 '}';
     }
 
@@ -85,4 +86,11 @@ public class Room extends AbstractEntity<RoomBooking> {
     public String getId() {
         return String.valueOf(getRoomNumber());
     }
+
+    @Override
+    protected RoomBooking readArchived(BookingStore store, long record) throws BookingDateArgumentException {
+        return new RoomBooking(store.getCustomer(record), this,
+                EpochTime.toLocalDateTime(store.getStartEpochSecond(record)),
+                EpochTime.toLocalDateTime(store.getEndEpochSecond(record)), store.getCost(record));
+    }
 }
@@ -35,6 +35,7 @@ public final class RoomBooking extends AbstractBooking {
         return room;
     }
 
+    @Override
     public double getCost() {
         return cost;
     }
@@ -43,17 +44,19 @@ public final class RoomBooking extends AbstractBooking {
         return room.getRoomNumber();
     }
 
+    @Override
+    public String getEntityId() {
+        return room.getId();
+    }
+
     /**
-     * Generates a unique booking ID for the room booking.
+     * Generates the booking ID for the room booking from its registry-assigned ID.
      *
      * @return a string representing the unique booking ID.
      */
     @Override
     public String generateBookingID() {
-        return new StringBuilder()
-                .append("R")
-                .append(getCustomer().hashCode() + getRoomNumber() + getBookingDateTimeStart().hashCode())
-                .toString();
+        return formatBookingId("R");
     }
 
     @Override
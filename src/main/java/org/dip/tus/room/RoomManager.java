@@ -1,24 +1,35 @@
 package org.dip.tus.room;
 
 import org.dip.tus.core.AbstractBookingManager;
-import org.dip.tus.customer.Customer;
 import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.report.OccupancyLedger;
+import org.dip.tus.report.RevenueLedger;
+import org.dip.tus.util.EpochTime;
+import org.dip.tus.util.FixedPoint;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 
 /**
  * Singleton Manages room entities and room bookings, including their initialization, availability,
- * and cost calculation.
+ * and cost calculation. Costs are priced from a {@link RateCalendar} that can be swapped at any time.
  */
 public class RoomManager extends AbstractBookingManager<Room, RoomBooking> {
 
     private static final RoomManager instance = new RoomManager();
+    private final AtomicReference<RateCalendar> rateCalendar = new AtomicReference<>();
 
     private RoomManager() {
+        addBookingListener(RevenueLedger.getInstance().listener());
+        addBookingListener(OccupancyLedger.getInstance().listener());
         initialiseRooms();
+        rateCalendar.set(standardRateCalendar());
     }
 
     public static RoomManager getInstance() {
@@ -36,6 +47,40 @@ public class RoomManager extends AbstractBookingManager<Room, RoomBooking> {
         IntStream.rangeClosed(16, 20).forEach(i -> addEntity(new Room(i, RoomType.QUEEN)));
     }
 
+    /**
+     * Builds the calendar of each room type's base cost, with the weekend multiplier and no seasonal rates.
+     */
+    private RateCalendar standardRateCalendar() {
+        Map<RoomType, Double> baseRates = new EnumMap<>(RoomType.class);
+        for (Room room : getAllEntities()) {
+            baseRates.putIfAbsent(room.getRoomType(), room.getBaseCost());
+        }
+        return new RateCalendar(baseRates, RateCalendar.WEEKEND_MULTIPLIER);
+    }
+
+    /**
+     * Retrieves the rooms of one type that are free for a whole time range. The answer is reused until the next
+     * booking change.
+     *
+     * @param roomType The room type.
+     * @param start    The start of the time range.
+     * @param end      The end of the time range.
+     * @return An unmodifiable list of the free rooms of that type, in room number order.
+     */
+    public List<Room> getRoomsAvailableBetween(RoomType roomType, LocalDateTime start, LocalDateTime end) {
+        return cachedQuery(new RoomTypeAvailabilityQuery(roomType, start, end), () ->
+                getEntitiesAvailableBetween(start, end)
+                        .stream()
+                        .filter(room -> room.getRoomType() == roomType)
+                        .toList());
+    }
+
+    /**
+     * A query for the rooms of one type free for a whole time range.
+     */
+    private record RoomTypeAvailabilityQuery(RoomType roomType, LocalDateTime start, LocalDateTime end) {
+    }
+
     /**
      * Displays a list of available rooms, grouped by room type, and includes booking counts.
      *
@@ -63,53 +108,28 @@ public class RoomManager extends AbstractBookingManager<Room, RoomBooking> {
             System.out.printf(color + "| %-11d | %-13s | %-14d |\n" + ConsoleColour.RESET,
                     room.getRoomNumber(),
                     room.getRoomType(),
-                    room.getAllBookings().size());
+                    room.getBookingCount());
         }
         System.out.println(ConsoleColour.BLUE + "+---------------------------------------------+" + ConsoleColour.RESET);
     }
 
-    /**
-     * Retrieves all bookings associated with a given customer.
-     *
-     * @param customer the customer whose bookings are to be retrieved.
-     * @return a list of room bookings for the specified customer.
-     */
-    public List<RoomBooking> getAllBookingsForCustomer(Customer customer) {
-        return getAllEntities()
-                .stream()
-                .flatMap(room -> room.getAllBookings().stream())
-                .filter(booking -> booking.getCustomer().equals(customer))
-                .collect(Collectors.toList());
-    }
-
     /**
      * Calculates the cost of booking a specific room over a given time period given a booking and a room object
-     * factoring in the higher weekend rate of 1.5* base cost
+     * factoring in the higher weekend rate of 1.5* base cost and any seasonal rate
      *
      * @param roomBooking the room booking whose cost is to be calculated.
      * @return the total cost of the booking.
      */
     public double calculateCostForBooking(RoomBooking roomBooking) {
-        long days = java.time.temporal.ChronoUnit.DAYS.between(roomBooking.getBookingDateTimeStart().toLocalDate(), roomBooking.getBookingDateTimeEnd().toLocalDate());
-        Room room = roomBooking.getRoom();
-        double baseCost = room.getBaseCost();
-        double totalCost = 0;
-
-        LocalDateTime currentTime = roomBooking.getBookingDateTimeStart();
-        for (int i = 0; i < days; i++) {
-            double dailyRate = baseCost;
-            if (isWeekend(currentTime)) {
-                dailyRate *= 1.5; // Weekend multiplier
-            }
-            totalCost += dailyRate;
-            currentTime = currentTime.plusDays(1);
-        }
-        return totalCost;
+        return FixedPoint.toDouble(rateCalendar.get().price(roomBooking.getRoom().getRoomType(),
+                EpochTime.toEpochDay(roomBooking.getBookingStartEpochSecond()),
+                EpochTime.toEpochDay(roomBooking.getBookingEndEpochSecond())));
     }
 
     /**
      * Calculates the cost of booking a specific room over a given time period given dates and a room object
-     * factoring in the higher weekend rate of 1.5* base cost
+     * factoring in the higher weekend rate of 1.5* base cost and any seasonal rate.
+     * Priced in constant time from the current {@link RateCalendar}.
      *
      * @param room  the room being booked.
      * @param start the start time of the booking.
@@ -117,19 +137,37 @@ public class RoomManager extends AbstractBookingManager<Room, RoomBooking> {
      * @return the total cost for the specified dates.
      */
     public double calculateCostForDates(Room room, LocalDateTime start, LocalDateTime end) {
-        long days = java.time.temporal.ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate());
-        double baseCost = room.getBaseCost();
-        double totalCost = 0;
-
-        LocalDateTime currentTime = start;
-        for (int i = 0; i < days; i++) {
-            double dailyRate = baseCost;
-            if (isWeekend(currentTime)) {
-                dailyRate *= 1.5;
-            }
-            totalCost += dailyRate;
-            currentTime = currentTime.plusDays(1);
-        }
-        return totalCost;
+        return rateCalendar.get().price(room.getRoomType(), start, end);
+    }
+
+    /**
+     * Retrieves the rate calendar quotes are currently priced from.
+     *
+     * @return The current calendar.
+     */
+    public RateCalendar getRateCalendar() {
+        return rateCalendar.get();
+    }
+
+    /**
+     * Replaces the rate calendar. Quotes already under way finish with the calendar they started with, and
+     * nothing waits for the swap.
+     *
+     * @param calendar The new calendar.
+     */
+    public void setRateCalendar(RateCalendar calendar) {
+        rateCalendar.set(Objects.requireNonNull(calendar));
+    }
+
+    /**
+     * Replaces the rate calendar with a changed copy of the current one, for example one with a
+     * {@link RateCalendar#withSeasonalRate seasonal rate} added. If another change lands first, the update is applied
+     * again to the newer calendar, so no change is lost.
+     *
+     * @param update Creates the new calendar from the current one.
+     * @return The new calendar.
+     */
+    public RateCalendar updateRateCalendar(UnaryOperator<RateCalendar> update) {
+        return rateCalendar.updateAndGet(update);
     }
 }
@@ -1,9 +1,34 @@
 package org.dip.tus.runner;
 
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.BookingArchiver;
+import org.dip.tus.core.BookingStore;
 import org.dip.tus.menu.Menu;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.persistence.PersistenceManager;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 public class Main {
-    public static void main(String[] args) {
-        Menu.displayMenu();
+    public static void main(String[] args) throws IOException {
+        Path dataDirectory = Path.of("data");
+        List<AbstractBookingManager<?, ?>> managers = List.of(RoomManager.getInstance(),
+                RestaurantManager.getInstance(), ParkingLotManager.getInstance());
+        Files.createDirectories(dataDirectory);
+        // The archive store is set before history is restored into it, and closed after the final checkpoint
+        try (BookingStore archiveStore = BookingStore.open(dataDirectory.resolve("archive.store"))) {
+            managers.forEach(manager -> manager.setArchiveStore(archiveStore));
+            try (PersistenceManager persistenceManager = PersistenceManager.open(dataDirectory)) {
+                persistenceManager.scheduleCheckpoints(Duration.ofMinutes(10));
+                new BookingArchiver(managers, Duration.ofMinutes(5)).start();
+                Menu.displayMenu();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package org.dip.tus.service;
+
+import org.dip.tus.io.BookingExporter;
+import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.util.InputHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Singleton Service class for exporting bookings and reports to CSV or JSON lines files.
+ */
+public final class ExportService {
+
+    private static final ExportService instance = new ExportService();
+    private final BookingExporter bookingExporter = new BookingExporter();
+
+    private ExportService() {
+    }
+
+    public static ExportService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Prompts for what to export and the file to write it to, then writes the export.
+     * Files ending in {@code .jsonl} are written as JSON lines, anything else as CSV.
+     */
+    public void handleExport() {
+        System.out.println("1) All Customers and Bookings");
+        System.out.println("2) Customer Booking Report");
+        System.out.println("3) Financial Report");
+        int choice = InputHelper.parseInt("Select what to export [1-3]: ");
+        if (choice < 1 || choice > 3) {
+            System.out.println("Invalid option.");
+            return;
+        }
+        Path file = Path.of(InputHelper.parseString("Enter the path of the CSV or JSON lines file to write: "));
+        try {
+            long rows = switch (choice) {
+                case 1 -> bookingExporter.exportBookings(file);
+                case 2 -> bookingExporter.exportCustomerReport(file);
+                default -> bookingExporter.exportFinancialReport(file);
+            };
+            System.out.println(ConsoleColour.GREEN + "Exported " + rows + " rows to " + file + ConsoleColour.RESET);
+        } catch (IOException e) {
+            System.out.println(ConsoleColour.RED + "Export failed: " + e.getMessage() + ConsoleColour.RESET);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.dip.tus.service;
+
+import org.dip.tus.io.BookingImporter;
+import org.dip.tus.io.ImportReport;
+import org.dip.tus.menu.ConsoleColour;
+import org.dip.tus.util.InputHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Singleton Service class for bulk importing customers and bookings from CSV or JSON lines files.
+ */
+public final class ImportService {
+
+    private static final ImportService instance = new ImportService();
+
+    private ImportService() {
+    }
+
+    public static ImportService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Prompts for a file to import, imports it and displays the import report.
+     */
+    public void handleImport() {
+        Path file = Path.of(InputHelper.parseString("Enter the path of the CSV or JSON lines file to import: "));
+        if (!Files.isRegularFile(file)) {
+            System.out.println(ConsoleColour.RED + "File not found: " + file + ConsoleColour.RESET);
+            return;
+        }
+        try {
+            ImportReport report = new BookingImporter().importFrom(file);
+            report.display();
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println(ConsoleColour.RED + "Import failed: " + e.getMessage() + ConsoleColour.RESET);
+        }
+    }
+}
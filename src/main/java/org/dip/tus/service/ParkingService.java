@@ -40,6 +40,10 @@ public final class ParkingService implements BookingDisplay<ParkingBooking> {
         LocalDate dob = InputHelper.parseDateOfBirth("Enter customer date of birth (YYYY-MM-DD): ");
 
         String vehicleRegistration = InputHelper.parseString("Enter vehicle registration number: ");
+        while (!ParkingBooking.isValidRegistration(vehicleRegistration)) {
+            System.out.println("Registration must be 1 to " + ParkingBooking.MAX_REGISTRATION_BYTES + " characters.");
+            vehicleRegistration = InputHelper.parseString("Enter vehicle registration number: ");
+        }
 
         LocalDateTime startTime = null;
         while (startTime == null || startTime.isBefore(LocalDateTime.now())) {
@@ -85,38 +89,29 @@ public final class ParkingService implements BookingDisplay<ParkingBooking> {
     }
 
     /**
-     * Handles the removal of a parking reservation for a specific customer.
+     * Handles the removal of a parking reservation, found by its booking ID.
      */
     public void removeParkingReservation() {
-        String customerName = "";
-        while (customerName.isBlank()) {
-            customerName = InputHelper.parseString("Enter name of customer who made the reservation: ");
-            if (customerName.isBlank()) System.out.println("Name cannot be blank");
+        String bookingId = "";
+        while (bookingId.isBlank()) {
+            bookingId = InputHelper.parseString("Enter the ID of the booking to remove (e.g. P42): ").trim();
+            if (bookingId.isBlank()) System.out.println("Booking ID cannot be blank");
         }
-        LocalDate dob = InputHelper.parseDateOfBirth("Enter customer date of birth (YYYY-MM-DD): ");
 
-        Customer customer = customerManager.getCustomer(customerName, dob);
-        List<ParkingBooking> customerBookings = parkingLotManager.getAllBookingsForCustomer(customer);
-        if (customerBookings.isEmpty()) {
+        ParkingBooking bookingToRemove = parkingLotManager.findBookingById(bookingId);
+        if (bookingToRemove == null) {
             System.out.println(ConsoleColour.RED);
-            System.out.println("No bookings found for this customer.");
+            System.out.println("No parking booking found with ID " + bookingId + ".");
             System.out.println(ConsoleColour.RESET);
             return;
         }
 
-        displayBookings(customerBookings);
-
-        int bookingIndexToRemove = 0;
-        while (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size()) {
-            bookingIndexToRemove = InputHelper.parseInt("Enter the number of the booking to remove: ");
-            if (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size()) {
-                System.out.println("Invalid index. Please try again.");
-            }
+        displayBookings(List.of(bookingToRemove));
+        if (parkingLotManager.removeBookingById(bookingId)) {
+            System.out.println("Successfully removed booking " + bookingToRemove.generateBookingID());
+        } else {
+            System.out.println("Booking " + bookingToRemove.generateBookingID() + " was already removed.");
         }
-
-        ParkingBooking bookingToRemove = customerBookings.get(bookingIndexToRemove - 1);
-        parkingLotManager.removeBookingFromEntity(bookingToRemove.getParkingSpot().getId(), bookingToRemove);
-        System.out.println("Successfully removed the booking at index " + bookingIndexToRemove);
     }
 }
 
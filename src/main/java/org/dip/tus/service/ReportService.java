@@ -3,29 +3,53 @@ package org.dip.tus.service;
 import org.dip.tus.customer.Customer;
 import org.dip.tus.customer.CustomerManager;
 import org.dip.tus.menu.ConsoleColour;
-import org.dip.tus.parking.ParkingBooking;
 import org.dip.tus.parking.ParkingLotManager;
-import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.report.BookingReports;
+import org.dip.tus.report.BookingType;
+import org.dip.tus.report.OccupancyLedger;
+import org.dip.tus.report.ParallelReportEngine;
+import org.dip.tus.report.RevenueLedger;
+import org.dip.tus.restaurant.MealEnum;
 import org.dip.tus.restaurant.RestaurantManager;
-import org.dip.tus.room.RoomBooking;
 import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.FixedPoint;
+import org.dip.tus.util.ResultCache;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Singleton Service class for generating various reports related to customers, bookings, and finances.
+ * Reports that walk every booking are kept in a {@link ResultCache} and printed again without being rebuilt
+ * until a booking or customer changes.
  */
 public class ReportService {
 
     private static final ReportService instance = new ReportService();
-    private static final ParkingService parkingService = ParkingService.getInstance();
-    private static final RestaurantService restaurantService = RestaurantService.getInstance();
-    private static final RestaurantManager restaurantManager = RestaurantManager.getInstance();
-    private static final RoomService roomService = RoomService.getInstance();
+    private static final RevenueLedger revenueLedger = RevenueLedger.getInstance();
+    private static final OccupancyLedger occupancyLedger = OccupancyLedger.getInstance();
     private static final RoomManager roomManager = RoomManager.getInstance();
     private static final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private static final RestaurantManager restaurantManager = RestaurantManager.getInstance();
     private static final CustomerManager customerManager = CustomerManager.getInstance();
+    private static final int MAX_CACHED_REPORT_CHARS = 1 << 22;
+    // Holds up to 8 million characters of report text, the least recently printed dropped first
+    private static final ResultCache<ReportQuery, String> reportCache =
+            new ResultCache<>(2L * MAX_CACHED_REPORT_CHARS, String::length);
+    // Only worth its threads when there is more than one core to spread the work over
+    private static final ParallelReportEngine parallelReportEngine =
+            Runtime.getRuntime().availableProcessors() > 1 ? new ParallelReportEngine() : null;
 
     private ReportService() {
     }
@@ -35,116 +59,265 @@ public class ReportService {
     }
 
     /**
-     * Outputs a detailed report of all customers and their respective bookings (room, parking, and restaurant).
+     * Outputs a detailed report of the given customers and their respective bookings (room, parking, and restaurant).
      * Also calculates the total expenditure for all customers.
      * Var args either one or many customers
      *
      * @param customers Customers for whom the booking report will be generated.
      */
     public void generateCustomerBookingReport(Customer... customers) {
-        System.out.println("Customer Booking Report:");
-        System.out.println("----------------------------------------------------");
-        double totalExpenditure = 0;
+        printCached(new ReportQuery("customers", Arrays.asList(customers)),
+                out -> BookingReports.writeCustomerBookingReport(out, customers));
+    }
 
-        for (Customer customer : customers) {
-            if (Objects.isNull(customer)) {
-                System.out.println("No Customer by that name/dob");
-                break;
+    /**
+     * Outputs the customer booking report for every registered customer, grouping the bookings on every core when
+     * there is more than one.
+     */
+    public void generateAllCustomersBookingReport() {
+        printCached(new ReportQuery("all customers", List.of()), out -> {
+            if (parallelReportEngine != null) {
+                parallelReportEngine.writeAllCustomersBookingReport(out);
+            } else {
+                BookingReports.writeAllCustomersBookingReport(out);
             }
-            System.out.println(ConsoleColour.BLUE + "Customer: " + customer.name() +
-                    " (DOB: " + customer.dateOfBirth() + ")" + ConsoleColour.RESET);
-
-            // Room Bookings
-            List<RoomBooking> roomBookings = roomService.getAllBookingsForCustomer(customer);
-            if (!roomBookings.isEmpty()) {
-                System.out.println(ConsoleColour.GREEN + "  Room Bookings:" + ConsoleColour.RESET);
-                totalExpenditure += roomBookings.stream()
-                        .peek(booking -> {
-                            double cost = roomManager.calculateCostForBooking(booking);
-                            System.out.println("    - " + booking + " | Cost: €" + cost);
-                        })
-                        .mapToDouble(roomManager::calculateCostForBooking)
-                        .sum();
+        });
+    }
+
+    /**
+     * Outputs a summary report of all bookings categorized by type (Room, Parking, and Restaurant), rendering the
+     * bookings on every core when there is more than one.
+     */
+    public void generateBookingSummaryReport() {
+        printCached(new ReportQuery("summary", List.of()), out -> {
+            if (parallelReportEngine != null) {
+                parallelReportEngine.writeBookingSummaryReport(out);
+            } else {
+                BookingReports.writeBookingSummaryReport(out);
             }
+        });
+    }
 
-            // Parking Bookings
-            List<ParkingBooking> parkingBookings = parkingLotManager.getAllBookingsForCustomer(customer);
-            if (!parkingBookings.isEmpty()) {
-                System.out.println(ConsoleColour.YELLOW + "  Parking Bookings:" + ConsoleColour.RESET);
-                totalExpenditure += parkingBookings.stream()
-                        .peek(booking -> {
-                            double cost = booking.getCost();
-                            System.out.println("    - " + booking + " | Cost: €" + cost);
-                        })
-                        .mapToDouble(ParkingBooking::getCost)
-                        .sum();
+    /**
+     * A report and the customers it was asked for.
+     */
+    private record ReportQuery(String report, List<Customer> customers) {
+    }
+
+    /**
+     * Prints a report from the report cache if it was last written with the current bookings and customers.
+     * Otherwise the report is written straight to the console as usual while a copy is kept for the cache, unless
+     * it turns out longer than {@value #MAX_CACHED_REPORT_CHARS} characters.
+     */
+    private static void printCached(ReportQuery query, Consumer<PrintWriter> report) {
+        // Read before writing the report, so a report racing with a change is never served after it
+        long version = roomManager.getVersion() + parkingLotManager.getVersion()
+                + restaurantManager.getVersion() + customerManager.getVersion();
+        PrintWriter console = consoleWriter();
+        String cached = reportCache.getIfPresent(query, version);
+        if (cached != null) {
+            console.print(cached);
+            console.flush();
+            return;
+        }
+        CapturingWriter capture = new CapturingWriter(console, MAX_CACHED_REPORT_CHARS);
+        PrintWriter out = new PrintWriter(capture);
+        report.accept(out);
+        out.flush();
+        String text = capture.getCaptured();
+        if (text != null) {
+            reportCache.put(query, version, text);
+        }
+    }
+
+    /**
+     * Passes everything written on to another writer, keeping a copy until it grows past a limit.
+     */
+    private static final class CapturingWriter extends Writer {
+        private final Writer out;
+        private final int limit;
+        private StringBuilder captured = new StringBuilder();
+
+        private CapturingWriter(Writer out, int limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            out.write(chars, offset, length);
+            if (keep(length)) {
+                captured.append(chars, offset, length);
             }
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            out.write(text, offset, length);
+            if (keep(length)) {
+                captured.append(text, offset, offset + length);
+            }
+        }
 
-            // Restaurant Bookings
-            List<RestaurantBooking> restaurantBookings = restaurantManager.getAllBookingsForCustomer(customer);
-            if (!restaurantBookings.isEmpty()) {
-                System.out.println(ConsoleColour.PURPLE + "  Restaurant Bookings:" + ConsoleColour.RESET);
-                totalExpenditure += restaurantBookings.stream()
-                        .peek(booking -> {
-                            double cost = booking.getCost();
-                            System.out.println("    - " + booking + " | Cost: €" + cost);
-                        })
-                        .mapToDouble(RestaurantBooking::getCost)
-                        .sum();
+        private boolean keep(int length) {
+            if (captured != null && captured.length() + length > limit) {
+                captured = null;
             }
+            return captured != null;
+        }
+
+        /**
+         * @return Everything written, or {@code null} if it grew past the limit.
+         */
+        private String getCaptured() {
+            return captured == null ? null : captured.toString();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
 
-            System.out.println("----------------------------------------------------");
+        @Override
+        public void close() throws IOException {
+            flush();
         }
+    }
 
-        System.out.println(ConsoleColour.RED + "Total Expenditure: €" + totalExpenditure + ConsoleColour.RESET);
+    /**
+     * Outputs the hit and miss statistics of the report cache and of each manager's availability query cache.
+     */
+    public void displayCacheStatistics() {
+        System.out.println(ConsoleColour.BLUE + "+---------------------------------------------------------------------+");
+        System.out.println("|                           Cache Statistics                          |");
+        System.out.println("+---------------------------------------------------------------------+");
+        System.out.println("| Cache        |       Hits |     Misses |  Evictions |  Size | Hit % |");
+        System.out.println("+--------------+------------+------------+------------+-------+-------+" + ConsoleColour.RESET);
+        printCacheStats("Reports", reportCache.getStats());
+        printCacheStats("Rooms", roomManager.getQueryCacheStats());
+        printCacheStats("Parking", parkingLotManager.getQueryCacheStats());
+        printCacheStats("Restaurant", restaurantManager.getQueryCacheStats());
+        System.out.println(ConsoleColour.BLUE + "+--------------+------------+------------+------------+-------+-------+" + ConsoleColour.RESET);
+    }
+
+    private static void printCacheStats(String name, ResultCache.Stats stats) {
+        System.out.printf(ConsoleColour.CYAN + "| %-12s | %10d | %10d | %10d | %5d | %5.1f |\n" + ConsoleColour.RESET,
+                name, stats.hits(), stats.misses(), stats.evictions(), stats.size(), stats.hitRate() * 100);
     }
 
     /**
-     * Outputs a summary report of all bookings categorized by type (Room, Parking, and Restaurant).
+     * Creates a buffered writer over the console, so that a long report is not flushed line by line.
+     * Callers flush it and never close it.
      */
-    public void generateBookingSummaryReport() {
-        System.out.println("Booking Summary Report:");
+    private static PrintWriter consoleWriter() {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), 1 << 16));
+    }
+
+    /**
+     * Outputs a financial report displaying the total revenue generated from room, parking, and restaurant bookings,
+     * broken down by room type, parking section and meal. Read from the running totals of the {@link RevenueLedger},
+     * so it takes the same time however many bookings there are.
+     */
+    public void generateFinancialReport() {
+        System.out.println("Financial Report:");
         System.out.println("----------------------------------------------------");
 
-        System.out.println(ConsoleColour.GREEN + "Room Bookings:" + ConsoleColour.RESET);
-        if (roomService.getAllBookings().isEmpty()) System.out.println("No Bookings to Display\n");
-        else roomService.getAllBookings().forEach(System.out::println);
+        System.out.println(ConsoleColour.GREEN + "Total Room Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenue(BookingType.ROOM)) + ConsoleColour.RESET);
+        revenueLedger.getRevenueByRoomType().forEach((roomType, revenue) ->
+                System.out.println("    " + roomType + ": €" + FixedPoint.format(revenue)));
 
-        System.out.println(ConsoleColour.YELLOW + "Parking Bookings:" + ConsoleColour.RESET);
-        if (parkingService.getAllBookings().isEmpty()) System.out.println("No Bookings to Display\n");
-        else parkingService.getAllBookings().forEach(System.out::println);
+        System.out.println(ConsoleColour.YELLOW + "Total Parking Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenue(BookingType.PARKING)) + ConsoleColour.RESET);
+        revenueLedger.getRevenueByParkingSection().forEach((section, revenue) ->
+                System.out.println("    Section " + section + ": €" + FixedPoint.format(revenue)));
 
-        System.out.println(ConsoleColour.PURPLE + "Restaurant Bookings:" + ConsoleColour.RESET);
-        if (restaurantService.getAllBookings().isEmpty()) System.out.println("No Bookings to Display\n");
-        else restaurantService.getAllBookings().forEach(System.out::println);
+        System.out.println(ConsoleColour.PURPLE + "Total Restaurant Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenue(BookingType.RESTAURANT)) + ConsoleColour.RESET);
+        revenueLedger.getRevenueByMealType().forEach((mealType, revenue) ->
+                System.out.println("    " + mealType + ": €" + FixedPoint.format(revenue)));
 
+        System.out.println(ConsoleColour.BLUE + "Total Revenue: €"
+                + FixedPoint.format(revenueLedger.getTotalRevenue()) + ConsoleColour.RESET);
         System.out.println("----------------------------------------------------");
     }
 
     /**
-     * Outputs a financial report displaying the total revenue generated from room, parking, and restaurant bookings.
+     * Outputs the revenue of the bookings starting within a range of days, per booking type.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
      */
-    public void generateFinancialReport() {
-        System.out.println("Financial Report:");
+    public void generateFinancialReport(LocalDate from, LocalDate to) {
+        System.out.println("Financial Report from " + from + " to " + to + ":");
         System.out.println("----------------------------------------------------");
+        System.out.println(ConsoleColour.GREEN + "Room Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenueBetween(BookingType.ROOM, from, to)) + ConsoleColour.RESET);
+        System.out.println(ConsoleColour.YELLOW + "Parking Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenueBetween(BookingType.PARKING, from, to)) + ConsoleColour.RESET);
+        System.out.println(ConsoleColour.PURPLE + "Restaurant Revenue: €"
+                + FixedPoint.format(revenueLedger.getRevenueBetween(BookingType.RESTAURANT, from, to)) + ConsoleColour.RESET);
+        System.out.println(ConsoleColour.BLUE + "Total Revenue: €"
+                + FixedPoint.format(revenueLedger.getTotalRevenueBetween(from, to)) + ConsoleColour.RESET);
+        System.out.println("----------------------------------------------------");
+    }
 
-        double roomRevenue = roomService.getAllBookings().stream()
-                .mapToDouble(roomManager::calculateCostForBooking)
-                .sum();
-        System.out.println(ConsoleColour.GREEN + "Total Room Revenue: €" + roomRevenue + ConsoleColour.RESET);
-
-        double parkingRevenue = parkingService.getAllBookings().stream()
-                .mapToDouble(parkingLotManager::calculateCostForBooking)
-                .sum();
-        System.out.println(ConsoleColour.YELLOW + "Total Parking Revenue: €" + parkingRevenue + ConsoleColour.RESET);
-
-        double restaurantRevenue = restaurantService.getAllBookings().stream()
-                .mapToDouble(RestaurantBooking::getCost)
-                .sum();
-        System.out.println(ConsoleColour.PURPLE + "Total Restaurant Revenue: €" + restaurantRevenue + ConsoleColour.RESET);
+    /**
+     * Outputs the occupancy of each room type and parking section and the restaurant covers of each meal over a
+     * range of days: the total against capacity and the busiest day. Read from the per-day counters of the
+     * {@link OccupancyLedger}, so it takes time in proportion to the days in the range, not the bookings.
+     *
+     * @param from The first day.
+     * @param to   The last day, inclusive.
+     */
+    public void generateOccupancyReport(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            System.out.println(ConsoleColour.RED + "The last day must not be before the first day." + ConsoleColour.RESET);
+            return;
+        }
+        Map<RoomType, Integer> rooms = new EnumMap<>(RoomType.class);
+        roomManager.getAllEntities().forEach(room -> rooms.merge(room.getRoomType(), 1, Integer::sum));
+        Map<Character, Integer> spots = new TreeMap<>();
+        parkingLotManager.getAllEntities().forEach(spot -> spots.merge(spot.getSection(), 1, Integer::sum));
 
-        double totalRevenue = roomRevenue + parkingRevenue + restaurantRevenue;
-        System.out.println(ConsoleColour.BLUE + "Total Revenue: €" + totalRevenue + ConsoleColour.RESET);
+        System.out.println("Occupancy Report from " + from + " to " + to + ":");
+        System.out.println("----------------------------------------------------");
+        System.out.println(ConsoleColour.GREEN + "Room Nights Occupied:" + ConsoleColour.RESET);
+        rooms.forEach((roomType, count) -> printOccupancy(roomType.toString(),
+                occupancyLedger.getOccupiedRooms(roomType, from, to), count, from));
+        System.out.println(ConsoleColour.YELLOW + "Parking Spot Days Occupied:" + ConsoleColour.RESET);
+        spots.forEach((section, count) -> printOccupancy("Section " + section,
+                occupancyLedger.getOccupiedSpots(section, from, to), count, from));
+        System.out.println(ConsoleColour.PURPLE + "Restaurant Covers:" + ConsoleColour.RESET);
+        for (MealEnum mealType : MealEnum.values()) {
+            printOccupancy(mealType.toString(), occupancyLedger.getCovers(mealType, from, to), 0, from);
+        }
         System.out.println("----------------------------------------------------");
     }
+
+    /**
+     * Prints the total of a run of daily counts and its busiest day, as a share of capacity when there is one.
+     */
+    private static void printOccupancy(String label, long[] counts, int capacityPerDay, LocalDate from) {
+        long total = 0;
+        int busiest = 0;
+        for (int day = 0; day < counts.length; day++) {
+            total += counts[day];
+            if (counts[day] > counts[busiest]) {
+                busiest = day;
+            }
+        }
+        StringBuilder line = new StringBuilder("    ").append(label).append(": ").append(total);
+        if (capacityPerDay > 0) {
+            long capacity = (long) capacityPerDay * counts.length;
+            line.append(" of ").append(capacity).append(String.format(" (%.1f%%)", 100.0 * total / capacity));
+        }
+        if (total > 0) {
+            line.append(", busiest ").append(from.plusDays(busiest)).append(" with ").append(counts[busiest]);
+            if (capacityPerDay > 0) {
+                line.append(" of ").append(capacityPerDay);
+            }
+        }
+        System.out.println(line);
+    }
 }
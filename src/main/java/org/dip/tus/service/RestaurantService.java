@@ -63,17 +63,15 @@ public final class RestaurantService implements BookingDisplay<RestaurantBooking
 
         Customer customer = customerManager.getCustomerOrAdd(customerName, dob);
 
-        LocalDateTime finalStartTime = startTime;
-        Table suitableTable = restaurantManager.getAllEntities()
+        List<Table> availableTables = restaurantManager.getEntitiesAvailableBetween(startTime, endTime);
+        Table suitableTable = availableTables
                 .stream()
                 .filter(t -> t.getNumberofSeats() == numberOfPeople)
-                .filter(t -> !t.doesBookingClash(finalStartTime, endTime))
                 .findAny()
                 .orElseGet(() ->
-                        restaurantManager.getAllEntities()
+                        availableTables
                                 .stream()
                                 .filter(t -> t.getNumberofSeats() > numberOfPeople)
-                                .filter(t -> !t.doesBookingClash(finalStartTime, endTime))
                                 .findAny()
                                 .orElse(null));
 
@@ -107,49 +105,32 @@ public final class RestaurantService implements BookingDisplay<RestaurantBooking
 
     /**
      * Handles the process of removing a restaurant reservation.
-     * Prompts the user for customer details and allows selection of the reservation to be removed.
+     * Prompts the user for the booking ID of the reservation to be removed.
      */
     public void removeRestaurantReservation() {
-        String customerName;
+        String bookingId;
         do {
-            customerName = InputHelper.parseString("Enter name of customer who made reservation: ").trim();
-            if (customerName.isBlank()) {
-                System.out.println("Name cannot be blank");
-            } else {
-                try {
-                    if (Integer.parseInt(customerName) == -1) return;
-                } catch (NumberFormatException ignored) {
-                }
+            bookingId = InputHelper.parseString("Enter the ID of the reservation to remove (e.g. D42): ").trim();
+            if (bookingId.isBlank()) {
+                System.out.println("Booking ID cannot be blank");
+            } else if (bookingId.equals("-1")) {
+                return;
             }
-        } while (customerName.isBlank());
-
-        LocalDate dob = InputHelper.parseDateOfBirth("Enter customer date of birth (YYYY-MM-DD): ");
-
-        Customer customer = customerManager.getCustomer(customerName, dob);
-        List<RestaurantBooking> customerBookings = restaurantManager.getAllBookingsForCustomer(customer);
+        } while (bookingId.isBlank());
 
-        if (customerBookings.isEmpty()) {
+        RestaurantBooking bookingToRemove = restaurantManager.findBookingById(bookingId);
+        if (bookingToRemove == null) {
             System.out.println(ConsoleColour.RED);
-            System.out.println("No Bookings for this customer.");
+            System.out.println("No reservation found with ID " + bookingId + ".");
             System.out.println(ConsoleColour.RESET);
             return;
         }
 
-        displayBookings(customerBookings);
-
-        int bookingIndexToRemove;
-        do {
-            bookingIndexToRemove = InputHelper.parseInt("Enter number of booking to remove: ");
-            if (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size()) {
-                System.out.println("Invalid Index");
-            }
-        } while (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size());
-
-        RestaurantBooking bookingToRemove = customerBookings.get(bookingIndexToRemove - 1);
-        restaurantManager.removeBookingFromEntity(
-                String.valueOf(bookingToRemove.getTable().getTableNumber()),
-                bookingToRemove
-        );
-        System.out.println("Removed the Booking at " + bookingIndexToRemove);
+        displayBookings(List.of(bookingToRemove));
+        if (restaurantManager.removeBookingById(bookingId)) {
+            System.out.println("Removed the Booking " + bookingToRemove.generateBookingID());
+        } else {
+            System.out.println("Booking " + bookingToRemove.generateBookingID() + " was already removed.");
+        }
     }
 }
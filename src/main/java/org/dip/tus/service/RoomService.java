@@ -38,11 +38,7 @@ public final class RoomService implements BookingDisplay<RoomBooking> {
      * @return A list of {@link RoomBooking} associated with the customer.
      */
     public List<RoomBooking> getAllBookingsForCustomer(Customer customer) {
-        return roomManager.getAllEntities()
-                .stream()
-                .flatMap(room -> room.getAllBookings().stream())
-                .filter(booking -> booking.getCustomer().equals(customer))
-                .collect(Collectors.toList());
+        return roomManager.getAllBookingsForCustomer(customer);
     }
 
     public List<RoomBooking> getAllBookings() {
@@ -80,11 +76,7 @@ public final class RoomService implements BookingDisplay<RoomBooking> {
 
         Customer customer = customerManager.getCustomerOrAdd(customerName, dob);
 
-        List<Room> availableRooms = roomManager.getAllEntities()
-                .stream()
-                .filter(r -> r.getRoomType().equals(roomType))
-                .filter(r -> !r.doesBookingClash(bookingStart, bookingEnd))
-                .collect(Collectors.toList());
+        List<Room> availableRooms = roomManager.getRoomsAvailableBetween(roomType, bookingStart, bookingEnd);
 
         if (availableRooms.isEmpty()) {
             System.out.println("No rooms of this type are available for the selected dates.");
@@ -121,32 +113,28 @@ public final class RoomService implements BookingDisplay<RoomBooking> {
 
     /**
      * Handles the removal of a room booking.
-     * Prompts the user for customer details and allows selection of the booking to be removed.
+     * Prompts the user for the booking ID of the booking to be removed.
      */
     public void removeRoomBooking() {
-        String customerName = "";
-        while (customerName.isBlank()) {
-            customerName = InputHelper.parseString("Enter name of customer who made reservation: ");
-            if (customerName.isBlank()) System.out.println("Name cannot be blank");
+        String bookingId = "";
+        while (bookingId.isBlank()) {
+            bookingId = InputHelper.parseString("Enter the ID of the booking to remove (e.g. R42): ").trim();
+            if (bookingId.isBlank()) System.out.println("Booking ID cannot be blank");
         }
-        LocalDate dob = InputHelper.parseDateOfBirth("Enter customer date of birth (YYYY-MM-DD): ");
 
-        Customer customer = customerManager.getCustomer(customerName, dob);
-        List<RoomBooking> customerBookings = roomManager.getAllBookingsForCustomer(customer);
-        if (customerBookings.isEmpty()) {
+        RoomBooking bookingToRemove = roomManager.findBookingById(bookingId);
+        if (bookingToRemove == null) {
             System.out.println(ConsoleColour.RED);
-            System.out.println("No Bookings for this customer.");
+            System.out.println("No room booking found with ID " + bookingId + ".");
             System.out.println(ConsoleColour.RESET);
             return;
         }
-        displayBookings(customerBookings);
+        displayBookings(List.of(bookingToRemove));
 
-        int bookingIndexToRemove = 0;
-        while (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size()) {
-            bookingIndexToRemove = InputHelper.parseInt("Enter number of booking to remove: ");
-            if (bookingIndexToRemove <= 0 || bookingIndexToRemove > customerBookings.size()) System.out.println("Invalid Index");
+        if (roomManager.removeBookingById(bookingId)) {
+            System.out.println("Removed the Booking " + bookingToRemove.generateBookingID());
+        } else {
+            System.out.println("Booking " + bookingToRemove.generateBookingID() + " was already removed.");
         }
-        roomManager.removeBookingFromEntity(customerBookings.get(bookingIndexToRemove - 1).getRoom().getId(), customerBookings.get(bookingIndexToRemove - 1));
-        System.out.println("Removed the Booking at " + bookingIndexToRemove);
     }
 }
@@ -0,0 +1,29 @@
+package org.dip.tus.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Utility class converting between {@link LocalDateTime} and the primitive epoch-second values used
+ * internally for booking times. Booking times are wall-clock times with no zone, so they are mapped
+ * through UTC purely as a numbering scheme.
+ */
+public final class EpochTime {
+
+    public static final long SECONDS_PER_DAY = 86_400;
+
+    private EpochTime() {
+    }
+
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public static long toEpochDay(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+}
@@ -0,0 +1,33 @@
+package org.dip.tus.util;
+
+/**
+ * Utility class converting monetary amounts to and from fixed-point values in hundredths (cents), so that
+ * stored and aggregated costs are exact integers.
+ */
+public final class FixedPoint {
+
+    public static final long SCALE = 100;
+
+    private FixedPoint() {
+    }
+
+    public static long toFixedPoint(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    public static double toDouble(long fixedPoint) {
+        return (double) fixedPoint / SCALE;
+    }
+
+    /**
+     * Formats a fixed-point amount with exactly two decimal places and no grouping or exponent, e.g. {@code 1234.50}.
+     *
+     * @param fixedPoint The amount in hundredths.
+     * @return The formatted amount.
+     */
+    public static String format(long fixedPoint) {
+        long whole = Math.abs(fixedPoint / SCALE);
+        long fraction = Math.abs(fixedPoint % SCALE);
+        return (fixedPoint < 0 ? "-" : "") + whole + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
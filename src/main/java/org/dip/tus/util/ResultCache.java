@@ -0,0 +1,151 @@
+package org.dip.tus.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache of query results, each tagged with the version of the data it was computed from.
+ * <p>
+ * Callers pass the current version with every lookup, taken from counters that only ever go up (for example
+ * {@code AbstractBookingManager#getVersion}). A result is returned only if it was computed at that same version;
+ * otherwise it is computed again and replaces the old one. Changing the data therefore only has to bump a counter,
+ * and nothing is scanned to invalidate. The version must be read before the result is computed, so that a result
+ * racing with a change is tagged with the older version and never served after it.
+ * <p>
+ * The cache holds results up to a total weight and evicts the least recently used first. Results are computed
+ * outside the cache's lock, so a slow query never holds up lookups of other queries. Thread-safe.
+ *
+ * @param <K> The query type. Queries are compared with {@code equals}.
+ * @param <V> The result type. Results are shared between callers, so should be immutable.
+ */
+public final class ResultCache<K, V> {
+
+    /**
+     * A snapshot of a cache's statistics.
+     *
+     * @param hits      The number of lookups answered from the cache.
+     * @param misses    The number of lookups that had to compute their result.
+     * @param evictions The number of results dropped to stay within the maximum weight.
+     * @param size      The number of results held.
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        /**
+         * Calculates the share of lookups answered from the cache.
+         *
+         * @return The hit rate between 0 and 1, 0 before the first lookup.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<V>(long version, V value, long weight) {
+    }
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    // Access order, so the first entry is always the least recently used
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a cache holding up to a number of results.
+     *
+     * @param maxEntries The maximum number of results held.
+     */
+    public ResultCache(int maxEntries) {
+        this(maxEntries, value -> 1);
+    }
+
+    /**
+     * Constructs a cache holding results up to a total weight. A result heavier than the maximum is returned but
+     * never held.
+     *
+     * @param maxWeight The maximum total weight of the results held.
+     * @param weigher   Gives the weight of a result.
+     */
+    public ResultCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Retrieves the result of a query at the given version, computing and caching it if it is not held.
+     *
+     * @param query   The query.
+     * @param version The current version of the data the query reads, read before calling.
+     * @param compute Computes the result when it is not held.
+     * @return The result.
+     */
+    public V get(K query, long version, Supplier<? extends V> compute) {
+        V cached = getIfPresent(query, version);
+        if (cached != null) {
+            return cached;
+        }
+        V value = compute.get();
+        put(query, version, value);
+        return value;
+    }
+
+    /**
+     * Retrieves the result of a query at the given version, without computing it.
+     *
+     * @param query   The query.
+     * @param version The current version of the data the query reads.
+     * @return The held result, or {@code null} if there is none at this version.
+     */
+    public synchronized V getIfPresent(K query, long version) {
+        Entry<V> entry = entries.get(query);
+        if (entry != null && entry.version() == version) {
+            hits++;
+            return entry.value();
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Holds the result of a query, unless a result computed at a later version is already held.
+     *
+     * @param query   The query.
+     * @param version The version of the data the result was computed from.
+     * @param value   The result.
+     */
+    public synchronized void put(K query, long version, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        Entry<V> existing = entries.get(query);
+        if (existing != null && existing.version() > version) {
+            return;
+        }
+        if (existing != null) {
+            entries.remove(query);
+            weight -= existing.weight();
+        }
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(query, new Entry<>(version, value, valueWeight));
+        weight += valueWeight;
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+}
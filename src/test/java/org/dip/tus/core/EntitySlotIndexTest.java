@@ -0,0 +1,75 @@
+package org.dip.tus.core;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntitySlotIndexTest {
+
+    private static final long HOUR = 3600;
+    private static final long NOW = 1_000 * HOUR;
+
+    private final EntitySlotIndex index = new EntitySlotIndex(HOUR, Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+
+    @org.junit.jupiter.api.Test
+    void separatesBusyEntitiesFromOnesNeedingACheck() {
+        for (int i = 0; i < 70; i++) {
+            index.register(0);
+        }
+        index.add(3, NOW, NOW + 2 * HOUR);
+        index.add(68, NOW + HOUR + 1800, NOW + 3 * HOUR);
+
+        EntitySlotIndex.Overlap overlap = index.overlap(NOW + HOUR, NOW + 2 * HOUR);
+        assertEquals(bits(3), overlap.busy());
+        assertEquals(bits(68), overlap.possible());
+        assertEquals(new BitSet(), index.overlap(NOW + 3 * HOUR, NOW + 4 * HOUR).busy());
+    }
+
+    @org.junit.jupiter.api.Test
+    void countsCoveredEntitiesPerGroup() {
+        index.register(0);
+        index.register(1);
+        index.register(1);
+        index.add(1, NOW, NOW + 2 * HOUR);
+        index.add(2, NOW + 600, NOW + HOUR);
+
+        EntitySlotIndex.GroupCounts counts = index.countByGroup(NOW + 1200);
+        assertArrayEquals(new int[]{1, 1}, counts.free());
+        assertEquals(bits(2), counts.possible());
+    }
+
+    @org.junit.jupiter.api.Test
+    void dropsSlotsAsTheyPass() {
+        index.register(0);
+        index.register(0);
+        index.add(0, NOW - 10 * HOUR, NOW - 9 * HOUR);
+        index.add(1, NOW + HOUR, NOW + 2 * HOUR);
+
+        // The past booking's slot was dropped, so every entity needs a check there
+        EntitySlotIndex.Overlap past = index.overlap(NOW - 10 * HOUR, NOW - 9 * HOUR);
+        assertEquals(new BitSet(), past.busy());
+        assertEquals(bits(0, 1), past.possible());
+        assertEquals(bits(1), index.overlap(NOW + HOUR, NOW + 2 * HOUR).busy());
+    }
+
+    @org.junit.jupiter.api.Test
+    void flagsBookingsTooLongToIndex() {
+        index.register(0);
+        index.register(0);
+        index.add(1, NOW, NOW + (EntitySlotIndex.MAX_INDEXED_SLOTS + 1) * HOUR);
+
+        EntitySlotIndex.Overlap overlap = index.overlap(NOW + 5 * HOUR, NOW + 6 * HOUR);
+        assertEquals(bits(1), overlap.possible());
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,83 @@
+package org.dip.tus.core;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyBitmapTest {
+
+    private static final long HOUR = 3600;
+
+    @org.junit.jupiter.api.Test
+    void marksEverySlotARangeTouches() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(HOUR);
+        bitmap.mark(10 * HOUR + 1800, 12 * HOUR);
+
+        assertFalse(bitmap.isFree(10 * HOUR, 10 * HOUR + 60));
+        assertFalse(bitmap.isFree(11 * HOUR, 11 * HOUR + 60));
+        assertTrue(bitmap.isFree(12 * HOUR, 13 * HOUR));
+        assertTrue(bitmap.isFree(8 * HOUR, 10 * HOUR));
+
+        BitSet occupancy = bitmap.occupancy(9 * HOUR, 13 * HOUR);
+        assertEquals(2, occupancy.cardinality());
+        assertTrue(occupancy.get(1));
+        assertTrue(occupancy.get(2));
+
+        bitmap.clear(10 * HOUR + 1800, 12 * HOUR);
+        assertTrue(bitmap.isFree(9 * HOUR, 13 * HOUR));
+    }
+
+    @org.junit.jupiter.api.Test
+    void scansAcrossWordBoundaries() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(HOUR);
+        bitmap.mark(0, HOUR);
+        bitmap.mark(200 * HOUR, 201 * HOUR);
+
+        assertTrue(bitmap.isFree(HOUR, 200 * HOUR));
+        assertFalse(bitmap.isFree(HOUR, 201 * HOUR));
+        BitSet occupancy = bitmap.occupancy(0, 201 * HOUR);
+        assertEquals(0, occupancy.nextSetBit(0));
+        assertEquals(200, occupancy.nextSetBit(1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void farDatedBookingsDoNotGrowTheWindow() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(HOUR);
+        bitmap.mark(0, HOUR);
+        long farAway = (long) OccupancyBitmap.MAX_WINDOW_SLOTS * 10 * HOUR;
+        bitmap.mark(farAway, farAway + HOUR);
+
+        assertTrue(bitmap.windowSlots() <= OccupancyBitmap.MAX_WINDOW_SLOTS);
+        // The bitmap no longer knows about slots from the far booking on, so it defers to the booking index
+        assertFalse(bitmap.isFree(farAway + 2 * HOUR, farAway + 3 * HOUR));
+        assertTrue(bitmap.occupancy(farAway - HOUR, farAway + HOUR).get(1));
+        assertTrue(bitmap.isFree(HOUR, 2 * HOUR));
+        assertFalse(bitmap.isFree(0, HOUR));
+    }
+
+    @org.junit.jupiter.api.Test
+    void longBookingsDoNotAllocateTheirWholeSpan() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(60);
+        bitmap.mark(0, Long.MAX_VALUE / 4);
+
+        assertEquals(0, bitmap.windowSlots());
+        assertFalse(bitmap.isFree(60, 120));
+        assertThrows(IllegalArgumentException.class, () -> bitmap.occupancy(0, Long.MAX_VALUE / 4));
+    }
+
+    @org.junit.jupiter.api.Test
+    void trimmingDropsArchivedSlots() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(HOUR);
+        bitmap.mark(0, HOUR);
+        bitmap.mark(500 * HOUR, 501 * HOUR);
+        int before = bitmap.windowSlots();
+
+        bitmap.trimBefore(400 * HOUR);
+        assertTrue(bitmap.windowSlots() < before);
+        // Trimmed slots are unknown rather than free
+        assertFalse(bitmap.isFree(0, HOUR));
+        assertFalse(bitmap.isFree(2 * HOUR, 3 * HOUR));
+        assertFalse(bitmap.isFree(500 * HOUR, 501 * HOUR));
+        assertTrue(bitmap.isFree(450 * HOUR, 451 * HOUR));
+    }
+}
@@ -0,0 +1,110 @@
+package org.dip.tus.customer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerManagerTest {
+
+    private final CustomerManager customerManager = CustomerManager.getInstance();
+
+    @org.junit.jupiter.api.Test
+    void findsCustomersByNameIgnoringCase() {
+        Customer first = customerManager.getCustomerOrAdd("Index Test Ann", LocalDate.of(1981, 2, 3));
+        Customer second = customerManager.getCustomerOrAdd("INDEX test ann", LocalDate.of(1990, 6, 7));
+
+        assertSame(first, customerManager.getCustomer("index TEST ANN", LocalDate.of(1981, 2, 3)));
+        assertSame(first, customerManager.getCustomerOrAdd("Index Test ANN", LocalDate.of(1981, 2, 3)));
+        assertNull(customerManager.getCustomer("Index Test Ann", LocalDate.of(1981, 2, 4)));
+        assertEquals(List.of(first, second), customerManager.getCustomersByName("index test ANN"));
+        assertEquals(List.of(), customerManager.getCustomersByName("Index Test"));
+    }
+
+    @org.junit.jupiter.api.Test
+    void findsCustomersByNamePrefixInNameOrder() {
+        Customer murray = customerManager.getCustomerOrAdd("Prefixtest Murray", LocalDate.of(1970, 1, 1));
+        Customer murphy = customerManager.getCustomerOrAdd("prefixtest MURPHY", LocalDate.of(1970, 1, 1));
+        Customer muriel = customerManager.getCustomerOrAdd("Prefixtest Muriel", LocalDate.of(1970, 1, 1));
+        customerManager.getCustomerOrAdd("Prefixtest Mark", LocalDate.of(1970, 1, 1));
+        customerManager.getCustomerOrAdd("Prefixtesu Murray", LocalDate.of(1970, 1, 1));
+
+        assertEquals(List.of(muriel, murphy, murray), customerManager.getCustomersByNamePrefix("PREFIXTEST Mur", 10));
+        assertEquals(List.of(muriel, murphy), customerManager.getCustomersByNamePrefix("prefixtest mur", 2));
+        assertEquals(4, customerManager.getCustomersByNamePrefix("Prefixtest ", 10).size());
+        assertEquals(List.of(), customerManager.getCustomersByNamePrefix("Prefixtest Z", 10));
+    }
+
+    @org.junit.jupiter.api.Test
+    void foldsCaseLikeEqualsIgnoreCase() {
+        assertEquals("murphy", CustomerKey.fold("MurPHY"));
+        assertSame("already folded", CustomerKey.fold("already folded"));
+        assertEquals(new CustomerKey("ÉIRE", LocalDate.of(2000, 1, 1)), new CustomerKey("éire", LocalDate.of(2000, 1, 1)));
+        assertEquals(new CustomerKey("ÉIRE", LocalDate.of(2000, 1, 1)).hashCode(),
+                new CustomerKey("éire", LocalDate.of(2000, 1, 1)).hashCode());
+    }
+
+    @org.junit.jupiter.api.Test
+    void concurrentGetOrAddCreatesOneProfilePerCustomer() throws Exception {
+        int threads = 8;
+        int customers = 500;
+        int countBefore = customerManager.getCustomerCount();
+        Set<Customer> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < customers; i++) {
+                        seen.add(customerManager.getCustomerOrAdd("Concurrent Check-in " + i, LocalDate.of(1975, 5, 5)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(customers, seen.size());
+        assertEquals(countBefore + customers, customerManager.getCustomerCount());
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        for (Customer customer : seen) {
+            int customerId = customerManager.getCustomerId(customer);
+            assertTrue(ids.add(customerId));
+            assertSame(customer, customerManager.getCustomerById(customerId));
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    @SuppressWarnings("deprecation")
+    void customersViewFollowsRegistrationOrderWithoutCopying() {
+        Customer first = customerManager.getCustomerOrAdd("View Test First", LocalDate.of(1960, 1, 1));
+        Customer second = customerManager.getCustomerOrAdd("View Test Second", LocalDate.of(1960, 1, 1));
+        assertSame(customerManager.getCustomers(), customerManager.getCustomers());
+        assertThrows(UnsupportedOperationException.class, () -> customerManager.getCustomers().add(first));
+
+        List<Customer> registered = new ArrayList<>(customerManager.getCustomers());
+        assertEquals(customerManager.getCustomerCount(), registered.size());
+        assertEquals(registered.indexOf(first) + 1, registered.indexOf(second));
+        assertEquals(registered, customerManager.getCustomers().stream().toList());
+        assertEquals(registered, customerManager.getCustomerList());
+        assertTrue(customerManager.getCustomerId(first) < customerManager.getCustomerId(second));
+        assertNull(customerManager.getCustomerById(-1));
+        assertNull(customerManager.getCustomerById(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,63 @@
+package org.dip.tus.io;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingExporterTest {
+
+    private static RoomBooking bookRoom() throws Exception {
+        RoomManager roomManager = RoomManager.getInstance();
+        Customer customer = CustomerManager.getInstance().getCustomerOrAdd("Exporter, \"Eve\"", LocalDate.of(1985, 4, 5));
+        RoomBooking booking = new RoomBooking(customer, roomManager.findEntityById("11"),
+                LocalDateTime.of(2098, 3, 1, 14, 0), LocalDateTime.of(2098, 3, 3, 11, 0), 300);
+        assertTrue(roomManager.addBookingToEntity("11", booking));
+        return booking;
+    }
+
+    @org.junit.jupiter.api.Test
+    void exportsPlainCsvAndJsonLines() throws Exception {
+        RoomBooking booking = bookRoom();
+        BookingExporter exporter = new BookingExporter();
+
+        StringWriter csv = new StringWriter();
+        long rows = exporter.exportBookings(csv, DataFormat.CSV);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(rows + 1, lines.length);
+        assertEquals("type,name,dateOfBirth,entityId,start,end,detail,bookingId", lines[0]);
+        String expected = "ROOM,\"Exporter, \"\"Eve\"\"\",1985-04-05,11,2098-03-01T14:00,2098-03-03T11:00,300.00,"
+                + booking.getBookingId();
+        assertTrue(Arrays.asList(lines).contains(expected));
+        assertFalse(csv.toString().contains("\033["));
+        assertEquals("Exporter, \"Eve\"", BookingRow.splitCsv(expected, BookingRow.columnsFromHeader(lines[0]))[BookingRow.NAME]);
+
+        StringWriter json = new StringWriter();
+        exporter.exportBookings(json, DataFormat.JSON_LINES);
+        String expectedJson = "{\"type\":\"ROOM\",\"name\":\"Exporter, \\\"Eve\\\"\",\"dateOfBirth\":\"1985-04-05\","
+                + "\"entityId\":\"11\",\"start\":\"2098-03-01T14:00\",\"end\":\"2098-03-03T11:00\",\"detail\":300.00,"
+                + "\"bookingId\":" + booking.getBookingId() + "}";
+        assertTrue(Arrays.asList(json.toString().split("\n")).contains(expectedJson));
+        assertEquals("Exporter, \"Eve\"", BookingRow.parseJson(expectedJson)[BookingRow.NAME]);
+    }
+
+    @org.junit.jupiter.api.Test
+    void financialReportTotalsEveryType() throws Exception {
+        StringWriter csv = new StringWriter();
+        assertEquals(4, new BookingExporter().exportFinancialReport(csv, DataFormat.CSV));
+        String[] lines = csv.toString().split("\n");
+        assertEquals("type,bookings,revenue", lines[0]);
+        long bookings = 0;
+        for (int i = 1; i <= 3; i++) {
+            bookings += Long.parseLong(lines[i].split(",")[1]);
+        }
+        assertTrue(lines[4].startsWith("TOTAL," + bookings + ","));
+    }
+}
@@ -0,0 +1,45 @@
+package org.dip.tus.io;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Measures bulk import throughput. Writes a CSV file of restaurant bookings spread over every table, one
+ * customer per twenty bookings, and imports it once into the empty managers.
+ * <p>
+ * Run with {@code java -cp target/classes:target/test-classes org.dip.tus.io.BookingImporterBenchmark [rows] [threads]}.
+ */
+public class BookingImporterBenchmark {
+
+    private static final int TABLES = 20;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path file = Files.createTempFile("import-benchmark", ".csv");
+        try {
+            write(file, rows);
+            System.out.printf("%d rows, %d parsing threads, %d MB%n", rows, threads, Files.size(file) >> 20);
+            ImportReport report = new BookingImporter(threads, 8_192).importFrom(file);
+            System.out.printf("Added %d bookings and %d customers, rejected %d rows%n",
+                    report.getBookingsAdded(), report.getCustomersAdded(), report.getRejectedCount());
+            System.out.printf("%.2f s, %.0f rows/sec%n", report.getElapsedNanos() / 1e9, report.getRowsPerSecond());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void write(Path file, int rows) throws Exception {
+        LocalDateTime base = LocalDateTime.of(2099, 1, 1, 0, 0);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("type,name,dateOfBirth,entityId,start,end,detail\n");
+            for (int i = 0; i < rows; i++) {
+                LocalDateTime start = base.plusHours(3L * (i / TABLES));
+                writer.write("RESTAURANT,Guest " + (i / TABLES) + ",1980-01-01," + (i % TABLES + 1) + ","
+                        + start + "," + start.plusHours(2) + ",2\n");
+            }
+        }
+    }
+}
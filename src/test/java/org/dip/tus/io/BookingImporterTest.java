@@ -0,0 +1,78 @@
+package org.dip.tus.io;
+
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomManager;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingImporterTest {
+
+    @org.junit.jupiter.api.Test
+    void importsCsvRowsAndReportsRejections() throws Exception {
+        String csv = """
+                type,name,dateOfBirth,entityId,start,end,detail
+                CUSTOMER,"Importer, Ann",1980-02-03,,,,
+                ROOM,"Importer, Ann",1980-02-03,10,2098-01-05T14:00,2098-01-07T11:00,250.5
+                ROOM,Importer Bob,1975-06-07,10,2098-01-06T14:00,2098-01-08T11:00,
+                ROOM,Importer Bob,1975-06-07,10,2098-01-08T14:00,2098-01-09T11:00,
+                RESTAURANT,Importer Bob,1975-06-07,1,2098-01-08T19:00,2098-01-08T21:00,9
+                PARKING,Importer Bob,1975-06-07,Z9,2098-01-08T19:00,2098-01-08T21:00,221-D-1
+                ROOM,Importer Bob,1975-06-07,10,not-a-date,2098-01-09T11:00,
+                """;
+        ImportReport report = new BookingImporter(2, 2).importFrom(new StringReader(csv), DataFormat.CSV);
+
+        assertEquals(7, report.getRowsRead());
+        assertEquals(2, report.getBookingsAdded());
+        assertEquals(4, report.getRejectedCount());
+        assertEquals(4, report.getRejectedRows().get(0).lineNumber());
+        assertEquals(6, report.getRejectedRows().get(1).lineNumber());
+        assertEquals(7, report.getRejectedRows().get(2).lineNumber());
+        assertEquals(8, report.getRejectedRows().get(3).lineNumber());
+        assertTrue(report.getRejectedRows().get(0).reason().contains("CLASHES_WITH_EXISTING"));
+
+        assertNotNull(CustomerManager.getInstance().getCustomer("Importer, Ann", LocalDate.of(1980, 2, 3)));
+        assertEquals(250.5, RoomManager.getInstance().findEntityById("10").getAllBookings().stream()
+                .filter(b -> b.getBookingDateTimeStart().equals(LocalDateTime.of(2098, 1, 5, 14, 0)))
+                .findFirst().orElseThrow().getCost());
+    }
+
+    @org.junit.jupiter.api.Test
+    void rejectedRowsDoNotAddCustomers() throws Exception {
+        String csv = """
+                ROOM,Importer Fay,1982-01-01,10,2098-03-01T14:00,2098-03-03T11:00,
+                ROOM,Importer Eve,1984-01-01,10,2098-03-02T14:00,2098-03-04T11:00,
+                ROOM,Importer Gus,1986-01-01,10,2098-03-05T14:00,2098-03-04T11:00,
+                """;
+        ImportReport report = new BookingImporter(2, 1).importFrom(new StringReader(csv), DataFormat.CSV);
+
+        assertEquals(1, report.getBookingsAdded());
+        assertEquals(2, report.getRejectedCount());
+        assertEquals(1, report.getCustomersAdded());
+        assertNotNull(CustomerManager.getInstance().getCustomer("Importer Fay", LocalDate.of(1982, 1, 1)));
+        assertNull(CustomerManager.getInstance().getCustomer("Importer Eve", LocalDate.of(1984, 1, 1)));
+        assertNull(CustomerManager.getInstance().getCustomer("Importer Gus", LocalDate.of(1986, 1, 1)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void importsJsonLines() throws Exception {
+        String jsonLines = """
+                {"type": "RESTAURANT", "name": "Importer \\"Cy\\"", "dateOfBirth": "1990-01-01", "entityId": "16", "start": "2098-02-01T19:00", "end": "2098-02-01T21:00", "people": 6}
+                {"type": "PARKING", "name": "Importer Di", "dateOfBirth": "1991-01-01", "entityId": "D5", "start": "2098-02-01T09:00", "end": "2098-02-01T17:00", "registration": "98-G-1234", "extra": true}
+                {"type": "ROOM", "name": "Importer Di"
+                """;
+        ImportReport report = new BookingImporter().importFrom(new StringReader(jsonLines), DataFormat.JSON_LINES);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getBookingsAdded());
+        assertEquals(1, report.getRejectedCount());
+        assertEquals(3, report.getRejectedRows().get(0).lineNumber());
+        assertEquals(6, RestaurantManager.getInstance().findEntityById("16").getAllBookings().stream()
+                .filter(b -> b.getCustomer().name().equals("Importer \"Cy\""))
+                .findFirst().orElseThrow().getNumberOfPeople());
+    }
+}
@@ -0,0 +1,73 @@
+package org.dip.tus.parking;
+
+import org.dip.tus.customer.Customer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLotManagerTest {
+
+    private final ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+    private final Customer customer = new Customer("Parking Customer", LocalDate.of(1984, 6, 21));
+    private final List<ParkingBooking> committed = new ArrayList<>();
+
+    private ParkingBooking park(String spotId, LocalDateTime start, LocalDateTime end) throws Exception {
+        ParkingBooking booking = new ParkingBooking(customer, start, end, "97-D-1234",
+                parkingLotManager.findEntityById(spotId));
+        assertTrue(parkingLotManager.addBookingToEntity(spotId, booking));
+        committed.add(booking);
+        return booking;
+    }
+
+    @org.junit.jupiter.api.AfterEach
+    void removeCommittedBookings() {
+        committed.forEach(booking -> parkingLotManager.removeBookingFromEntity(booking.getEntityId(), booking));
+    }
+
+    @org.junit.jupiter.api.Test
+    void findsTheFirstSpotFreeForTheWholeRange() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2097, 4, 2, 9, 0);
+        LocalDateTime end = start.plusHours(3);
+        assertEquals("A1", parkingLotManager.getAvailableParkingSpotForDateTime(start, end).getId());
+
+        park("A1", start, end);
+        park("A2", start.minusHours(1), start.plusMinutes(30));
+        // A3 is only booked after the range ends, within the same hour
+        park("A3", end.plusMinutes(15), end.plusHours(1));
+        assertEquals("A3", parkingLotManager.getAvailableParkingSpotForDateTime(start, end.plusMinutes(15)).getId());
+        assertEquals("A4", parkingLotManager.getAvailableParkingSpotForDateTime(start, end.plusMinutes(30)).getId());
+        assertEquals("A2", parkingLotManager.getAvailableParkingSpotForDateTime(start.plusHours(1), end).getId());
+    }
+
+    @org.junit.jupiter.api.Test
+    void countsFreeSpotsPerSection() throws Exception {
+        LocalDateTime time = LocalDateTime.of(2097, 5, 9, 14, 20);
+        assertEquals(Map.of('A', 5, 'B', 5, 'C', 5, 'D', 5), parkingLotManager.getFreeSpotCountBySection(time));
+
+        park("B1", time.minusHours(2), time.plusHours(2));
+        park("B2", time.minusMinutes(10), time.plusMinutes(5));
+        park("B3", time.plusMinutes(5), time.plusHours(1));
+        park("D5", time.minusHours(1), time);
+        assertEquals(Map.of('A', 5, 'B', 3, 'C', 5, 'D', 5), parkingLotManager.getFreeSpotCountBySection(time));
+
+        assertTrue(parkingLotManager.removeBookingFromEntity("B1", committed.remove(0)));
+        assertEquals(Map.of('A', 5, 'B', 4, 'C', 5, 'D', 5), parkingLotManager.getFreeSpotCountBySection(time));
+    }
+
+    @org.junit.jupiter.api.Test
+    void rejectsRegistrationsTooLongToArchive() {
+        LocalDateTime start = LocalDateTime.of(2097, 6, 1, 9, 0);
+        ParkingSpot spot = parkingLotManager.findEntityById("C1");
+        // Sixteen characters, but more than sixteen bytes of UTF-8
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParkingBooking(customer, start, start.plusHours(1), "ÉÉÉÉÉÉÉÉÉÉÉÉÉÉÉÉ", spot));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParkingBooking(customer, start, start.plusHours(1), " ", spot));
+        assertTrue(ParkingBooking.isValidRegistration("ÉÉÉÉÉÉÉÉ"));
+    }
+}
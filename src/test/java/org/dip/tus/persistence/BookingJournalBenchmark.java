@@ -0,0 +1,65 @@
+package org.dip.tus.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures durable commits per second through {@link BookingJournal} for a range of group-commit batch sizes.
+ * Each committing thread waits for its own record to be forced to disk, as a booking would.
+ * <p>
+ * Run with {@code java -cp target/classes:target/test-classes org.dip.tus.persistence.BookingJournalBenchmark [threads] [commits]}.
+ */
+public class BookingJournalBenchmark {
+
+    private static final int[] BATCH_SIZES = {1, 4, 16, 64, 256};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int commits = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Path directory = Files.createTempDirectory("journal-benchmark");
+
+        System.out.printf("%d committing threads, %d commits per run%n", threads, commits);
+        System.out.printf("%-10s | %-14s | %-10s%n", "Batch size", "Commits/sec", "Avg group");
+        for (int batchSize : BATCH_SIZES) {
+            Path file = directory.resolve("batch-" + batchSize + ".journal");
+            try (BookingJournal journal = BookingJournal.open(file, batchSize, (type, payload) -> { })) {
+                long elapsed = run(journal, threads, commits);
+                System.out.printf("%-10d | %-14.0f | %-10.1f%n", batchSize, commits * 1e9 / elapsed,
+                        (double) journal.getDurableCount() / journal.getFlushCount());
+            }
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    private static long run(BookingJournal journal, int threads, int commits) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int share = commits / threads + (t < commits % threads ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    // Roughly the size of an encoded room booking
+                    ByteBuffer payload = ByteBuffer.allocate(64);
+                    for (int i = 0; i < share; i++) {
+                        journal.commit(JournalRecordType.BOOKING_ADDED, payload.duplicate());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.dip.tus.persistence;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.EpochTime;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+
+    private static ByteBuffer payload(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).flip();
+    }
+
+    private static List<Long> replayAll(Path file) throws Exception {
+        List<Long> values = new ArrayList<>();
+        BookingJournal.replay(file, (type, payload) -> values.add(payload.getLong()));
+        return values;
+    }
+
+    @org.junit.jupiter.api.Test
+    void replaysRecordsInOrderAndDropsTornTail() throws Exception {
+        Path file = Files.createTempDirectory("journal").resolve("test.journal");
+        try (BookingJournal journal = BookingJournal.open(file, 4, (type, payload) -> fail("Journal should be empty"))) {
+            for (long i = 1; i <= 10; i++) {
+                journal.commit(JournalRecordType.BOOKING_ADDED, payload(i));
+            }
+            assertEquals(10, journal.getDurableCount());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), replayAll(file));
+
+        // Simulate a crash part way through writing another record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 9, 1, 2}));
+        }
+        List<Long> recovered = new ArrayList<>();
+        try (BookingJournal journal = BookingJournal.open(file, 4, (type, payload) -> recovered.add(payload.getLong()))) {
+            journal.commit(JournalRecordType.BOOKING_REMOVED, payload(11));
+        }
+        assertEquals(10, recovered.size());
+        assertEquals(11, replayAll(file).size());
+        assertEquals(11L, (long) replayAll(file).get(10));
+    }
+
+    @org.junit.jupiter.api.Test
+    void replaysAcrossWindowsAndRecordsLargerThanAWindow() throws Exception {
+        Path file = Files.createTempDirectory("journal").resolve("windowed.journal");
+        try (BookingJournal journal = BookingJournal.open(file, 4, (type, payload) -> fail("Journal should be empty"))) {
+            for (long i = 1; i <= 5; i++) {
+                journal.commit(JournalRecordType.BOOKING_ADDED, payload(i));
+            }
+            journal.commit(JournalRecordType.BOOKING_ADDED, ByteBuffer.allocate(100).putLong(6).rewind());
+            journal.commit(JournalRecordType.BOOKING_ADDED, payload(7));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 9, 1, 2}));
+        }
+
+        List<Long> values = new ArrayList<>();
+        long end;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 30 bytes holds one 17-byte record and the start of the next
+            end = BookingJournal.readRecords(channel, 0, 30, (type, payload) -> values.add(payload.getLong()));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), values);
+        assertEquals(Files.size(file) - 6, end);
+    }
+
+    @org.junit.jupiter.api.Test
+    void restoredBookingKeepsItsIdAndCost() throws Exception {
+        RoomManager roomManager = RoomManager.getInstance();
+        Customer customer = new Customer("Journal Customer", LocalDate.of(1981, 4, 9));
+        LocalDateTime day = LocalDateTime.of(2096, 2, 1, 12, 0);
+        RoomBooking booking = new RoomBooking(customer, roomManager.findEntityById("8"), day, day.plusDays(2), 250.0);
+        assertTrue(roomManager.addBookingToEntity("8", booking));
+        ByteBuffer encoded = BookingCodec.encodeBooking(booking);
+        ByteBuffer reference = BookingCodec.encodeBookingReference(booking);
+
+        BookingCodec.removeBooking(reference);
+        assertNull(roomManager.findBookingById(booking.generateBookingID()));
+
+        BookingCodec.restoreBooking(encoded.duplicate());
+        RoomBooking restored = roomManager.findBookingById(booking.generateBookingID());
+        assertNotNull(restored);
+        assertEquals(booking.getBookingId(), restored.getBookingId());
+        assertEquals(250.0, restored.getCost());
+        assertEquals(day, restored.getBookingDateTimeStart());
+
+        // Replaying the same record again is a no-op
+        BookingCodec.restoreBooking(encoded.duplicate());
+        assertSame(restored, roomManager.findBookingById(booking.generateBookingID()));
+        assertEquals(1, roomManager.findEntityById("8").getBookingCount());
+    }
+
+    @org.junit.jupiter.api.Test
+    void endedBookingIsRestoredStraightIntoTheArchive() throws Exception {
+        RoomManager roomManager = RoomManager.getInstance();
+        RestaurantManager restaurantManager = RestaurantManager.getInstance();
+        Customer customer = new Customer("Archived Journal Customer", LocalDate.of(1983, 6, 14));
+        LocalDateTime day = LocalDateTime.of(2021, 3, 1, 12, 0);
+        RoomBooking stay = new RoomBooking(customer, roomManager.findEntityById("8"), day, day.plusDays(2), 180.5);
+        RestaurantBooking dinner = new RestaurantBooking(customer, day.withHour(19), day.withHour(21),
+                restaurantManager.findEntityById("3"), 2);
+        assertTrue(roomManager.addBookingToEntity("8", stay));
+        assertTrue(restaurantManager.addBookingToEntity("3", dinner));
+        ByteBuffer encodedStay = BookingCodec.encodeBooking(stay);
+        ByteBuffer encodedDinner = BookingCodec.encodeBooking(dinner);
+        assertTrue(roomManager.removeBookingById(stay.getBookingId()));
+        assertTrue(restaurantManager.removeBookingById(dinner.getBookingId()));
+        int liveRooms = roomManager.findEntityById("8").getLiveBookingCount();
+
+        long cutoff = EpochTime.toEpochSecond(day.plusDays(7));
+        BookingCodec.restoreBooking(encodedStay.duplicate(), cutoff);
+        BookingCodec.restoreBooking(encodedDinner.duplicate(), cutoff);
+
+        // Held as archive records, yet found by ID and customer with the same fields
+        assertEquals(liveRooms, roomManager.findEntityById("8").getLiveBookingCount());
+        assertEquals(0, restaurantManager.findEntityById("3").getLiveBookingCount());
+        RoomBooking restoredStay = roomManager.findBookingById(stay.generateBookingID());
+        assertNotNull(restoredStay);
+        assertEquals(180.5, restoredStay.getCost());
+        assertEquals(day, restoredStay.getBookingDateTimeStart());
+        RestaurantBooking restoredDinner = restaurantManager.findBookingById(dinner.generateBookingID());
+        assertNotNull(restoredDinner);
+        assertEquals(dinner.getCost(), restoredDinner.getCost());
+        assertEquals(2, restoredDinner.getNumberOfPeople());
+        assertEquals(1, roomManager.getAllBookingsForCustomer(customer).size());
+        assertTrue(roomManager.findEntityById("8").doesBookingClash(day, day.plusDays(1)));
+
+        // Replaying the same record again is a no-op, and an archived booking can still be removed
+        BookingCodec.restoreBooking(encodedStay.duplicate(), cutoff);
+        assertEquals(1, roomManager.getAllBookingsForCustomer(customer).size());
+        assertTrue(roomManager.removeBookingById(stay.getBookingId()));
+        assertTrue(restaurantManager.removeBookingById(dinner.getBookingId()));
+        assertTrue(roomManager.getAllBookingsForCustomer(customer).isEmpty());
+        assertFalse(roomManager.findEntityById("8").doesBookingClash(day, day.plusDays(1)));
+    }
+}
@@ -0,0 +1,106 @@
+package org.dip.tus.persistence;
+
+import org.dip.tus.core.AbstractBookingManager;
+import org.dip.tus.core.BookingStore;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.Room;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.util.EpochTime;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceManagerTest {
+
+    private static Set<Long> bookingIds(Path checkpoint) throws Exception {
+        Set<Long> ids = new HashSet<>();
+        Checkpoint.load(checkpoint, (type, payload) -> {
+            if (type == JournalRecordType.BOOKING_ADDED) {
+                payload.get();
+                ids.add(payload.getLong());
+            }
+        });
+        return ids;
+    }
+
+    @org.junit.jupiter.api.Test
+    void checkpointCoversBookingsAndTruncatesJournal() throws Exception {
+        Path directory = Files.createTempDirectory("persistence");
+        RoomManager roomManager = RoomManager.getInstance();
+        Customer customer = new Customer("Checkpoint Customer", LocalDate.of(1975, 8, 30));
+        LocalDateTime day = LocalDateTime.of(2097, 5, 1, 12, 0);
+
+        RoomBooking first;
+        RoomBooking second;
+        try (PersistenceManager persistenceManager = PersistenceManager.open(directory)) {
+            first = new RoomBooking(customer, roomManager.findEntityById("9"), day, day.plusDays(1), 120.0);
+            assertTrue(roomManager.addBookingToEntity("9", first));
+            assertTrue(Files.size(directory.resolve("journal-0.log")) > 0);
+
+            persistenceManager.checkpoint();
+            assertFalse(Files.exists(directory.resolve("journal-0.log")));
+            assertTrue(bookingIds(directory.resolve("checkpoint-1.bin")).contains(first.getBookingId()));
+
+            second = new RoomBooking(customer, roomManager.findEntityById("9"), day.plusDays(3), day.plusDays(4), 120.0);
+            assertTrue(roomManager.addBookingToEntity("9", second));
+            assertTrue(Files.size(directory.resolve("journal-1.log")) > 0);
+        }
+
+        // Closing writes a final checkpoint, leaving an empty journal tail
+        assertFalse(Files.exists(directory.resolve("checkpoint-1.bin")));
+        assertEquals(0, Files.size(directory.resolve("journal-2.log")));
+        Set<Long> ids = bookingIds(directory.resolve("checkpoint-2.bin"));
+        assertTrue(ids.contains(first.getBookingId()));
+        assertTrue(ids.contains(second.getBookingId()));
+    }
+
+    @org.junit.jupiter.api.Test
+    void historyRestoredAtStartUpArchivesToTheStoreSetBeforeOpening() throws Exception {
+        Path directory = Files.createTempDirectory("restart");
+        RoomManager roomManager = RoomManager.getInstance();
+        Room room = roomManager.findEntityById("2");
+        Customer customer = new Customer("Restart Customer", LocalDate.of(1981, 2, 17));
+        LocalDateTime day = LocalDateTime.of(2022, 9, 5, 12, 0);
+
+        RoomBooking history = new RoomBooking(customer, room, day, day.plusDays(1), 90.0);
+        try (PersistenceManager ignored = PersistenceManager.open(directory)) {
+            assertTrue(roomManager.addBookingToEntity("2", history));
+        }
+        // Not journaled once closed, so the next open restores the booking as a fresh start would
+        assertTrue(roomManager.removeBookingById(history.getBookingId()));
+        int liveBookings = room.getLiveBookingCount();
+
+        // The same order as Main: set the archive store, then restore history into it
+        List<AbstractBookingManager<?, ?>> managers = List.of(roomManager, RestaurantManager.getInstance(),
+                ParkingLotManager.getInstance());
+        List<BookingStore> previousStores = managers.stream().map(AbstractBookingManager::getArchiveStore).toList();
+        try (BookingStore archiveStore = BookingStore.open(directory.resolve("archive.store"))) {
+            managers.forEach(manager -> manager.setArchiveStore(archiveStore));
+            try (PersistenceManager ignored = PersistenceManager.open(directory)) {
+                assertNotNull(roomManager.findBookingById(history.generateBookingID()));
+                assertEquals(liveBookings, room.getLiveBookingCount());
+
+                RoomBooking ended = new RoomBooking(customer, room, day.plusDays(2), day.plusDays(3), 90.0);
+                assertTrue(roomManager.addBookingToEntity("2", ended));
+                assertEquals(1, room.archiveBookingsEndedBy(EpochTime.toEpochSecond(day.plusDays(7)), archiveStore));
+
+                assertTrue(roomManager.removeBookingById(history.getBookingId()));
+                assertTrue(roomManager.removeBookingById(ended.getBookingId()));
+            } finally {
+                for (int i = 0; i < managers.size(); i++) {
+                    managers.get(i).setArchiveStore(previousStores.get(i));
+                }
+            }
+        }
+    }
+}
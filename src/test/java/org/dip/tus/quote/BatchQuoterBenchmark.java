@@ -0,0 +1,63 @@
+package org.dip.tus.quote;
+
+import org.dip.tus.room.Room;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.EpochTime;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compares pricing a grid of room quotes one call at a time with pricing it in one batch. The grid has a column
+ * for every arrival date and stay length, and a row for every room type.
+ * <p>
+ * Run with {@code java -cp target/classes:target/test-classes org.dip.tus.quote.BatchQuoterBenchmark [arrivals] [nights]}.
+ */
+public class BatchQuoterBenchmark {
+
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) {
+        int arrivals = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int nights = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+        RoomManager roomManager = RoomManager.getInstance();
+        RoomType[] roomTypes = RoomType.values();
+        Room[] rooms = new Room[roomTypes.length];
+        for (Room room : roomManager.getAllEntities()) {
+            rooms[room.getRoomType().ordinal()] = room;
+        }
+        LocalDateTime[] starts = new LocalDateTime[arrivals * nights];
+        LocalDateTime[] ends = new LocalDateTime[starts.length];
+        long[] startSeconds = new long[starts.length];
+        long[] endSeconds = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = LocalDateTime.of(2099, 1, 1, 14, 0).plusDays(i / nights);
+            ends[i] = starts[i].plusDays(i % nights + 1).withHour(11);
+            startSeconds[i] = EpochTime.toEpochSecond(starts[i]);
+            endSeconds[i] = EpochTime.toEpochSecond(ends[i]);
+        }
+        System.out.printf("%d room types x %d stays%n", roomTypes.length, starts.length);
+
+        BatchQuoter quoter = new BatchQuoter();
+        long best = Long.MAX_VALUE;
+        long bestBatch = Long.MAX_VALUE;
+        double check = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Room room : rooms) {
+                for (int i = 0; i < starts.length; i++) {
+                    check += roomManager.calculateCostForDates(room, starts[i], ends[i]);
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            QuoteMatrix quotes = quoter.quoteRooms(roomTypes, startSeconds, endSeconds);
+            bestBatch = Math.min(bestBatch, System.nanoTime() - start);
+            check -= quotes.getCost(0, 0);
+        }
+        System.out.printf("One call per quote %10.1f us%n", best / 1e3);
+        System.out.printf("Batch              %10.1f us%n", bestBatch / 1e3);
+        System.out.println(check > 0 ? "" : "(no quotes)");
+    }
+}
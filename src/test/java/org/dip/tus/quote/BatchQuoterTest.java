@@ -0,0 +1,82 @@
+package org.dip.tus.quote;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.parking.ParkingSpot;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.Room;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+import org.dip.tus.util.EpochTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchQuoterTest {
+
+    private final BatchQuoter quoter = new BatchQuoter();
+
+    @org.junit.jupiter.api.Test
+    void roomQuotesMatchSingleQuotes() {
+        RoomManager roomManager = RoomManager.getInstance();
+        RoomType[] roomTypes = RoomType.values();
+        // Thirty arrival dates, each for one to seven nights
+        LocalDateTime[] starts = new LocalDateTime[30 * 7];
+        LocalDateTime[] ends = new LocalDateTime[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = LocalDateTime.of(2089, 12, 1, 14, 0).plusDays(i / 7);
+            ends[i] = starts[i].plusDays(i % 7 + 1).withHour(11);
+        }
+
+        QuoteMatrix quotes = quoter.quoteRooms(roomTypes, epochSeconds(starts), epochSeconds(ends));
+
+        assertEquals(roomTypes.length, quotes.getRowCount());
+        assertEquals(starts.length, quotes.getColumnCount());
+        for (Room room : roomManager.getAllEntities()) {
+            for (int i = 0; i < starts.length; i++) {
+                assertEquals(roomManager.calculateCostForDates(room, starts[i], ends[i]),
+                        quotes.getCost(room.getRoomType().ordinal(), i));
+            }
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void parkingAndRestaurantQuotesMatchSingleQuotes() throws Exception {
+        ParkingSpot spot = new ParkingSpot('A', 1);
+        Customer customer = new Customer("Quote Test", LocalDate.of(1970, 1, 1));
+        LocalDateTime[] starts = new LocalDateTime[48];
+        LocalDateTime[] ends = new LocalDateTime[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = LocalDateTime.of(2089, 12, 1, 0, 30).plusHours(i);
+            ends[i] = starts[i].plusHours(i % 30 + 1);
+        }
+        int[] partySizes = {1, 2, 5, 10};
+
+        QuoteMatrix parking = quoter.quoteParking(epochSeconds(starts), epochSeconds(ends));
+        QuoteMatrix restaurant = quoter.quoteRestaurant(partySizes, epochSeconds(starts));
+
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(spot.calculateCost(starts[i], ends[i]), parking.getCost(0, i));
+            for (int row = 0; row < partySizes.length; row++) {
+                RestaurantBooking booking = new RestaurantBooking(customer, starts[i], starts[i].plusHours(1),
+                        RestaurantManager.getInstance().findEntityById("16"), partySizes[row]);
+                assertEquals(booking.calculateCost(), restaurant.getCost(row, i));
+            }
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void rejectsMismatchedArrays() {
+        assertThrows(IllegalArgumentException.class, () -> quoter.quoteParking(new long[2], new long[3]));
+    }
+
+    private static long[] epochSeconds(LocalDateTime[] times) {
+        long[] seconds = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            seconds[i] = EpochTime.toEpochSecond(times[i]);
+        }
+        return seconds;
+    }
+}
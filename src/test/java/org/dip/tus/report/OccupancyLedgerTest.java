@@ -0,0 +1,76 @@
+package org.dip.tus.report;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyLedgerTest {
+
+    @org.junit.jupiter.api.Test
+    void countersFollowAddsAndRemoves() throws Exception {
+        OccupancyLedger ledger = OccupancyLedger.getInstance();
+        RoomManager roomManager = RoomManager.getInstance();
+        ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+        RestaurantManager restaurantManager = RestaurantManager.getInstance();
+        Customer customer = new Customer("Occupancy Test", LocalDate.of(1970, 1, 1));
+        LocalDate from = LocalDate.of(2087, 3, 9);
+        LocalDate to = LocalDate.of(2087, 3, 13);
+
+        RoomBooking room = new RoomBooking(customer, roomManager.findEntityById("13"),
+                LocalDateTime.of(2087, 3, 10, 14, 0), LocalDateTime.of(2087, 3, 13, 11, 0), 100);
+        ParkingBooking parking = new ParkingBooking(customer, LocalDateTime.of(2087, 3, 10, 23, 0),
+                LocalDateTime.of(2087, 3, 11, 1, 0), "OCC 1", parkingLotManager.findEntityById("C3"));
+        RestaurantBooking lunch = new RestaurantBooking(customer, LocalDateTime.of(2087, 3, 10, 13, 0),
+                LocalDateTime.of(2087, 3, 10, 14, 0), restaurantManager.findEntityById("7"), 4);
+        assertTrue(roomManager.addBookingToEntity("13", room));
+        assertTrue(parkingLotManager.addBookingToEntity("C3", parking));
+        assertTrue(restaurantManager.addBookingToEntity("7", lunch));
+
+        // Three nights, checking out on the morning of the 13th
+        assertArrayEquals(new long[]{0, 1, 1, 1, 0}, ledger.getOccupiedRooms(RoomType.KING, from, to));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, ledger.getOccupiedRooms(RoomType.SINGLE, from, to));
+        assertArrayEquals(new long[]{0, 1, 1, 0, 0}, ledger.getOccupiedSpots('C', from, to));
+        assertArrayEquals(new long[]{0, 4, 0, 0, 0}, ledger.getCovers(MealEnum.LUNCH, from, to));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, ledger.getCovers(MealEnum.DINNER, from, to));
+
+        assertTrue(roomManager.removeBookingFromEntity("13", room));
+        assertTrue(parkingLotManager.removeBookingFromEntity("C3", parking));
+        assertTrue(restaurantManager.removeBookingFromEntity("7", lunch));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, ledger.getOccupiedRooms(RoomType.KING, from, to));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, ledger.getOccupiedSpots('C', from, to));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, ledger.getCovers(MealEnum.LUNCH, from, to));
+    }
+
+    @org.junit.jupiter.api.Test
+    void restoredArchivedHistoryIsCounted() throws Exception {
+        OccupancyLedger ledger = OccupancyLedger.getInstance();
+        RestaurantManager restaurantManager = RestaurantManager.getInstance();
+        Customer customer = new Customer("Occupancy History Test", LocalDate.of(1970, 1, 1));
+        LocalDate day = LocalDate.of(2019, 4, 3);
+
+        // Take a real booking ID, then give the booking back as history recovered on start-up
+        RestaurantBooking dinner = new RestaurantBooking(customer, day.atTime(19, 0), day.atTime(21, 0),
+                restaurantManager.findEntityById("7"), 5);
+        assertTrue(restaurantManager.addBookingToEntity("7", dinner));
+        assertTrue(restaurantManager.removeBookingById(dinner.getBookingId()));
+        assertArrayEquals(new long[]{0}, ledger.getCovers(MealEnum.DINNER, day, day));
+
+        assertTrue(restaurantManager.restoreArchivedBooking("7", dinner.getBookingId(),
+                dinner.getBookingStartEpochSecond(), dinner.getBookingEndEpochSecond(), 20_000, customer, 5, null));
+        assertArrayEquals(new long[]{5}, ledger.getCovers(MealEnum.DINNER, day, day));
+
+        assertTrue(restaurantManager.removeBookingById(dinner.getBookingId()));
+        assertArrayEquals(new long[]{0}, ledger.getCovers(MealEnum.DINNER, day, day));
+    }
+}
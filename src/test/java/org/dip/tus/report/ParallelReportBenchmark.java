@@ -0,0 +1,76 @@
+package org.dip.tus.report;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.parking.ParkingBooking;
+import org.dip.tus.parking.ParkingLotManager;
+import org.dip.tus.parking.ParkingSpot;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compares the sequential and parallel booking reports. Fills the empty managers with room, parking and
+ * restaurant bookings, one customer per ten bookings, then times each report written to a discarding writer.
+ * <p>
+ * Run with {@code java -cp target/classes:target/test-classes org.dip.tus.report.ParallelReportBenchmark [bookings]}.
+ */
+public class ParallelReportBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        fill(bookings);
+        System.out.printf("%d bookings per type, %d customers, %d cores%n", bookings,
+                CustomerManager.getInstance().getCustomerCount(), Runtime.getRuntime().availableProcessors());
+
+        ParallelReportEngine engine = new ParallelReportEngine();
+        time("Summary, sequential", BookingReports::writeBookingSummaryReport);
+        time("Summary, parallel", engine::writeBookingSummaryReport);
+        time("All customers, sequential", BookingReports::writeAllCustomersBookingReport);
+        time("All customers, parallel", engine::writeAllCustomersBookingReport);
+    }
+
+    private static void fill(int bookings) throws Exception {
+        CustomerManager customerManager = CustomerManager.getInstance();
+        RoomManager roomManager = RoomManager.getInstance();
+        ParkingLotManager parkingLotManager = ParkingLotManager.getInstance();
+        RestaurantManager restaurantManager = RestaurantManager.getInstance();
+        List<ParkingSpot> spots = parkingLotManager.getAllEntities();
+        LocalDateTime base = LocalDateTime.of(2099, 1, 1, 0, 0);
+        for (int i = 0; i < bookings; i++) {
+            Customer customer = customerManager.getCustomerOrAdd("Guest " + i / 10, LocalDate.of(1980, 1, 1));
+            LocalDateTime day = base.plusDays(i / 20);
+            String roomId = Integer.toString(i % 20 + 1);
+            roomManager.addBookingToEntity(roomId, new RoomBooking(customer, roomManager.findEntityById(roomId),
+                    day.withHour(14), day.plusDays(1).withHour(11), 100));
+            ParkingSpot spot = spots.get(i % spots.size());
+            LocalDateTime parked = base.plusHours(2L * (i / spots.size()));
+            parkingLotManager.addBookingToEntity(spot.getId(), new ParkingBooking(customer, parked,
+                    parked.plusHours(1), "BENCH" + i % 1000, spot));
+            String tableId = Integer.toString(i % 20 + 1);
+            LocalDateTime seated = base.plusHours(3L * (i / 20));
+            restaurantManager.addBookingToEntity(tableId, new RestaurantBooking(customer, seated, seated.plusHours(2),
+                    restaurantManager.findEntityById(tableId), 2));
+        }
+    }
+
+    private static void time(String name, Consumer<PrintWriter> report) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            report.accept(new PrintWriter(Writer.nullWriter()));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-28s %8.1f ms%n", name, best / 1e6);
+    }
+}
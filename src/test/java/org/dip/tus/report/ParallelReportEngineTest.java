@@ -0,0 +1,57 @@
+package org.dip.tus.report;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelReportEngineTest {
+
+    @org.junit.jupiter.api.Test
+    void matchesSequentialReports() throws Exception {
+        RoomManager roomManager = RoomManager.getInstance();
+        CustomerManager customerManager = CustomerManager.getInstance();
+        customerManager.getCustomerOrAdd("Parallel Report No Bookings", LocalDate.of(1970, 1, 1));
+        List<RoomBooking> added = new ArrayList<>();
+        // More bookings than one slice, so rooms are split between tasks
+        LocalDateTime base = LocalDateTime.of(2086, 1, 1, 14, 0);
+        for (int day = 0; day < 300; day++) {
+            for (int room = 1; room <= 20; room++) {
+                Customer customer = customerManager.getCustomerOrAdd("Parallel Report Guest " + (day + room) % 50,
+                        LocalDate.of(1970, 1, 1));
+                RoomBooking booking = new RoomBooking(customer, roomManager.findEntityById(Integer.toString(room)),
+                        base.plusDays(day), base.plusDays(day).plusHours(21), 10 + room);
+                assertTrue(roomManager.addBookingToEntity(Integer.toString(room), booking));
+                added.add(booking);
+            }
+        }
+
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            ParallelReportEngine engine = new ParallelReportEngine(pool);
+            assertEquals(render(BookingReports::writeBookingSummaryReport), render(engine::writeBookingSummaryReport));
+            assertEquals(render(BookingReports::writeAllCustomersBookingReport),
+                    render(engine::writeAllCustomersBookingReport));
+        } finally {
+            for (RoomBooking booking : added) {
+                roomManager.removeBookingFromEntity(booking.getEntityId(), booking);
+            }
+        }
+    }
+
+    private static String render(Consumer<PrintWriter> report) {
+        StringWriter text = new StringWriter();
+        report.accept(new PrintWriter(text));
+        return text.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package org.dip.tus.report;
+
+import org.dip.tus.customer.Customer;
+import org.dip.tus.restaurant.MealEnum;
+import org.dip.tus.restaurant.RestaurantBooking;
+import org.dip.tus.restaurant.RestaurantManager;
+import org.dip.tus.room.RoomBooking;
+import org.dip.tus.room.RoomManager;
+import org.dip.tus.room.RoomType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueLedgerTest {
+
+    @org.junit.jupiter.api.Test
+    void totalsFollowAddsAndRemoves() throws Exception {
+        RevenueLedger ledger = RevenueLedger.getInstance();
+        RoomManager roomManager = RoomManager.getInstance();
+        RestaurantManager restaurantManager = RestaurantManager.getInstance();
+        Customer customer = new Customer("Ledger Test", LocalDate.of(1970, 1, 1));
+        LocalDate from = LocalDate.of(2088, 6, 1);
+        LocalDate to = LocalDate.of(2088, 6, 30);
+
+        long roomRevenue = ledger.getRevenue(BookingType.ROOM);
+        long kingRevenue = ledger.getRevenueByRoomType().get(RoomType.KING);
+        long dinnerRevenue = ledger.getRevenueByMealType().get(MealEnum.DINNER);
+        long total = ledger.getTotalRevenue();
+        assertEquals(0, ledger.getTotalRevenueBetween(from, to));
+
+        RoomBooking room = new RoomBooking(customer, roomManager.findEntityById("12"),
+                LocalDateTime.of(2088, 6, 10, 14, 0), LocalDateTime.of(2088, 6, 12, 11, 0), 123.45);
+        RestaurantBooking dinner = new RestaurantBooking(customer, LocalDateTime.of(2088, 7, 1, 19, 0),
+                LocalDateTime.of(2088, 7, 1, 21, 0), restaurantManager.findEntityById("6"), 3);
+        assertTrue(roomManager.addBookingToEntity("12", room));
+        assertTrue(restaurantManager.addBookingToEntity("6", dinner));
+
+        assertEquals(roomRevenue + 12_345, ledger.getRevenue(BookingType.ROOM));
+        assertEquals(kingRevenue + 12_345, (long) ledger.getRevenueByRoomType().get(RoomType.KING));
+        assertEquals(dinnerRevenue + 12_000, (long) ledger.getRevenueByMealType().get(MealEnum.DINNER));
+        assertEquals(total + 24_345, ledger.getTotalRevenue());
+        assertEquals(12_345, ledger.getRevenueBetween(BookingType.ROOM, from, to));
+        assertEquals(12_345, ledger.getTotalRevenueBetween(from, to));
+        assertEquals(24_345, ledger.getTotalRevenueBetween(from, to.plusDays(1)));
+        assertEquals(0, ledger.getTotalRevenueBetween(from, LocalDate.of(2088, 6, 9)));
+
+        assertTrue(roomManager.removeBookingFromEntity("12", room));
+        assertEquals(roomRevenue, ledger.getRevenue(BookingType.ROOM));
+        assertEquals(kingRevenue, (long) ledger.getRevenueByRoomType().get(RoomType.KING));
+        assertEquals(0, ledger.getTotalRevenueBetween(from, to));
+        assertEquals(12_000, ledger.getTotalRevenueBetween(from, to.plusDays(1)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void restoredArchivedHistoryIsCounted() throws Exception {
+        RevenueLedger ledger = RevenueLedger.getInstance();
+        RoomManager roomManager = RoomManager.getInstance();
+        Customer customer = new Customer("Ledger History Test", LocalDate.of(1970, 1, 1));
+        LocalDateTime start = LocalDateTime.of(2019, 5, 10, 14, 0);
+        LocalDateTime end = LocalDateTime.of(2019, 5, 12, 11, 0);
+        LocalDate day = start.toLocalDate();
+
+        // Take a real booking ID, then give the booking back as history recovered on start-up
+        RoomBooking stay = new RoomBooking(customer, roomManager.findEntityById("12"), start, end, 100);
+        assertTrue(roomManager.addBookingToEntity("12", stay));
+        assertTrue(roomManager.removeBookingById(stay.getBookingId()));
+        long roomRevenue = ledger.getRevenue(BookingType.ROOM);
+        long roomCount = ledger.getBookingCount(BookingType.ROOM);
+        long kingRevenue = ledger.getRevenueByRoomType().get(RoomType.KING);
+        assertEquals(0, ledger.getRevenueBetween(BookingType.ROOM, day, day));
+
+        assertTrue(roomManager.restoreArchivedBooking("12", stay.getBookingId(), stay.getBookingStartEpochSecond(),
+                stay.getBookingEndEpochSecond(), 10_000, customer, 0, null));
+        assertEquals(roomRevenue + 10_000, ledger.getRevenue(BookingType.ROOM));
+        assertEquals(roomCount + 1, ledger.getBookingCount(BookingType.ROOM));
+        assertEquals(kingRevenue + 10_000, (long) ledger.getRevenueByRoomType().get(RoomType.KING));
+        assertEquals(10_000, ledger.getRevenueBetween(BookingType.ROOM, day, day));
+
+        // Cancelling the restored booking takes it back out rather than below the starting totals
+        assertTrue(roomManager.removeBookingById(stay.getBookingId()));
+        assertEquals(roomRevenue, ledger.getRevenue(BookingType.ROOM));
+        assertEquals(roomCount, ledger.getBookingCount(BookingType.ROOM));
+        assertEquals(0, ledger.getRevenueBetween(BookingType.ROOM, day, day));
+    }
+}
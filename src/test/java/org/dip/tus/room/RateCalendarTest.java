@@ -0,0 +1,90 @@
+package org.dip.tus.room;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateCalendarTest {
+
+    private final RoomManager roomManager = RoomManager.getInstance();
+
+    /**
+     * The day-by-day loop the calendar replaces.
+     */
+    private static double loopPrice(double baseCost, LocalDateTime start, LocalDateTime end) {
+        double total = 0;
+        for (LocalDate night = start.toLocalDate(); night.isBefore(end.toLocalDate()); night = night.plusDays(1)) {
+            boolean weekend = night.getDayOfWeek() == DayOfWeek.SATURDAY || night.getDayOfWeek() == DayOfWeek.SUNDAY;
+            total += weekend ? baseCost * 1.5 : baseCost;
+        }
+        return total;
+    }
+
+    @org.junit.jupiter.api.Test
+    void matchesNightlyLoopForEveryStartAndLength() {
+        Room king = roomManager.findEntityById("12");
+        LocalDateTime first = LocalDateTime.of(1969, 12, 20, 14, 0);
+        for (int offset = 0; offset < 21; offset++) {
+            for (int nights = 0; nights < 40; nights++) {
+                LocalDateTime start = first.plusDays(offset);
+                LocalDateTime end = start.plusDays(nights).withHour(11);
+                assertEquals(loopPrice(king.getBaseCost(), start, end),
+                        roomManager.calculateCostForDates(king, start, end));
+            }
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void seasonalRatesReplaceUsualRatesAndLatestWins() {
+        RateCalendar calendar = new RateCalendar(
+                Map.of(RoomType.SINGLE, 80.0, RoomType.DOUBLE, 100.0, RoomType.KING, 150.0, RoomType.QUEEN, 120.0),
+                RateCalendar.WEEKEND_MULTIPLIER)
+                // Monday 2089-07-04 to Sunday 2089-07-10
+                .withSeasonalRate(RoomType.SINGLE, LocalDate.of(2089, 7, 4), LocalDate.of(2089, 7, 10), 200)
+                .withSeasonalRate(RoomType.SINGLE, LocalDate.of(2089, 7, 9), LocalDate.of(2089, 7, 9), 50);
+
+        assertEquals(12_000, calendar.getNightlyRate(RoomType.SINGLE, LocalDate.of(2089, 7, 3)));
+        assertEquals(20_000, calendar.getNightlyRate(RoomType.SINGLE, LocalDate.of(2089, 7, 4)));
+        assertEquals(5_000, calendar.getNightlyRate(RoomType.SINGLE, LocalDate.of(2089, 7, 9)));
+        assertEquals(20_000, calendar.getNightlyRate(RoomType.SINGLE, LocalDate.of(2089, 7, 10)));
+        assertEquals(15_000, calendar.getNightlyRate(RoomType.KING, LocalDate.of(2089, 7, 5)));
+        // Sunday 2089-07-03 at the weekend rate, five nights at 200, one at 50, then Monday 2089-07-11 at 80
+        assertEquals(120 + 5 * 200 + 50 + 200 + 80.0, calendar.price(RoomType.SINGLE,
+                LocalDateTime.of(2089, 7, 3, 14, 0), LocalDateTime.of(2089, 7, 12, 11, 0)));
+        assertEquals(0, calendar.withoutSeasonalRates().getSeasonalRates().size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void rejectsSeasonsSpanningTooManyDays() {
+        RateCalendar calendar = roomManager.getRateCalendar().withoutSeasonalRates()
+                .withSeasonalRate(RoomType.KING, LocalDate.of(2089, 1, 1), LocalDate.of(2089, 1, 1), 300);
+        LocalDate lastAllowed = LocalDate.of(2089, 1, 1).plusDays(RateCalendar.MAX_SEASON_SPAN_DAYS - 1);
+
+        assertEquals(2, calendar.withSeasonalRate(RoomType.KING, lastAllowed, lastAllowed, 300)
+                .getSeasonalRates().size());
+        assertThrows(IllegalArgumentException.class, () ->
+                calendar.withSeasonalRate(RoomType.KING, lastAllowed.plusDays(1), lastAllowed.plusDays(1), 300));
+        assertThrows(IllegalArgumentException.class, () ->
+                calendar.withSeasonalRate(RoomType.SINGLE, LocalDate.MIN, LocalDate.MAX, 300));
+    }
+
+    @org.junit.jupiter.api.Test
+    void swappedCalendarPricesNewQuotes() {
+        Room single = roomManager.findEntityById("3");
+        LocalDateTime start = LocalDateTime.of(2089, 8, 1, 14, 0);
+        LocalDateTime end = LocalDateTime.of(2089, 8, 3, 11, 0);
+        RateCalendar standard = roomManager.getRateCalendar();
+        double usual = roomManager.calculateCostForDates(single, start, end);
+        try {
+            roomManager.updateRateCalendar(calendar ->
+                    calendar.withSeasonalRate(RoomType.SINGLE, LocalDate.of(2089, 8, 1), LocalDate.of(2089, 8, 31), 99));
+            assertEquals(198.0, roomManager.calculateCostForDates(single, start, end));
+        } finally {
+            roomManager.setRateCalendar(standard);
+        }
+        assertEquals(usual, roomManager.calculateCostForDates(single, start, end));
+    }
+}
@@ -0,0 +1,107 @@
+package org.dip.tus.room;
+
+import org.dip.tus.customer.Customer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomManagerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 2_000;
+
+    private final RoomManager roomManager = RoomManager.getInstance();
+    private final Customer customer = new Customer("Concurrent Customer", LocalDate.of(1985, 3, 14));
+    private final Queue<RoomBooking> committed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Removes every booking the test committed, so the shared rooms are left as they were found.
+     */
+    @org.junit.jupiter.api.AfterEach
+    void removeCommittedBookings() {
+        for (RoomBooking booking : committed) {
+            assertTrue(roomManager.removeBookingFromEntity(booking.getEntityId(), booking));
+        }
+        committed.clear();
+    }
+
+    /**
+     * Runs the task on every thread at once and waits for all of them, rethrowing the first failure.
+     */
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void concurrentBookingsNeverOverlap() throws Exception {
+        Room room = roomManager.findEntityById("20");
+        int bookingsBefore = room.getBookingCount();
+        LocalDateTime base = LocalDateTime.of(2090, 1, 1, 12, 0);
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                LocalDateTime bookingStart = base.plusHours(random.nextInt(24 * 365));
+                LocalDateTime bookingEnd = bookingStart.plusHours(1 + random.nextInt(72));
+                RoomBooking booking = new RoomBooking(customer, room, bookingStart, bookingEnd, 100.0);
+                if (roomManager.addBookingToEntity(room.getId(), booking)) {
+                    committed.add(booking);
+                }
+            }
+            return null;
+        });
+
+        assertFalse(committed.isEmpty());
+        assertEquals(bookingsBefore + committed.size(), room.getBookingCount());
+        List<RoomBooking> bookings = room.getAllBookings();
+        for (int i = 1; i < bookings.size(); i++) {
+            assertFalse(bookings.get(i).getBookingDateTimeStart().isBefore(bookings.get(i - 1).getBookingDateTimeEnd()),
+                    "Overlapping bookings were committed");
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void identicalRequestsOnlyCommitOnce() throws Exception {
+        Room room = roomManager.findEntityById("19");
+        LocalDateTime bookingStart = LocalDateTime.of(2091, 7, 1, 12, 0);
+
+        runConcurrently(() -> {
+            RoomBooking booking = new RoomBooking(customer, room, bookingStart, bookingStart.plusDays(3), 300.0);
+            if (roomManager.addBookingToEntity(room.getId(), booking)) {
+                committed.add(booking);
+            }
+            return null;
+        });
+
+        assertEquals(1, committed.size());
+    }
+}
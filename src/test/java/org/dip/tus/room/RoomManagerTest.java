@@ -0,0 +1,237 @@
+package org.dip.tus.room;
+
+import org.dip.tus.core.BatchCommitMode;
+import org.dip.tus.core.BookingListener;
+import org.dip.tus.core.BookingResult;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.customer.CustomerManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomManagerTest {
+
+    private final RoomManager roomManager = RoomManager.getInstance();
+    private final Customer customer = new Customer("Batch Customer", LocalDate.of(1979, 11, 2));
+
+    private RoomBooking booking(String roomId, LocalDateTime start, int nights) throws Exception {
+        return new RoomBooking(customer, roomManager.findEntityById(roomId), start, start.plusDays(nights), 100.0 * nights);
+    }
+
+    @org.junit.jupiter.api.Test
+    void perItemBatchReportsEachBooking() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2092, 3, 1, 12, 0);
+        assertTrue(roomManager.addBookingToEntity("1", booking("1", day, 2)));
+
+        List<RoomBooking> batch = List.of(
+                booking("1", day.plusDays(1), 2),
+                booking("1", day.plusDays(10), 3),
+                booking("2", day, 4),
+                booking("1", day.plusDays(11), 1),
+                booking("1", day.plusDays(2), 1));
+
+        BookingResult[] results = roomManager.addBookingsToEntities(batch, BatchCommitMode.PER_ITEM);
+
+        assertEquals(BookingResult.CLASHES_WITH_EXISTING, results[0]);
+        assertEquals(BookingResult.ADDED, results[1]);
+        assertEquals(BookingResult.ADDED, results[2]);
+        assertEquals(BookingResult.CLASHES_WITHIN_BATCH, results[3]);
+        assertEquals(BookingResult.ADDED, results[4]);
+        assertTrue(roomManager.findEntityById("1").doesBookingClash(day.plusDays(10), day.plusDays(11)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void allOrNothingBatchCommitsNothingOnClash() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2093, 3, 1, 12, 0);
+        List<RoomBooking> batch = List.of(
+                booking("3", day, 2),
+                booking("4", day, 2),
+                booking("4", day.plusDays(1), 2));
+
+        BookingResult[] results = roomManager.addBookingsToEntities(batch, BatchCommitMode.ALL_OR_NOTHING);
+
+        assertEquals(BookingResult.NOT_COMMITTED, results[0]);
+        assertEquals(BookingResult.NOT_COMMITTED, results[1]);
+        assertEquals(BookingResult.CLASHES_WITHIN_BATCH, results[2]);
+        assertFalse(roomManager.findEntityById("3").doesBookingClash(day, day.plusDays(2)));
+        assertFalse(roomManager.findEntityById("4").doesBookingClash(day, day.plusDays(3)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void customerIndexFollowsAddsAndRemoves() throws Exception {
+        Customer guest = new Customer("Indexed Guest", LocalDate.of(1990, 5, 5));
+        LocalDateTime day = LocalDateTime.of(2094, 3, 1, 12, 0);
+        RoomBooking later = new RoomBooking(guest, roomManager.findEntityById("5"), day.plusDays(5), day.plusDays(6), 80.0);
+        RoomBooking earlier = new RoomBooking(guest, roomManager.findEntityById("6"), day, day.plusDays(1), 100.0);
+
+        assertTrue(roomManager.getAllBookingsForCustomer(guest).isEmpty());
+        assertTrue(roomManager.addBookingToEntity("5", later));
+        assertTrue(roomManager.addBookingToEntity("6", earlier));
+        assertEquals(List.of(earlier, later), roomManager.getAllBookingsForCustomer(guest));
+
+        assertTrue(roomManager.removeBookingFromEntity("5", later));
+        assertEquals(List.of(earlier), roomManager.getAllBookingsForCustomer(guest));
+        assertTrue(roomManager.getAllBookingsForCustomer(null).isEmpty());
+    }
+
+    @org.junit.jupiter.api.Test
+    void bookingsHoldTheCustomerIdOnceRegistered() throws Exception {
+        Customer guest = new Customer("Id Guest", LocalDate.of(1991, 7, 7));
+        LocalDateTime day = LocalDateTime.of(2094, 6, 1, 12, 0);
+        RoomBooking first = new RoomBooking(guest, roomManager.findEntityById("4"), day, day.plusDays(1), 80.0);
+
+        // Not registered until the booking is committed
+        assertEquals(-1, first.getCustomerId());
+        assertSame(guest, first.getCustomer());
+        assertTrue(roomManager.addBookingToEntity("4", first));
+        int customerId = CustomerManager.getInstance().getCustomerId(guest);
+        assertTrue(customerId > 0);
+        assertEquals(customerId, first.getCustomerId());
+        assertEquals(guest, first.getCustomer());
+
+        // A booking for a registered customer holds the ID from the start
+        RoomBooking second = new RoomBooking(new Customer("Id Guest", LocalDate.of(1991, 7, 7)),
+                roomManager.findEntityById("4"), day.plusDays(3), day.plusDays(4), 80.0);
+        assertEquals(customerId, second.getCustomerId());
+        assertTrue(roomManager.removeBookingFromEntity("4", first));
+    }
+
+    @org.junit.jupiter.api.Test
+    void committedBookingsGetStableIds() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2095, 3, 1, 12, 0);
+        RoomBooking first = booking("7", day, 1);
+        RoomBooking second = booking("7", day.plusDays(1), 1);
+        assertEquals(0, first.getBookingId());
+        assertEquals("unassigned", first.generateBookingID());
+        assertNull(roomManager.findBookingById(first.generateBookingID()));
+
+        assertTrue(roomManager.addBookingToEntity("7", first));
+        assertTrue(roomManager.addBookingToEntity("7", second));
+        assertTrue(second.getBookingId() > first.getBookingId());
+        assertSame(first, roomManager.findBookingById(first.generateBookingID()));
+
+        assertTrue(roomManager.removeBookingById(first.generateBookingID()));
+        assertNull(roomManager.findBookingById(first.generateBookingID()));
+        assertFalse(roomManager.findEntityById("7").doesBookingClash(day, day.plusDays(1)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void failedListenerRollsBackTheCommit() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2084, 3, 1, 12, 0);
+        List<String> seen = new ArrayList<>();
+        BookingListener<Room, RoomBooking> failing = new BookingListener<>() {
+            @Override
+            public void bookingAdded(Room room, RoomBooking booking) {
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+
+            @Override
+            public void bookingRemoved(Room room, RoomBooking booking) {
+            }
+        };
+        BookingListener<Room, RoomBooking> recording = new BookingListener<>() {
+            @Override
+            public void bookingAdded(Room room, RoomBooking booking) {
+                seen.add("added " + room.getId());
+            }
+
+            @Override
+            public void bookingRemoved(Room room, RoomBooking booking) {
+                seen.add("removed " + room.getId());
+            }
+        };
+        roomManager.addBookingListener(failing);
+        roomManager.addBookingListener(recording);
+        try {
+            RoomBooking single = booking("14", day, 2);
+            assertThrows(UncheckedIOException.class, () -> roomManager.addBookingToEntity("14", single));
+            assertFalse(roomManager.findEntityById("14").doesBookingClash(day, day.plusDays(2)));
+            assertNull(roomManager.findBookingById(single.generateBookingID()));
+            assertEquals(List.of("added 14", "removed 14"), seen);
+
+            seen.clear();
+            List<RoomBooking> batch = List.of(booking("14", day, 1), booking("14", day.plusDays(1), 1));
+            assertThrows(UncheckedIOException.class,
+                    () -> roomManager.addBookingsToEntities(batch, BatchCommitMode.PER_ITEM));
+            assertFalse(roomManager.findEntityById("14").doesBookingClash(day, day.plusDays(2)));
+            // The batch stops at the first failure and rolls back what it committed
+            assertEquals(List.of("added 14", "removed 14"), seen);
+        } finally {
+            roomManager.removeBookingListener(failing);
+            roomManager.removeBookingListener(recording);
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void availabilityIsReusedUntilABookingChanges() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2085, 5, 1, 12, 0);
+        LocalDateTime end = start.plusDays(3);
+        Room room = roomManager.findEntityById("17");
+        List<Room> free = roomManager.getRoomsAvailableBetween(RoomType.QUEEN, start, end);
+        assertTrue(free.contains(room));
+        long hits = roomManager.getQueryCacheStats().hits();
+        assertSame(free, roomManager.getRoomsAvailableBetween(RoomType.QUEEN, start, end));
+        assertEquals(hits + 1, roomManager.getQueryCacheStats().hits());
+
+        RoomBooking booking = booking("17", start, 2);
+        assertTrue(roomManager.addBookingToEntity("17", booking));
+        assertFalse(roomManager.getRoomsAvailableBetween(RoomType.QUEEN, start, end).contains(room));
+        assertTrue(roomManager.removeBookingFromEntity("17", booking));
+        assertEquals(free, roomManager.getRoomsAvailableBetween(RoomType.QUEEN, start, end));
+    }
+
+    @org.junit.jupiter.api.Test
+    void availabilityChecksRoomsSharingADayExactly() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2085, 8, 1, 12, 0);
+        Room room = roomManager.findEntityById("16");
+        RoomBooking first = new RoomBooking(customer, room, day, day.plusDays(2).minusHours(2), 200.0);
+        RoomBooking second = new RoomBooking(customer, room, day.plusDays(2).minusHours(1), day.plusDays(3), 100.0);
+        assertTrue(roomManager.addBookingToEntity("16", first));
+        assertTrue(roomManager.addBookingToEntity("16", second));
+
+        LocalDateTime checkIn = day.plusDays(2).minusHours(2);
+        assertTrue(roomManager.getEntitiesAvailableBetween(checkIn, checkIn.plusMinutes(30)).contains(room));
+        assertFalse(roomManager.getEntitiesAvailableBetween(day.plusDays(1), day.plusDays(1).plusHours(1)).contains(room));
+        // The second booking still shares the day the first one ended on
+        assertTrue(roomManager.removeBookingFromEntity("16", first));
+        assertTrue(roomManager.getEntitiesAvailableBetween(day.plusDays(1), checkIn).contains(room));
+        assertFalse(roomManager.getEntitiesAvailableBetween(checkIn, checkIn.plusHours(2)).contains(room));
+        assertTrue(roomManager.removeBookingFromEntity("16", second));
+        assertTrue(roomManager.getEntitiesAvailableBetween(day, day.plusDays(3)).contains(room));
+    }
+
+    @org.junit.jupiter.api.Test
+    void archivedBookingsStayFindableByIdAndCustomer() throws Exception {
+        LocalDateTime day = LocalDateTime.of(2029, 2, 1, 12, 0);
+        Customer archivedCustomer = new Customer("Archive Lookup Customer", LocalDate.of(1970, 7, 7));
+        Room room = roomManager.findEntityById("15");
+        RoomBooking booking = new RoomBooking(archivedCustomer, room, day, day.plusDays(2), 200.0);
+        // Looking a customer up never registers them; committing a booking does
+        assertEquals(-1, CustomerManager.getInstance().getCustomerId(archivedCustomer));
+        assertTrue(roomManager.getAllBookingsForCustomer(archivedCustomer).isEmpty());
+        assertEquals(-1, CustomerManager.getInstance().getCustomerId(archivedCustomer));
+        assertTrue(roomManager.addBookingToEntity("15", booking));
+        assertTrue(CustomerManager.getInstance().getCustomerId(archivedCustomer) > 0);
+
+        assertEquals(1, roomManager.archiveBookingsEndedBefore(day.plusDays(3)));
+        String bookingId = booking.generateBookingID();
+        RoomBooking archived = roomManager.findBookingById(bookingId);
+        assertEquals(booking.getBookingStartEpochSecond(), archived.getBookingStartEpochSecond());
+        assertEquals(List.of(bookingId), roomManager.getAllBookingsForCustomer(archivedCustomer)
+                .stream().map(RoomBooking::generateBookingID).toList());
+        // Replaying the booking is still recognised as a duplicate
+        assertFalse(roomManager.restoreBooking(new RoomBooking(archivedCustomer, room, day, day.plusDays(2), 200.0),
+                booking.getBookingId()));
+
+        assertTrue(roomManager.removeBookingById(bookingId));
+        assertNull(roomManager.findBookingById(bookingId));
+        assertTrue(roomManager.getAllBookingsForCustomer(archivedCustomer).isEmpty());
+        assertFalse(room.doesBookingClash(day, day.plusDays(2)));
+    }
+}
@@ -1,10 +1,136 @@
 package org.dip.tus.room;
 
+import org.dip.tus.core.BookingStore;
+import org.dip.tus.customer.Customer;
+import org.dip.tus.util.EpochTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RoomTest {
 
+    private final Customer customer = new Customer("Test Customer", LocalDate.of(1990, 1, 1));
+
+    private RoomBooking booking(Room room, LocalDateTime start, LocalDateTime end) throws Exception {
+        return new RoomBooking(customer, room, start, end, 100.0);
+    }
+
+    @org.junit.jupiter.api.Test
+    void doesBookingClash() throws Exception {
+        Room room = new Room(1, RoomType.SINGLE);
+        LocalDateTime day = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+        assertTrue(room.addBookingToQueue(booking(room, day, day.plusDays(2))));
+        assertTrue(room.addBookingToQueue(booking(room, day.plusDays(5), day.plusDays(7))));
+
+        // Overlapping the start, the end, or fully inside an existing booking
+        assertTrue(room.doesBookingClash(day.minusDays(1), day.plusHours(1)));
+        assertTrue(room.doesBookingClash(day.plusDays(1), day.plusDays(3)));
+        assertTrue(room.doesBookingClash(day.plusDays(6), day.plusDays(6).plusHours(1)));
+        assertTrue(room.doesBookingClash(day.minusDays(10), day.plusDays(10)));
+
+        // Touching boundaries and gaps between bookings are free
+        assertFalse(room.doesBookingClash(day.minusDays(1), day));
+        assertFalse(room.doesBookingClash(day.plusDays(2), day.plusDays(5)));
+        assertFalse(room.doesBookingClash(day.plusDays(7), day.plusDays(8)));
+
+        assertFalse(room.addBookingToQueue(booking(room, day.plusDays(1), day.plusDays(3))));
+        assertEquals(2, room.getBookingCount());
+    }
+
     @org.junit.jupiter.api.Test
-    void doesBookingClash() {
+    void getAllBookingsReturnsOrderedSnapshot() throws Exception {
+        Room room = new Room(3, RoomType.KING);
+        LocalDateTime day = LocalDateTime.of(2030, 6, 1, 12, 0);
+        RoomBooking later = booking(room, day.plusDays(4), day.plusDays(5));
+        RoomBooking earlier = booking(room, day, day.plusDays(1));
+        room.addBookingToQueue(later);
+        room.addBookingToQueue(earlier);
+
+        List<RoomBooking> snapshot = room.getAllBookings();
+        assertEquals(List.of(earlier, later), snapshot);
+        assertSame(snapshot, room.getAllBookings());
+
+        room.removeBookingFromQueue(earlier);
+        assertEquals(List.of(earlier, later), snapshot);
+        assertEquals(List.of(later), room.getAllBookings());
+        assertEquals(1, room.getBookingCount());
+    }
+
+    @org.junit.jupiter.api.Test
+    void removeBookingFromQueue() throws Exception {
+        Room room = new Room(2, RoomType.DOUBLE);
+        LocalDateTime day = LocalDateTime.of(2030, 6, 1, 12, 0);
+        RoomBooking first = booking(room, day, day.plusDays(2));
+        RoomBooking sameStart = booking(room, day, day.plusDays(1));
+
+        assertTrue(room.addBookingToQueue(first));
+        assertFalse(room.removeBookingFromQueue(sameStart));
+        assertTrue(room.removeBookingFromQueue(first));
+        assertFalse(room.doesBookingClash(day, day.plusDays(2)));
+        assertNull(room.getNextBooking());
+    }
+
+    @org.junit.jupiter.api.Test
+    void occupancyKeepsSharedBoundaryDays() throws Exception {
+        Room room = new Room(4, RoomType.QUEEN);
+        LocalDateTime day = LocalDateTime.of(2030, 6, 1, 12, 0);
+        RoomBooking first = booking(room, day, day.plusDays(2).minusHours(1));
+        RoomBooking second = booking(room, day.plusDays(2), day.plusDays(4).minusHours(1));
+        assertTrue(room.addBookingToQueue(first));
+        assertTrue(room.addBookingToQueue(second));
+
+        // Check-out and check-in on the same day both touch that day's slot
+        assertEquals(5, room.getOccupancy(day, day.plusDays(5)).cardinality());
+
+        assertTrue(room.removeBookingFromQueue(first));
+        BitSet occupancy = room.getOccupancy(day, day.plusDays(5));
+        assertFalse(occupancy.get(0));
+        assertTrue(occupancy.get(2));
+        assertTrue(room.doesBookingClash(day.plusDays(2), day.plusDays(3)));
+        assertFalse(room.doesBookingClash(day, day.plusDays(2)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void archivedBookingsStayVisibleAndClash() throws Exception {
+        Room room = new Room(5, RoomType.SINGLE);
+        LocalDateTime day = LocalDateTime.of(2030, 6, 1, 12, 0);
+        RoomBooking past = booking(room, day, day.plusDays(2));
+        RoomBooking current = booking(room, day.plusDays(3), day.plusDays(5));
+        assertTrue(room.addBookingToQueue(past));
+        assertTrue(room.addBookingToQueue(current));
+
+        BookingStore store = BookingStore.inMemory();
+        assertEquals(1, room.archiveBookingsEndedBy(EpochTime.toEpochSecond(day.plusDays(2)), store));
+        assertEquals(1, room.getLiveBookingCount());
+        assertEquals(2, room.getBookingCount());
+        assertEquals(1, store.size());
+        assertSame(current, room.getNextBooking());
+
+        List<RoomBooking> all = room.getAllBookings();
+        assertEquals(2, all.size());
+        assertEquals(day, all.get(0).getBookingDateTimeStart());
+        assertEquals(100.0, all.get(0).getCost());
+        assertEquals(customer, all.get(0).getCustomer());
+        assertSame(current, all.get(1));
+
+        List<Long> starts = new ArrayList<>();
+        room.forEachBookingRecord((id, start, end, cost, customerId) -> starts.add(start));
+        assertEquals(List.of(EpochTime.toEpochSecond(day), EpochTime.toEpochSecond(day.plusDays(3))), starts);
+
+        assertTrue(room.doesBookingClash(day.plusDays(1), day.plusDays(2)));
+        assertTrue(room.isOccupied(day.plusDays(1)));
+        assertTrue(room.isOccupied(day.plusDays(4)));
+        assertFalse(room.isOccupied(day.plusDays(2).plusHours(12)));
+
+        assertTrue(room.removeBookingFromQueue(all.get(0)));
+        assertTrue(store.isRemoved(0));
+        assertFalse(room.doesBookingClash(day, day.plusDays(2)));
+        assertEquals(1, room.getBookingCount());
     }
-}
\ No newline at end of file
+}
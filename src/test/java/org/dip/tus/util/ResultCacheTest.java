@@ -0,0 +1,43 @@
+package org.dip.tus.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @org.junit.jupiter.api.Test
+    void servesResultsOnlyAtTheVersionTheyWereComputedAt() {
+        ResultCache<String, String> cache = new ResultCache<>(4);
+        int[] computed = new int[1];
+
+        assertEquals("a1", cache.get("a", 1, () -> "a" + ++computed[0]));
+        assertEquals("a1", cache.get("a", 1, () -> "a" + ++computed[0]));
+        assertEquals("a2", cache.get("a", 2, () -> "a" + ++computed[0]));
+        // A result computed from older data never replaces a newer one
+        cache.put("a", 1, "stale");
+        assertEquals("a2", cache.getIfPresent("a", 2));
+        assertNull(cache.getIfPresent("a", 1));
+
+        ResultCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @org.junit.jupiter.api.Test
+    void evictsLeastRecentlyUsedPastMaximumWeight() {
+        ResultCache<String, String> cache = new ResultCache<>(10, String::length);
+        cache.put("a", 0, "aaaa");
+        cache.put("b", 0, "bbbb");
+        assertEquals("aaaa", cache.getIfPresent("a", 0));
+        cache.put("c", 0, "cccc");
+
+        assertEquals("aaaa", cache.getIfPresent("a", 0));
+        assertNull(cache.getIfPresent("b", 0));
+        assertEquals("cccc", cache.getIfPresent("c", 0));
+        // Too heavy to hold at all
+        cache.put("d", 0, "ddddddddddd");
+        assertNull(cache.getIfPresent("d", 0));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(2, cache.getStats().size());
+    }
+}